@@ -0,0 +1,76 @@
+package com.antonkarpenko.ffmpegkit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Creates the logs, statistics, sessions and ffprobe output the benchmarks convert. Values are
+ * shaped like the ones a transcode of a typical phone video produces.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static Log log(final long sessionId, final int index) {
+        return new Log(sessionId, Level.AV_LOG_INFO, String.format(Locale.ROOT, "frame=%5d fps= 30 q=28.0 size=%8dkB time=00:00:%02d.%02d bitrate=2048.0kbits/s speed=1.02x\n", index, index * 12, (index / 30) % 60, index % 100));
+    }
+
+    public static List<Log> logList(final long sessionId, final int count) {
+        final List<Log> logs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            logs.add(log(sessionId, i));
+        }
+        return logs;
+    }
+
+    public static Statistics statistics(final long sessionId, final int index) {
+        return new Statistics(sessionId, index, 30.0f, 28.0f, index * 12_288L, index * 33.3, 2048.0, 1.02);
+    }
+
+    public static List<Statistics> statisticsList(final long sessionId, final int count) {
+        final List<Statistics> statistics = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            statistics.add(statistics(sessionId, i));
+        }
+        return statistics;
+    }
+
+    public static List<Session> sessions(final int count) {
+        final List<Session> sessions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            sessions.add(new BenchmarkSession(i + 1, new String[]{"-y", "-i", "/storage/emulated/0/DCIM/Camera/VID_" + i + ".mp4", "-c:v", "libx264", "-preset", "veryfast", "-crf", "23", "-c:a", "aac", "/data/user/0/com.example/cache/output_" + i + ".mp4"}));
+        }
+        return sessions;
+    }
+
+    /**
+     * Returns ffprobe -show_format -show_streams -show_chapters output with the given number of
+     * streams and chapters.
+     */
+    public static String ffprobeOutput(final int streamCount, final int chapterCount) {
+        final StringBuilder json = new StringBuilder();
+        json.append("{\n    \"streams\": [\n");
+        for (int i = 0; i < streamCount; i++) {
+            if (i > 0) {
+                json.append(",\n");
+            }
+            if (i % 2 == 0) {
+                json.append(String.format(Locale.ROOT, "        {\n            \"index\": %d,\n            \"codec_name\": \"h264\",\n            \"codec_long_name\": \"H.264 / AVC / MPEG-4 AVC / MPEG-4 part 10\",\n            \"profile\": \"High\",\n            \"codec_type\": \"video\",\n            \"codec_tag_string\": \"avc1\",\n            \"codec_tag\": \"0x31637661\",\n            \"width\": 1920,\n            \"height\": 1080,\n            \"coded_width\": 1920,\n            \"coded_height\": 1080,\n            \"has_b_frames\": 1,\n            \"pix_fmt\": \"yuv420p\",\n            \"level\": 40,\n            \"r_frame_rate\": \"30/1\",\n            \"avg_frame_rate\": \"30/1\",\n            \"time_base\": \"1/90000\",\n            \"start_pts\": 0,\n            \"start_time\": \"0.000000\",\n            \"duration_ts\": 5400000,\n            \"duration\": \"60.000000\",\n            \"bit_rate\": \"16000000\",\n            \"nb_frames\": \"1800\",\n            \"disposition\": {\n                \"default\": 1,\n                \"dub\": 0,\n                \"original\": 0,\n                \"comment\": 0,\n                \"lyrics\": 0,\n                \"karaoke\": 0,\n                \"forced\": 0\n            },\n            \"tags\": {\n                \"creation_time\": \"2024-05-01T10:00:00.000000Z\",\n                \"language\": \"eng\",\n                \"handler_name\": \"VideoHandle\"\n            }\n        }", i));
+            } else {
+                json.append(String.format(Locale.ROOT, "        {\n            \"index\": %d,\n            \"codec_name\": \"aac\",\n            \"codec_long_name\": \"AAC (Advanced Audio Coding)\",\n            \"profile\": \"LC\",\n            \"codec_type\": \"audio\",\n            \"codec_tag_string\": \"mp4a\",\n            \"codec_tag\": \"0x6134706d\",\n            \"sample_fmt\": \"fltp\",\n            \"sample_rate\": \"48000\",\n            \"channels\": 2,\n            \"channel_layout\": \"stereo\",\n            \"bits_per_sample\": 0,\n            \"time_base\": \"1/48000\",\n            \"start_pts\": 0,\n            \"start_time\": \"0.000000\",\n            \"duration_ts\": 2880000,\n            \"duration\": \"60.000000\",\n            \"bit_rate\": \"256000\",\n            \"nb_frames\": \"2813\",\n            \"disposition\": {\n                \"default\": 1,\n                \"dub\": 0,\n                \"forced\": 0\n            },\n            \"tags\": {\n                \"language\": \"eng\",\n                \"handler_name\": \"SoundHandle\"\n            }\n        }", i));
+            }
+        }
+        json.append("\n    ],\n    \"chapters\": [\n");
+        for (int i = 0; i < chapterCount; i++) {
+            if (i > 0) {
+                json.append(",\n");
+            }
+            json.append(String.format(Locale.ROOT, "        {\n            \"id\": %d,\n            \"time_base\": \"1/1000\",\n            \"start\": %d,\n            \"start_time\": \"%d.000000\",\n            \"end\": %d,\n            \"end_time\": \"%d.000000\",\n            \"tags\": {\n                \"title\": \"Chapter %d\"\n            }\n        }", i, i * 10_000, i * 10, (i + 1) * 10_000, (i + 1) * 10, i + 1));
+        }
+        json.append("\n    ],\n    \"format\": {\n        \"filename\": \"/storage/emulated/0/DCIM/Camera/VID_20240501_100000.mp4\",\n        \"nb_streams\": ").append(streamCount).append(",\n        \"nb_programs\": 0,\n        \"format_name\": \"mov,mp4,m4a,3gp,3g2,mj2\",\n        \"format_long_name\": \"QuickTime / MOV\",\n        \"start_time\": \"0.000000\",\n        \"duration\": \"60.000000\",\n        \"size\": \"121932800\",\n        \"bit_rate\": \"16257706\",\n        \"probe_score\": 100,\n        \"tags\": {\n            \"major_brand\": \"mp42\",\n            \"minor_version\": \"0\",\n            \"compatible_brands\": \"isommp42\",\n            \"creation_time\": \"2024-05-01T10:00:00.000000Z\",\n            \"location\": \"+52.5200+013.4050/\"\n        }\n    }\n}\n");
+        return json.toString();
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.antonkarpenko.ffmpegkit;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * Stand-in FFmpeg session. Real sessions register themselves with FFmpegKitConfig, which loads
+ * the native libraries, so they can not be created on a desktop JVM.
+ */
+public class BenchmarkSession implements Session {
+
+    private final long sessionId;
+    private final Date createTime;
+    private final Date startTime;
+    private final String[] arguments;
+
+    public BenchmarkSession(final long sessionId, final String[] arguments) {
+        this.sessionId = sessionId;
+        this.createTime = new Date();
+        this.startTime = new Date();
+        this.arguments = arguments;
+    }
+
+    @Override
+    public LogCallback getLogCallback() {
+        return null;
+    }
+
+    @Override
+    public long getSessionId() {
+        return sessionId;
+    }
+
+    @Override
+    public Date getCreateTime() {
+        return createTime;
+    }
+
+    @Override
+    public Date getStartTime() {
+        return startTime;
+    }
+
+    @Override
+    public Date getEndTime() {
+        return null;
+    }
+
+    @Override
+    public long getDuration() {
+        return 0;
+    }
+
+    @Override
+    public String[] getArguments() {
+        return arguments;
+    }
+
+    @Override
+    public String getCommand() {
+        return String.join(" ", arguments);
+    }
+
+    @Override
+    public List<Log> getAllLogs(final int waitTimeout) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<Log> getAllLogs() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<Log> getLogs() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public String getAllLogsAsString(final int waitTimeout) {
+        return "";
+    }
+
+    @Override
+    public String getAllLogsAsString() {
+        return "";
+    }
+
+    @Override
+    public String getLogsAsString() {
+        return "";
+    }
+
+    @Override
+    public String getOutput() {
+        return "";
+    }
+
+    @Override
+    public SessionState getState() {
+        return SessionState.RUNNING;
+    }
+
+    @Override
+    public ReturnCode getReturnCode() {
+        return null;
+    }
+
+    @Override
+    public String getFailStackTrace() {
+        return null;
+    }
+
+    @Override
+    public LogRedirectionStrategy getLogRedirectionStrategy() {
+        return LogRedirectionStrategy.NEVER_PRINT_LOGS;
+    }
+
+    @Override
+    public boolean thereAreAsynchronousMessagesInTransmit() {
+        return false;
+    }
+
+    @Override
+    public void addLog(final Log log) {
+    }
+
+    @Override
+    public Future<?> getFuture() {
+        return null;
+    }
+
+    @Override
+    public boolean isFFmpeg() {
+        return true;
+    }
+
+    @Override
+    public boolean isFFprobe() {
+        return false;
+    }
+
+    @Override
+    public boolean isMediaInformation() {
+        return false;
+    }
+
+    @Override
+    public void cancel() {
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.antonkarpenko.ffmpegkit;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversions from session, log, statistics and ffprobe output objects into the
+ * maps sent over the method channel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConversionBenchmark {
+
+    @Param({"2", "16"})
+    public int streamCount;
+
+    @Param({"100", "1000"})
+    public int itemCount;
+
+    private String ffprobeOutput;
+    private JSONObject ffprobeJson;
+    private JSONArray streamsJson;
+    private List<Log> logs;
+    private List<Statistics> statistics;
+    private List<Session> sessions;
+
+    @Setup
+    public void setup() throws JSONException {
+        ffprobeOutput = BenchmarkFixtures.ffprobeOutput(streamCount, streamCount / 2);
+        ffprobeJson = new JSONObject(ffprobeOutput);
+        streamsJson = ffprobeJson.getJSONArray("streams");
+        logs = BenchmarkFixtures.logList(1, itemCount);
+        statistics = BenchmarkFixtures.statisticsList(1, itemCount);
+        sessions = BenchmarkFixtures.sessions(itemCount);
+    }
+
+    @Benchmark
+    public Map<String, Object> jsonObjectToMap() {
+        return FFmpegKitFlutterPlugin.toMap(ffprobeJson);
+    }
+
+    @Benchmark
+    public List<Object> jsonArrayToList() {
+        return FFmpegKitFlutterPlugin.toList(streamsJson);
+    }
+
+    /**
+     * ffprobe output to map through MediaInformationJsonParser and a JSONObject tree, the path used
+     * before JsonMapReader.
+     */
+    @Benchmark
+    public Map<String, Object> ffprobeOutputToMapThroughJsonObject() throws JSONException {
+        return FFmpegKitFlutterPlugin.toMap(MediaInformationJsonParser.fromWithError(ffprobeOutput));
+    }
+
+    @Benchmark
+    public Map<String, Object> ffprobeOutputToMap() throws JSONException {
+        return FFmpegKitFlutterPlugin.toMediaInformationMap(ffprobeOutput);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> logsToMapList() {
+        return FFmpegKitFlutterPlugin.toLogMapList(logs);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> statisticsToMapList() {
+        return FFmpegKitFlutterPlugin.toStatisticsMapList(statistics);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> sessionsToMapList() {
+        return FFmpegKitFlutterPlugin.toSessionMapList(sessions);
+    }
+
+}
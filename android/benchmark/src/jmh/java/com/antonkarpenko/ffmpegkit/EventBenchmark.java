@@ -0,0 +1,84 @@
+package com.antonkarpenko.ffmpegkit;
+
+import io.flutter.plugin.common.EventChannel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the delivery of log and statistics events from the native callbacks up to the event
+ * sink, in both the map and the compact event encoding. The Handler stand-in runs posted events
+ * on the calling thread, so the cost of the main looper itself is not included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EventBenchmark {
+
+    @Param({"false", "true"})
+    public boolean compactEvents;
+
+    private FFmpegKitFlutterPlugin plugin;
+    private LastEventSink eventSink;
+    private Log log;
+    private Statistics statistics;
+
+    @Setup
+    public void setup() {
+        eventSink = new LastEventSink();
+        plugin = new FFmpegKitFlutterPlugin();
+        plugin.onListen(null, eventSink);
+        plugin.setCompactEvents(compactEvents, null);
+
+        log = BenchmarkFixtures.log(1, 42);
+        statistics = BenchmarkFixtures.statistics(1, 42);
+    }
+
+    @TearDown
+    public void tearDown() {
+        plugin.onCancel(null);
+    }
+
+    @Benchmark
+    public Object emitLog() {
+        plugin.emitLog(log);
+        return eventSink.lastEvent;
+    }
+
+    @Benchmark
+    public Object emitStatistics() {
+        plugin.emitStatistics(statistics);
+        return eventSink.lastEvent;
+    }
+
+    /**
+     * Keeps the last event, which the benchmark methods return so the event is not optimized away.
+     */
+    private static class LastEventSink implements EventChannel.EventSink {
+        private Object lastEvent;
+
+        @Override
+        public void success(final Object event) {
+            lastEvent = event;
+        }
+
+        @Override
+        public void error(final String errorCode, final String errorMessage, final Object errorDetails) {
+            lastEvent = errorCode;
+        }
+
+        @Override
+        public void endOfStream() {
+        }
+    }
+
+}
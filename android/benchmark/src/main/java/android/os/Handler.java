@@ -0,0 +1,24 @@
+package android.os;
+
+/**
+ * JVM stand-in for the framework Handler, which needs native code. Posted runnables run on the
+ * calling thread, so benchmarks measure the delivery of an event up to the event sink.
+ */
+public class Handler {
+
+    private final Looper looper;
+
+    public Handler(final Looper looper) {
+        this.looper = looper;
+    }
+
+    public final Looper getLooper() {
+        return looper;
+    }
+
+    public final boolean post(final Runnable runnable) {
+        runnable.run();
+        return true;
+    }
+
+}
@@ -0,0 +1,22 @@
+package android.os;
+
+/**
+ * JVM stand-in for the framework Looper, which needs native code. There is a single main looper
+ * and no thread is ever associated with it.
+ */
+public final class Looper {
+
+    private static final Looper mainLooper = new Looper();
+
+    private Looper() {
+    }
+
+    public static Looper getMainLooper() {
+        return mainLooper;
+    }
+
+    public static Looper myLooper() {
+        return null;
+    }
+
+}
@@ -0,0 +1,43 @@
+package android.util;
+
+/**
+ * JVM stand-in for the framework Log, which needs native code. Messages are dropped.
+ */
+public final class Log {
+
+    private Log() {
+    }
+
+    public static int d(final String tag, final String message) {
+        return 0;
+    }
+
+    public static int d(final String tag, final String message, final Throwable throwable) {
+        return 0;
+    }
+
+    public static int i(final String tag, final String message) {
+        return 0;
+    }
+
+    public static int i(final String tag, final String message, final Throwable throwable) {
+        return 0;
+    }
+
+    public static int w(final String tag, final String message) {
+        return 0;
+    }
+
+    public static int w(final String tag, final String message, final Throwable throwable) {
+        return 0;
+    }
+
+    public static int e(final String tag, final String message) {
+        return 0;
+    }
+
+    public static int e(final String tag, final String message, final Throwable throwable) {
+        return 0;
+    }
+
+}
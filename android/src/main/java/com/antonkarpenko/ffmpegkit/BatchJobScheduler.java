@@ -0,0 +1,350 @@
+package com.antonkarpenko.ffmpegkit;
+
+import static com.antonkarpenko.ffmpegkit.FFmpegKitFlutterPlugin.LIBRARY_NAME;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.antonkarpenko.ffmpegkit.FFmpegKit;
+import com.antonkarpenko.ffmpegkit.FFmpegKitConfig;
+import com.antonkarpenko.ffmpegkit.FFmpegSession;
+import com.antonkarpenko.ffmpegkit.FFmpegSessionCompleteCallback;
+import com.antonkarpenko.ffmpegkit.FFprobeSession;
+import com.antonkarpenko.ffmpegkit.FFprobeSessionCompleteCallback;
+import com.antonkarpenko.ffmpegkit.LogRedirectionStrategy;
+import com.antonkarpenko.ffmpegkit.ReturnCode;
+import com.antonkarpenko.ffmpegkit.Session;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a graph of FFmpeg and FFprobe jobs submitted in a single call. A job is started on its
+ * executor lane once all jobs it depends on completed successfully, and jobs depending on a
+ * failed or cancelled job are skipped.
+ *
+ * <p>The session of a job is created when a lane thread picks the job up, not when the batch is
+ * submitted or the job becomes runnable, so jobs waiting for their dependencies or for a free lane
+ * slot do not push other sessions out of the session history. A started event reports the
+ * session id of the job. Skipped jobs never get a session.
+ */
+public class BatchJobScheduler {
+
+    public interface JobListener {
+        void onJobEvent(long batchId, @NonNull String jobId, @Nullable Long sessionId, @NonNull String status, @Nullable Integer returnCode, int remaining);
+    }
+
+    public static final String JOB_TYPE_FFMPEG = "ffmpeg";
+    public static final String JOB_TYPE_FFPROBE = "ffprobe";
+
+    public static final String STATUS_STARTED = "started";
+    public static final String STATUS_COMPLETED = "completed";
+    public static final String STATUS_FAILED = "failed";
+    public static final String STATUS_SKIPPED = "skipped";
+
+    private final SessionExecutor sessionExecutor;
+    private final JobListener listener;
+    private final AtomicLong batchCounter;
+    private final Map<Long, Batch> batches;
+
+    public BatchJobScheduler(@NonNull final SessionExecutor sessionExecutor, @NonNull final JobListener listener) {
+        this.sessionExecutor = sessionExecutor;
+        this.listener = listener;
+        this.batchCounter = new AtomicLong(1);
+        this.batches = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Validates the job graph. Nothing is executed until {@link #start(Batch)} is called.
+     *
+     * @throws IllegalArgumentException if a job is invalid, job ids are not unique, a dependency
+     *                                  is unknown or the dependencies contain a cycle
+     */
+    public Batch create(@NonNull final List<Map<String, Object>> jobMaps) {
+        final Batch batch = new Batch(batchCounter.getAndIncrement());
+
+        for (final Map<String, Object> jobMap : jobMaps) {
+            final Job job = toJob(jobMap);
+            if (batch.jobs.put(job.id, job) != null) {
+                throw new IllegalArgumentException(String.format("Duplicate job id %s.", job.id));
+            }
+        }
+
+        for (final Job job : batch.jobs.values()) {
+            for (final String dependency : job.dependsOn) {
+                final Job parent = batch.jobs.get(dependency);
+                if (parent == null) {
+                    throw new IllegalArgumentException(String.format("Job %s depends on unknown job %s.", job.id, dependency));
+                }
+                parent.dependents.add(job);
+                job.pendingDependencies++;
+            }
+        }
+
+        validateAcyclic(batch);
+        batch.remaining = batch.jobs.size();
+
+        return batch;
+    }
+
+    public void start(@NonNull final Batch batch) {
+        if (batch.remaining == 0) {
+            return;
+        }
+
+        batches.put(batch.id, batch);
+
+        Log.d(LIBRARY_NAME, String.format("Starting batch %d with %d jobs.", batch.id, batch.jobs.size()));
+
+        final List<Job> readyJobs = new ArrayList<>();
+        synchronized (batch) {
+            for (final Job job : batch.jobs.values()) {
+                if (job.pendingDependencies == 0) {
+                    readyJobs.add(job);
+                }
+            }
+        }
+
+        for (final Job job : readyJobs) {
+            execute(batch, job);
+        }
+    }
+
+    /**
+     * Cancels all active batches, e.g. when the plugin is detached. Running jobs are cancelled,
+     * no other job of these batches is started and no further job events are reported.
+     */
+    public void cancelAll() {
+        for (final Batch batch : batches.values()) {
+            synchronized (batch) {
+                batch.cancelled = true;
+                for (final Job job : batch.jobs.values()) {
+                    if (job.session != null && !job.finished) {
+                        FFmpegKit.cancel(job.session.getSessionId());
+                    }
+                }
+            }
+        }
+        batches.clear();
+    }
+
+    public int getActiveBatchCount() {
+        return batches.size();
+    }
+
+    private void execute(final Batch batch, final Job job) {
+        try {
+            sessionExecutor.submit(JOB_TYPE_FFPROBE.equals(job.type) ? SessionExecutor.Lane.FFPROBE : SessionExecutor.Lane.FFMPEG, () -> run(batch, job));
+        } catch (final RejectedExecutionException e) {
+
+            // the executor is released when the plugin is detached, the batch is cancelled then
+            Log.w(LIBRARY_NAME, String.format("Job %s of batch %d was rejected.", job.id, batch.id), e);
+        }
+    }
+
+    /**
+     * Runs on a lane thread. Creates the session of the job, executes it synchronously and
+     * invokes the callbacks the way an asynchronous execution would.
+     */
+    private void run(final Batch batch, final Job job) {
+        final Session session;
+        final int remaining;
+        synchronized (batch) {
+            if (batch.cancelled) {
+                return;
+            }
+
+            if (JOB_TYPE_FFPROBE.equals(job.type)) {
+                session = FFprobeSession.create(job.arguments, null, null, LogRedirectionStrategy.NEVER_PRINT_LOGS);
+            } else {
+                session = FFmpegSession.create(job.arguments, null, null, null, LogRedirectionStrategy.NEVER_PRINT_LOGS);
+            }
+            job.session = session;
+            remaining = batch.remaining;
+        }
+        listener.onJobEvent(batch.id, job.id, session.getSessionId(), STATUS_STARTED, null, remaining);
+
+        if (session.isFFprobe()) {
+            FFmpegKitConfig.ffprobeExecute((FFprobeSession) session);
+        } else {
+            FFmpegKitConfig.ffmpegExecute((FFmpegSession) session);
+        }
+
+        onComplete(batch, job);
+
+        try {
+            if (session.isFFprobe()) {
+                final FFprobeSessionCompleteCallback globalCallback = FFmpegKitConfig.getFFprobeSessionCompleteCallback();
+                if (globalCallback != null) {
+                    globalCallback.apply((FFprobeSession) session);
+                }
+            } else {
+                final FFmpegSessionCompleteCallback globalCallback = FFmpegKitConfig.getFFmpegSessionCompleteCallback();
+                if (globalCallback != null) {
+                    globalCallback.apply((FFmpegSession) session);
+                }
+            }
+        } catch (final Exception e) {
+            Log.w(LIBRARY_NAME, "Exception thrown inside global session complete callback.", e);
+        }
+    }
+
+    private void onComplete(final Batch batch, final Job job) {
+        final List<Job> readyJobs = new ArrayList<>();
+        final List<JobEvent> events = new ArrayList<>();
+
+        synchronized (batch) {
+            if (batch.cancelled) {
+                return;
+            }
+
+            final ReturnCode returnCode = job.session.getReturnCode();
+            final boolean success = ReturnCode.isSuccess(returnCode);
+
+            job.finished = true;
+            batch.remaining--;
+            events.add(new JobEvent(job, success ? STATUS_COMPLETED : STATUS_FAILED, returnCode == null ? null : returnCode.getValue(), batch.remaining));
+
+            final Deque<Job> skippedJobs = new ArrayDeque<>();
+            for (final Job dependent : job.dependents) {
+                if (success) {
+                    if (--dependent.pendingDependencies == 0) {
+                        readyJobs.add(dependent);
+                    }
+                } else {
+                    skippedJobs.add(dependent);
+                }
+            }
+
+            while (!skippedJobs.isEmpty()) {
+                final Job skippedJob = skippedJobs.poll();
+                if (!skippedJob.finished) {
+                    skippedJob.finished = true;
+                    batch.remaining--;
+                    events.add(new JobEvent(skippedJob, STATUS_SKIPPED, null, batch.remaining));
+                    skippedJobs.addAll(skippedJob.dependents);
+                }
+            }
+
+            if (batch.remaining == 0) {
+                batches.remove(batch.id);
+            }
+        }
+
+        for (final JobEvent event : events) {
+            listener.onJobEvent(batch.id, event.job.id, (event.job.session != null) ? event.job.session.getSessionId() : null, event.status, event.returnCode, event.remaining);
+        }
+
+        for (final Job readyJob : readyJobs) {
+            execute(batch, readyJob);
+        }
+    }
+
+    private static void validateAcyclic(final Batch batch) {
+        final Map<String, Integer> pendingDependencies = new LinkedHashMap<>();
+        final Deque<Job> readyJobs = new ArrayDeque<>();
+        for (final Job job : batch.jobs.values()) {
+            pendingDependencies.put(job.id, job.pendingDependencies);
+            if (job.pendingDependencies == 0) {
+                readyJobs.add(job);
+            }
+        }
+
+        int visited = 0;
+        while (!readyJobs.isEmpty()) {
+            final Job job = readyJobs.poll();
+            visited++;
+            for (final Job dependent : job.dependents) {
+                final int pending = pendingDependencies.get(dependent.id) - 1;
+                pendingDependencies.put(dependent.id, pending);
+                if (pending == 0) {
+                    readyJobs.add(dependent);
+                }
+            }
+        }
+
+        if (visited != batch.jobs.size()) {
+            throw new IllegalArgumentException("Job dependencies contain a cycle.");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Job toJob(final Map<String, Object> jobMap) {
+        final Object id = jobMap.get("id");
+        final Object type = jobMap.get("type");
+        final Object arguments = jobMap.get("arguments");
+        final Object dependsOn = jobMap.get("dependsOn");
+
+        if (!(id instanceof String)) {
+            throw new IllegalArgumentException("Job id is missing.");
+        }
+        if (type != null && !JOB_TYPE_FFMPEG.equals(type) && !JOB_TYPE_FFPROBE.equals(type)) {
+            throw new IllegalArgumentException(String.format("Job %s has an invalid type %s.", id, type));
+        }
+        if (!(arguments instanceof List)) {
+            throw new IllegalArgumentException(String.format("Job %s has no arguments.", id));
+        }
+
+        return new Job((String) id, type == null ? JOB_TYPE_FFMPEG : (String) type, ((List<String>) arguments).toArray(new String[0]), dependsOn instanceof List ? (List<String>) dependsOn : Collections.emptyList());
+    }
+
+    public static class Batch {
+        private final long id;
+        private final Map<String, Job> jobs;
+        private int remaining;
+        private boolean cancelled;
+
+        Batch(final long id) {
+            this.id = id;
+            this.jobs = new LinkedHashMap<>();
+        }
+
+        public long getId() {
+            return id;
+        }
+    }
+
+    private static class Job {
+        private final String id;
+        private final String type;
+        private final String[] arguments;
+        private final List<String> dependsOn;
+        private final List<Job> dependents;
+        private int pendingDependencies;
+        private boolean finished;
+        private Session session;
+
+        Job(final String id, final String type, final String[] arguments, final List<String> dependsOn) {
+            this.id = id;
+            this.type = type;
+            this.arguments = arguments;
+            this.dependsOn = dependsOn;
+            this.dependents = new ArrayList<>();
+        }
+    }
+
+    private static class JobEvent {
+        private final Job job;
+        private final String status;
+        private final Integer returnCode;
+        private final int remaining;
+
+        JobEvent(final Job job, final String status, final Integer returnCode, final int remaining) {
+            this.job = job;
+            this.status = status;
+            this.returnCode = returnCode;
+            this.remaining = remaining;
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.antonkarpenko.ffmpegkit;
+
+import androidx.annotation.NonNull;
+
+import com.antonkarpenko.ffmpegkit.Statistics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Encodes log and statistics events into positional little-endian byte arrays, which
+ * StandardMessageCodec sends as a single Uint8List instead of a string-keyed map.
+ *
+ * <p>Every event starts with a one byte type, followed by:
+ * <ul>
+ *     <li>log: sessionId (int64), level (int32), message length (int32), UTF-8 message</li>
+ *     <li>log batch: entry count (int32), followed by that many log entries</li>
+ *     <li>statistics: sessionId (int64), videoFrameNumber (int32), videoFps (float32),
+ *     videoQuality (float32), size (int64), time (float64), bitrate (float64), speed (float64)</li>
+ * </ul>
+ * The layout must be kept in sync with lib/src/ffmpeg_kit_event_decoder.dart.
+ */
+public class CompactEventEncoder {
+
+    public static final byte EVENT_TYPE_LOG = 1;
+    public static final byte EVENT_TYPE_STATISTICS = 2;
+    public static final byte EVENT_TYPE_LOG_BATCH = 3;
+
+    private static final int LOG_HEADER_SIZE = 8 + 4 + 4;
+    private static final int STATISTICS_SIZE = 1 + 8 + 4 + 4 + 4 + 8 + 8 + 8 + 8;
+
+    private CompactEventEncoder() {
+    }
+
+    public static byte[] encode(@NonNull final com.antonkarpenko.ffmpegkit.Log log) {
+        final byte[] message = toBytes(log.getMessage());
+        final ByteBuffer buffer = allocate(1 + LOG_HEADER_SIZE + message.length);
+
+        buffer.put(EVENT_TYPE_LOG);
+        putLog(buffer, log, message);
+
+        return buffer.array();
+    }
+
+    public static byte[] encodeLogBatch(@NonNull final List<com.antonkarpenko.ffmpegkit.Log> logs) {
+        final byte[][] messages = new byte[logs.size()][];
+        int size = 1 + 4;
+        for (int i = 0; i < logs.size(); i++) {
+            messages[i] = toBytes(logs.get(i).getMessage());
+            size += LOG_HEADER_SIZE + messages[i].length;
+        }
+
+        final ByteBuffer buffer = allocate(size);
+        buffer.put(EVENT_TYPE_LOG_BATCH);
+        buffer.putInt(logs.size());
+        for (int i = 0; i < logs.size(); i++) {
+            putLog(buffer, logs.get(i), messages[i]);
+        }
+
+        return buffer.array();
+    }
+
+    public static byte[] encode(@NonNull final Statistics statistics) {
+        final ByteBuffer buffer = allocate(STATISTICS_SIZE);
+
+        buffer.put(EVENT_TYPE_STATISTICS);
+        buffer.putLong(statistics.getSessionId());
+        buffer.putInt(statistics.getVideoFrameNumber());
+        buffer.putFloat(statistics.getVideoFps());
+        buffer.putFloat(statistics.getVideoQuality());
+        buffer.putLong(statistics.getSize());
+        buffer.putDouble(statistics.getTime());
+        buffer.putDouble(statistics.getBitrate());
+        buffer.putDouble(statistics.getSpeed());
+
+        return buffer.array();
+    }
+
+    private static void putLog(final ByteBuffer buffer, final com.antonkarpenko.ffmpegkit.Log log, final byte[] message) {
+        buffer.putLong(log.getSessionId());
+        buffer.putInt(FFmpegKitFlutterPlugin.toInt(log.getLevel()));
+        buffer.putInt(message.length);
+        buffer.put(message);
+    }
+
+    private static byte[] toBytes(final String value) {
+        return (value == null) ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer allocate(final int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+}
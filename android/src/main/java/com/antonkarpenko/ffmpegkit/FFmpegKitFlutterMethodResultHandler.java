@@ -6,18 +6,44 @@ import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
 
+import java.util.Map;
+
 import io.flutter.plugin.common.EventChannel;
 import io.flutter.plugin.common.MethodChannel;
 
 public class FFmpegKitFlutterMethodResultHandler {
     private final Handler handler;
+    private final PluginMetrics pluginMetrics;
+
+    /**
+     * When method calls are received on a background task queue, replies are sent from the
+     * calling thread instead of being posted to the main thread. Events are always posted.
+     */
+    private volatile boolean directReplies;
+
+    FFmpegKitFlutterMethodResultHandler(final PluginMetrics pluginMetrics) {
+        this.handler = new Handler(Looper.getMainLooper());
+        this.pluginMetrics = pluginMetrics;
+    }
+
+    void setDirectReplies(final boolean directReplies) {
+        this.directReplies = directReplies;
+    }
+
+    boolean isDirectReplies() {
+        return directReplies;
+    }
 
-    FFmpegKitFlutterMethodResultHandler() {
-        handler = new Handler(Looper.getMainLooper());
+    void runOnMainThread(final Runnable runnable) {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            runnable.run();
+        } else {
+            handler.post(runnable);
+        }
     }
 
     public void successAsync(final MethodChannel.Result result, final Object object) {
-        handler.post(() -> {
+        reply(() -> {
             if (result != null) {
                 result.success(object);
             } else {
@@ -27,10 +53,14 @@ public class FFmpegKitFlutterMethodResultHandler {
     }
 
     void successAsync(final EventChannel.EventSink eventSink, final Object object) {
+        final long postTime = System.nanoTime();
         handler.post(() -> {
+            pluginMetrics.onEventDelivered(postTime);
             if (eventSink != null) {
                 eventSink.success(object);
+                pluginMetrics.onEventEmitted(toEventType(object));
             } else {
+                pluginMetrics.onEventDropped(toEventType(object));
                 Log.w(LIBRARY_NAME, String.format("ResultHandler can not send event %s on a null event sink.", object));
             }
         });
@@ -41,7 +71,7 @@ public class FFmpegKitFlutterMethodResultHandler {
     }
 
     void errorAsync(final MethodChannel.Result result, final String errorCode, final String errorMessage, final Object errorDetails) {
-        handler.post(() -> {
+        reply(() -> {
             if (result != null) {
                 result.error(errorCode, errorMessage, errorDetails);
             } else {
@@ -51,7 +81,7 @@ public class FFmpegKitFlutterMethodResultHandler {
     }
 
     void notImplementedAsync(final MethodChannel.Result result) {
-        handler.post(() -> {
+        reply(() -> {
             if (result != null) {
                 result.notImplemented();
             } else {
@@ -60,4 +90,38 @@ public class FFmpegKitFlutterMethodResultHandler {
         });
     }
 
+    private void reply(final Runnable runnable) {
+        if (directReplies) {
+            runnable.run();
+        } else {
+            final long postTime = System.nanoTime();
+            handler.post(() -> {
+                pluginMetrics.onReplyDelivered(postTime);
+                runnable.run();
+            });
+        }
+    }
+
+    /**
+     * Returns the key of a map event or the type of a compact event.
+     */
+    static String toEventType(final Object event) {
+        if (event instanceof Map && ((Map<?, ?>) event).size() == 1) {
+            return String.valueOf(((Map<?, ?>) event).keySet().iterator().next());
+        }
+        if (event instanceof byte[] && ((byte[]) event).length > 0) {
+            switch (((byte[]) event)[0]) {
+                case CompactEventEncoder.EVENT_TYPE_LOG:
+                    return "compactLog";
+                case CompactEventEncoder.EVENT_TYPE_STATISTICS:
+                    return "compactStatistics";
+                case CompactEventEncoder.EVENT_TYPE_LOG_BATCH:
+                    return "compactLogBatch";
+                default:
+                    break;
+            }
+        }
+        return "unknown";
+    }
+
 }
@@ -3,6 +3,8 @@ package com.antonkarpenko.ffmpegkit;
 import android.app.Activity;
 import android.content.Context;
 import android.content.Intent;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageManager;
 import android.net.Uri;
 import android.os.Build;
 import android.util.Log;
@@ -33,6 +35,9 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
@@ -41,9 +46,11 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
 import io.flutter.embedding.engine.plugins.activity.ActivityAware;
@@ -55,6 +62,7 @@ import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.common.MethodChannel.MethodCallHandler;
 import io.flutter.plugin.common.MethodChannel.Result;
 import io.flutter.plugin.common.PluginRegistry;
+import io.flutter.plugin.common.StandardMethodCodec;
 
 public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, MethodCallHandler, EventChannel.StreamHandler, PluginRegistry.ActivityResultListener {
 
@@ -63,6 +71,14 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
 
     private static final String METHOD_CHANNEL = "flutter.arthenica.com/ffmpeg_kit";
     private static final String EVENT_CHANNEL = "flutter.arthenica.com/ffmpeg_kit_event";
+    private static final String PIPE_EVENT_CHANNEL = "flutter.arthenica.com/ffmpeg_kit_pipe_event";
+    private static final long EVENT_SCHEDULER_KEEP_ALIVE_SECONDS = 30;
+
+    /**
+     * Application meta-data flag which moves method call handling and replies off the main
+     * thread, onto a background task queue of the engine.
+     */
+    public static final String META_DATA_BACKGROUND_TASK_QUEUE = "com.antonkarpenko.ffmpegkit.BACKGROUND_TASK_QUEUE";
 
     // LOG CLASS
     public static final String KEY_LOG_SESSION_ID = "sessionId";
@@ -86,6 +102,17 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
     public static final String KEY_SESSION_COMMAND = "command";
     public static final String KEY_SESSION_TYPE = "type";
     public static final String KEY_SESSION_MEDIA_INFORMATION = "mediaInformation";
+    public static final String KEY_SESSION_END_TIME = "endTime";
+    public static final String KEY_SESSION_STATE = "state";
+    public static final String KEY_SESSION_RETURN_CODE = "returnCode";
+    public static final String KEY_SESSION_DURATION = "duration";
+    public static final String KEY_SESSION_FAIL_STACK_TRACE = "failStackTrace";
+    public static final String KEY_SESSION_LAST_STATISTICS = "lastStatistics";
+    public static final String KEY_SESSION_LOG_TAIL = "logTail";
+
+    // SESSION PAGE
+    public static final String KEY_SESSION_PAGE_SESSIONS = "sessions";
+    public static final String KEY_SESSION_PAGE_TOTAL = "total";
 
     // SESSION TYPE
     public static final int SESSION_TYPE_FFMPEG = 1;
@@ -96,6 +123,70 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
     public static final String EVENT_LOG_CALLBACK_EVENT = "FFmpegKitLogCallbackEvent";
     public static final String EVENT_STATISTICS_CALLBACK_EVENT = "FFmpegKitStatisticsCallbackEvent";
     public static final String EVENT_COMPLETE_CALLBACK_EVENT = "FFmpegKitCompleteCallbackEvent";
+    public static final String EVENT_LOG_BATCH_CALLBACK_EVENT = "FFmpegKitLogBatchCallbackEvent";
+    public static final String EVENT_PIPE_PROGRESS_EVENT = "FFmpegKitPipeProgressEvent";
+    public static final String EVENT_BATCH_JOB_EVENT = "FFmpegKitBatchJobEvent";
+    public static final String EVENT_MEDIA_PROBE_EVENT = "FFmpegKitMediaProbeEvent";
+
+    // BATCH JOBS
+    public static final String KEY_BATCH_ID = "batchId";
+    public static final String KEY_BATCH_JOB_ID = "jobId";
+    public static final String KEY_BATCH_JOB_SESSION_ID = "sessionId";
+    public static final String KEY_BATCH_JOB_STATUS = "status";
+    public static final String KEY_BATCH_JOB_RETURN_CODE = "returnCode";
+    public static final String KEY_BATCH_JOB_REMAINING = "remaining";
+
+    // MEDIA PROBES
+    public static final String KEY_MEDIA_PROBE_ID = "probeId";
+    public static final String KEY_MEDIA_PROBE_INDEX = "index";
+    public static final String KEY_MEDIA_PROBE_INPUT = "input";
+    public static final String KEY_MEDIA_PROBE_SESSION_ID = "sessionId";
+    public static final String KEY_MEDIA_PROBE_MEDIA_INFORMATION = "mediaInformation";
+    public static final String KEY_MEDIA_PROBE_ERROR = "error";
+    public static final String KEY_MEDIA_PROBE_REMAINING = "remaining";
+
+    // PIPE PROGRESS
+    public static final String KEY_PIPE_PROGRESS_INPUT = "input";
+    public static final String KEY_PIPE_PROGRESS_PIPE = "pipe";
+    public static final String KEY_PIPE_PROGRESS_BYTES_WRITTEN = "bytesWritten";
+    public static final String KEY_PIPE_PROGRESS_TOTAL_BYTES = "totalBytes";
+
+    // PIPE READER
+    public static final String KEY_PIPE_READER_PIPE = "pipe";
+    public static final String KEY_PIPE_READER_CHUNK = "chunk";
+    public static final String KEY_PIPE_READER_DONE = "done";
+    public static final String KEY_PIPE_READER_BYTES_READ = "bytesRead";
+    public static final String KEY_PIPE_READER_ERROR = "error";
+
+    // SESSION STATES
+    public static final int FIELD_STATE = 1;
+    public static final int FIELD_RETURN_CODE = 2;
+    public static final int FIELD_DURATION = 4;
+    public static final int FIELD_END_TIME = 8;
+    public static final int NO_STATE = -1;
+    public static final int NO_RETURN_CODE = Integer.MIN_VALUE;
+    public static final String KEY_SESSION_STATES_SESSION_IDS = "sessionIds";
+    public static final String KEY_SESSION_STATES_STATES = "states";
+    public static final String KEY_SESSION_STATES_RETURN_CODES = "returnCodes";
+    public static final String KEY_SESSION_STATES_DURATIONS = "durations";
+    public static final String KEY_SESSION_STATES_END_TIMES = "endTimes";
+
+    // CURSOR PAGES
+    public static final String KEY_PAGE_LOGS = "logs";
+    public static final String KEY_PAGE_STATISTICS = "statistics";
+    public static final String KEY_PAGE_NEXT_INDEX = "nextIndex";
+
+    // MEDIA INFORMATION CACHE
+    public static final String KEY_CACHE_HIT_COUNT = "hitCount";
+    public static final String KEY_CACHE_MISS_COUNT = "missCount";
+    public static final String KEY_CACHE_ENTRY_COUNT = "entryCount";
+    public static final String KEY_CACHE_BYTE_COUNT = "byteCount";
+    public static final String MEDIA_INFORMATION_CACHE_DIRECTORY = "ffmpeg-kit-media-information";
+
+    // SESSION LOG STORAGE
+    public static final String THUMBNAIL_DIRECTORY = "ffmpeg-kit-thumbnails";
+    public static final String SEGMENTED_TRANSCODE_DIRECTORY = "ffmpeg-kit-segmented-transcodes";
+    public static final String SESSION_LOG_DIRECTORY = "ffmpeg-kit-session-logs";
 
     // REQUEST CODES
     public static final int READABLE_REQUEST_CODE = 10000;
@@ -106,16 +197,72 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
     public static final String ARGUMENT_WAIT_TIMEOUT = "waitTimeout";
     public static final String ARGUMENT_ARGUMENTS = "arguments";
     public static final String ARGUMENT_FFPROBE_JSON_OUTPUT = "ffprobeJsonOutput";
+    public static final String ARGUMENT_FFPROBE_JSON_OUTPUT_BYTES = "ffprobeJsonOutputBytes";
     public static final String ARGUMENT_WRITABLE = "writable";
-
-    private static final int asyncConcurrencyLimit = 10;
+    public static final String ARGUMENT_FROM_INDEX = "fromIndex";
+    public static final String ARGUMENT_MAX_COUNT = "maxCount";
+    public static final String ARGUMENT_OFFSET = "offset";
+    public static final String ARGUMENT_LIMIT = "limit";
+    public static final String ARGUMENT_STATE = "state";
+    public static final String ARGUMENT_TYPE = "type";
+    public static final String ARGUMENT_SUMMARY = "summary";
+    public static final String ARGUMENT_LOG_CALLBACK = "logCallback";
+    public static final String ARGUMENT_PRINT_LOGS = "printLogs";
+    public static final String ARGUMENT_INCLUDE_STATISTICS = "includeStatistics";
+    public static final String ARGUMENT_LOG_TAIL_SIZE = "logTailSize";
+    public static final String ARGUMENT_SESSION_IDS = "sessionIds";
+    public static final String ARGUMENT_FIELD_MASK = "fieldMask";
+    public static final String ARGUMENT_JOBS = "jobs";
+    public static final String ARGUMENT_MAX_BYTES = "maxBytes";
+    public static final String ARGUMENT_INPUTS = "inputs";
+    public static final String ARGUMENT_MAX_IN_FLIGHT = "maxInFlight";
+    public static final String ARGUMENT_PROBE_ID = "probeId";
+    public static final String ARGUMENT_PROJECTION = "projection";
+    public static final String ARGUMENT_MEMORY_LINE_COUNT = "memoryLineCount";
+    public static final String ARGUMENT_INPUT = "input";
+    public static final String ARGUMENT_OUTPUT = "output";
+    public static final String ARGUMENT_ENCODE_ARGUMENTS = "encodeArguments";
+    public static final String ARGUMENT_SEGMENT_COUNT = "segmentCount";
+    public static final String ARGUMENT_TIMESTAMPS = "timestamps";
+    public static final String ARGUMENT_WIDTH = "width";
+    public static final String ARGUMENT_HEIGHT = "height";
+    public static final String ARGUMENT_COLUMNS = "columns";
+    public static final String ARGUMENT_FORMAT = "format";
+    public static final String ARGUMENT_DISK_CACHE = "diskCache";
+    public static final String ARGUMENT_MAX_BATCH_SIZE = "maxBatchSize";
+    public static final String ARGUMENT_MAX_BATCH_LATENCY = "maxBatchLatency";
+    public static final String ARGUMENT_MAX_STATISTICS_RATE = "maxStatisticsRate";
+    public static final String ARGUMENT_COMPACT_EVENTS = "compactEvents";
+    public static final String ARGUMENT_FFMPEG_CONCURRENCY_LIMIT = "ffmpegConcurrencyLimit";
+    public static final String ARGUMENT_FFPROBE_CONCURRENCY_LIMIT = "ffprobeConcurrencyLimit";
+    public static final String ARGUMENT_PIPE_CONCURRENCY_LIMIT = "pipeConcurrencyLimit";
 
     private final AtomicBoolean logsEnabled;
     private final AtomicBoolean statisticsEnabled;
-    private final ExecutorService asyncExecutorService;
+    private final AtomicBoolean compactEventsEnabled;
+    private final AtomicBoolean completionStatisticsEnabled;
+    private final AtomicInteger completionLogTailSize;
+    private final SessionExecutor sessionExecutor;
+    private final PluginMetrics pluginMetrics;
+    private final ScheduledThreadPoolExecutor eventScheduler;
+    private final LogBatchEmitter logBatchEmitter;
+    private final StatisticsThrottler statisticsThrottler;
+    private final LogFilter logFilter;
+    private final BatchJobScheduler batchJobScheduler;
+    private final MediaInformationCache mediaInformationCache;
+    private final MediaInformationParseCache mediaInformationParseCache;
+    private final SessionLogStore sessionLogStore;
+    private final MediaProbeScheduler mediaProbeScheduler;
+    private final SegmentedTranscoder segmentedTranscoder;
+    private final ThumbnailEngine thumbnailEngine;
+    private final SharedCallbacks.Listener sharedCallbacksListener;
+    private final Map<String, WriteToPipeTask> writeToPipeTasks;
+    private final Map<String, PipeChunkWriter> pipeChunkWriters;
+    private final Map<String, PipeReader> pipeReaders;
 
     private MethodChannel methodChannel;
     private EventChannel eventChannel;
+    private EventChannel pipeEventChannel;
     private Result lastInitiatedIntentResult;
     private Context context;
     private Activity activity;
@@ -123,33 +270,129 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
     private ActivityPluginBinding activityPluginBinding;
 
     private EventChannel.EventSink eventSink;
+    private volatile EventChannel.EventSink pipeEventSink;
     private final FFmpegKitFlutterMethodResultHandler resultHandler;
 
     public FFmpegKitFlutterPlugin() {
         this.logsEnabled = new AtomicBoolean(false);
         this.statisticsEnabled = new AtomicBoolean(false);
-        this.asyncExecutorService = Executors.newFixedThreadPool(asyncConcurrencyLimit);
-        this.resultHandler = new FFmpegKitFlutterMethodResultHandler();
+        this.compactEventsEnabled = new AtomicBoolean(false);
+        this.completionStatisticsEnabled = new AtomicBoolean(false);
+        this.completionLogTailSize = new AtomicInteger(0);
+        this.sessionExecutor = new SessionExecutor();
+        this.writeToPipeTasks = new ConcurrentHashMap<>();
+        this.pipeChunkWriters = new ConcurrentHashMap<>();
+        this.pipeReaders = new ConcurrentHashMap<>();
+        this.pluginMetrics = new PluginMetrics();
+        this.resultHandler = new FFmpegKitFlutterMethodResultHandler(pluginMetrics);
+        this.eventScheduler = new ScheduledThreadPoolExecutor(1);
+
+        // an idle scheduler holds no thread, so a detached engine leaves nothing running behind
+        this.eventScheduler.setKeepAliveTime(EVENT_SCHEDULER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+        this.eventScheduler.allowCoreThreadTimeOut(true);
+        this.logBatchEmitter = new LogBatchEmitter(eventScheduler, this::emitLogBatch);
+        this.statisticsThrottler = new StatisticsThrottler(eventScheduler, this::emitStatistics);
+        this.logFilter = new LogFilter();
+        this.batchJobScheduler = new BatchJobScheduler(sessionExecutor, this::emitBatchJob);
+        this.mediaInformationCache = new MediaInformationCache();
+        this.mediaInformationParseCache = new MediaInformationParseCache();
+        this.sessionLogStore = new SessionLogStore();
+        this.mediaProbeScheduler = new MediaProbeScheduler(sessionExecutor, mediaInformationCache, this::emitMediaProbe);
+        this.segmentedTranscoder = new SegmentedTranscoder(sessionExecutor, this::forwardStatistics);
+        this.thumbnailEngine = new ThumbnailEngine();
+        this.sharedCallbacksListener = new SharedCallbacks.Listener() {
+
+            @Override
+            public boolean isInternalSession(final long sessionId) {
+                return FFmpegKitFlutterPlugin.this.isInternalSession(sessionId);
+            }
+
+            @Override
+            public void onFFmpegSessionComplete(@NonNull final FFmpegSession session) {
+
+                // sessions of a segmented transcode and thumbnail sessions are internal, they never complete in Dart
+                if (!isInternalSession(session.getSessionId())) {
+                    emitSession(session);
+                }
+            }
+
+            @Override
+            public void onFFprobeSessionComplete(@NonNull final FFprobeSession session) {
+                if (!isInternalSession(session.getSessionId())) {
+                    emitSession(session);
+                }
+            }
+
+            @Override
+            public void onMediaInformationSessionComplete(@NonNull final MediaInformationSession session) {
+                emitSession(session);
+            }
+
+            @Override
+            public void onLog(@NonNull final com.antonkarpenko.ffmpegkit.Log log) {
+                FFmpegKitFlutterPlugin.this.onLog(log);
+            }
+
+            @Override
+            public void onStatistics(@NonNull final Statistics statistics) {
+                FFmpegKitFlutterPlugin.this.onStatistics(statistics);
+            }
+        };
 
         Log.d(LIBRARY_NAME, String.format("FFmpegKitFlutterPlugin created %s.", this));
     }
 
+    /**
+     * Registers this instance for the process wide callbacks of FFmpegKitConfig, which are shared
+     * with the plugin instances of other engines.
+     */
     protected void registerGlobalCallbacks() {
-        FFmpegKitConfig.enableFFmpegSessionCompleteCallback(this::emitSession);
-        FFmpegKitConfig.enableFFprobeSessionCompleteCallback(this::emitSession);
-        FFmpegKitConfig.enableMediaInformationSessionCompleteCallback(this::emitSession);
+        SharedCallbacks.register(sharedCallbacksListener);
+    }
+
+    protected void unregisterGlobalCallbacks() {
+        SharedCallbacks.unregister(sharedCallbacksListener);
+    }
+
+    protected boolean isInternalSession(final long sessionId) {
+        return segmentedTranscoder.isInternal(sessionId) || thumbnailEngine.isInternal(sessionId);
+    }
+
+    protected void onLog(final com.antonkarpenko.ffmpegkit.Log log) {
+
+        // segment logs are forwarded as logs of their transcode, other internal logs are dropped
+        if (thumbnailEngine.isInternal(log.getSessionId()) || segmentedTranscoder.isProbe(log.getSessionId())) {
+            return;
+        }
+
+        sessionLogStore.add(log);
 
-        FFmpegKitConfig.enableLogCallback(log -> {
-            if (logsEnabled.get()) {
-                emitLog(log);
+        final com.antonkarpenko.ffmpegkit.Log forwardedLog = segmentedTranscoder.toTranscodeLog(log);
+        if (logsEnabled.get() && logFilter.accept(forwardedLog)) {
+            if (logBatchEmitter.isEnabled()) {
+                logBatchEmitter.add(forwardedLog);
+            } else {
+                emitLog(forwardedLog);
             }
-        });
+        }
+    }
 
-        FFmpegKitConfig.enableStatisticsCallback(statistics -> {
-            if (statisticsEnabled.get()) {
+    protected void onStatistics(final Statistics statistics) {
+        if (!thumbnailEngine.isInternal(statistics.getSessionId()) && !segmentedTranscoder.onStatistics(statistics)) {
+            forwardStatistics(statistics);
+        }
+    }
+
+    protected void forwardStatistics(final Statistics statistics) {
+        if (statisticsEnabled.get()) {
+            if (statisticsThrottler.isEnabled()) {
+                if (statisticsThrottler.offer(statistics)) {
+                    pluginMetrics.onEventDropped(EVENT_STATISTICS_CALLBACK_EVENT);
+                }
+            } else {
                 emitStatistics(statistics);
             }
-        });
+        }
     }
 
     @Override
@@ -196,10 +439,19 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
     }
 
     protected void init(final BinaryMessenger messenger, final Context context) {
+        sessionExecutor.acquire();
         registerGlobalCallbacks();
 
         if (methodChannel == null) {
-            methodChannel = new MethodChannel(messenger, METHOD_CHANNEL);
+            final BinaryMessenger.TaskQueue taskQueue = isBackgroundTaskQueueEnabled(context) ? messenger.makeBackgroundTaskQueue() : null;
+            if (taskQueue != null) {
+                methodChannel = new MethodChannel(messenger, METHOD_CHANNEL, StandardMethodCodec.INSTANCE, taskQueue);
+                resultHandler.setDirectReplies(true);
+                Log.d(LIBRARY_NAME, "FFmpegKitFlutterPlugin method channel uses a background task queue.");
+            } else {
+                methodChannel = new MethodChannel(messenger, METHOD_CHANNEL);
+                resultHandler.setDirectReplies(false);
+            }
             methodChannel.setMethodCallHandler(this);
         } else {
             Log.i(LIBRARY_NAME, "FFmpegKitFlutterPlugin method channel was already initialised.");
@@ -212,11 +464,43 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
             Log.i(LIBRARY_NAME, "FFmpegKitFlutterPlugin event channel was already initialised.");
         }
 
+        if (pipeEventChannel == null) {
+            pipeEventChannel = new EventChannel(messenger, PIPE_EVENT_CHANNEL);
+            pipeEventChannel.setStreamHandler(new EventChannel.StreamHandler() {
+
+                @Override
+                public void onListen(final Object o, final EventChannel.EventSink eventSink) {
+                    pipeEventSink = eventSink;
+                }
+
+                @Override
+                public void onCancel(final Object o) {
+                    pipeEventSink = null;
+                }
+            });
+        } else {
+            Log.i(LIBRARY_NAME, "FFmpegKitFlutterPlugin pipe event channel was already initialised.");
+        }
+
         this.context = context;
 
         Log.d(LIBRARY_NAME, String.format("FFmpegKitFlutterPlugin %s initialised with context %s.", this, context));
     }
 
+    protected static boolean isBackgroundTaskQueueEnabled(final Context context) {
+        if (context == null) {
+            return false;
+        }
+
+        try {
+            final ApplicationInfo applicationInfo = context.getPackageManager().getApplicationInfo(context.getPackageName(), PackageManager.GET_META_DATA);
+            return applicationInfo.metaData != null && applicationInfo.metaData.getBoolean(META_DATA_BACKGROUND_TASK_QUEUE, false);
+        } catch (final PackageManager.NameNotFoundException e) {
+            Log.w(LIBRARY_NAME, "Failed to read application meta-data.", e);
+            return false;
+        }
+    }
+
     @Override
     public void onListen(final Object o, final EventChannel.EventSink eventSink) {
         this.eventSink = eventSink;
@@ -253,9 +537,12 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
     }
 
     @Override
-    public void onMethodCall(@NonNull MethodCall call, @NonNull Result result) {
+    public void onMethodCall(@NonNull MethodCall call, @NonNull Result methodResult) {
+        final Result result = pluginMetrics.timeMethodCall(call.method, methodResult);
         final Integer sessionId = call.argument(ARGUMENT_SESSION_ID);
         final Integer waitTimeout = call.argument(ARGUMENT_WAIT_TIMEOUT);
+        final Integer fromIndex = call.argument(ARGUMENT_FROM_INDEX);
+        final Integer maxCount = call.argument(ARGUMENT_MAX_COUNT);
         final List<String> arguments = call.argument(ARGUMENT_ARGUMENTS);
         final String ffprobeJsonOutput = call.argument(ARGUMENT_FFPROBE_JSON_OUTPUT);
         final Boolean writable = call.argument(ARGUMENT_WRITABLE);
@@ -289,6 +576,13 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
                     resultHandler.errorAsync(result, "INVALID_SESSION", "Invalid session id.");
                 }
                 break;
+            case "abstractSessionGetLogsSince":
+                if (sessionId != null) {
+                    abstractSessionGetLogsSince(sessionId, fromIndex, maxCount, result);
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_SESSION", "Invalid session id.");
+                }
+                break;
             case "abstractSessionGetAllLogsAsString":
                 if (sessionId != null) {
                     abstractSessionGetAllLogsAsString(sessionId, waitTimeout, result);
@@ -348,6 +642,13 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
                     resultHandler.errorAsync(result, "INVALID_SESSION", "Invalid session id.");
                 }
                 break;
+            case "ffmpegSessionGetStatisticsSince":
+                if (sessionId != null) {
+                    ffmpegSessionGetStatisticsSince(sessionId, fromIndex, maxCount, result);
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_SESSION", "Invalid session id.");
+                }
+                break;
             case "ffprobeSession":
                 if (arguments != null) {
                     ffprobeSession(arguments, result);
@@ -369,6 +670,121 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
                     resultHandler.errorAsync(result, "INVALID_SESSION", "Invalid session id.");
                 }
                 break;
+            case "probeMediaInformation": {
+                final List<String> inputs = call.argument(ARGUMENT_INPUTS);
+                final Integer maxInFlight = call.argument(ARGUMENT_MAX_IN_FLIGHT);
+                final List<String> projection = call.argument(ARGUMENT_PROJECTION);
+                if (inputs != null) {
+                    probeMediaInformation(inputs, maxInFlight, projection, waitTimeout, result);
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_INPUTS", "Invalid inputs value.");
+                }
+                break;
+            }
+            case "getProjectedMediaInformation": {
+                final String path = call.argument("path");
+                final List<String> projection = call.argument(ARGUMENT_PROJECTION);
+                if (path != null && projection != null) {
+                    getProjectedMediaInformation(path, projection, waitTimeout, result);
+                } else if (path != null) {
+                    resultHandler.errorAsync(result, "INVALID_PROJECTION", "Invalid projection value.");
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_PATH", "Invalid path value.");
+                }
+                break;
+            }
+            case "segmentedTranscode": {
+                final String input = call.argument(ARGUMENT_INPUT);
+                final String output = call.argument(ARGUMENT_OUTPUT);
+                final List<String> encodeArguments = call.argument(ARGUMENT_ENCODE_ARGUMENTS);
+                final Integer segmentCount = call.argument(ARGUMENT_SEGMENT_COUNT);
+                if (input == null) {
+                    resultHandler.errorAsync(result, "INVALID_INPUT", "Invalid input value.");
+                } else if (output == null) {
+                    resultHandler.errorAsync(result, "INVALID_OUTPUT", "Invalid output value.");
+                } else if (encodeArguments == null) {
+                    resultHandler.errorAsync(result, "INVALID_ARGUMENTS", "Invalid encode arguments array.");
+                } else {
+                    segmentedTranscode(input, output, encodeArguments, segmentCount, result);
+                }
+                break;
+            }
+            case "cancelMediaProbe": {
+                final Number probeId = call.argument(ARGUMENT_PROBE_ID);
+                if (probeId != null) {
+                    resultHandler.successAsync(result, mediaProbeScheduler.cancel(probeId.longValue()));
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_PROBE_ID", "Invalid probe id value.");
+                }
+                break;
+            }
+            case "setSessionLogStorage": {
+                final Integer memoryLineCount = call.argument(ARGUMENT_MEMORY_LINE_COUNT);
+                if (memoryLineCount != null) {
+                    setSessionLogStorage(memoryLineCount, result);
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_MEMORY_LINE_COUNT", "Invalid memory line count value.");
+                }
+                break;
+            }
+            case "getCachedMediaInformation": {
+                final String path = call.argument("path");
+                if (path != null) {
+                    getCachedMediaInformation(path, result);
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_PATH", "Invalid path value.");
+                }
+                break;
+            }
+            case "setMediaInformationCacheOptions": {
+                final Number maxBytes = call.argument(ARGUMENT_MAX_BYTES);
+                final Boolean diskCache = call.argument(ARGUMENT_DISK_CACHE);
+                if (maxBytes != null && diskCache != null) {
+                    setMediaInformationCacheOptions(maxBytes.longValue(), diskCache, result);
+                } else if (maxBytes != null) {
+                    resultHandler.errorAsync(result, "INVALID_DISK_CACHE", "Invalid disk cache value.");
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_MAX_BYTES", "Invalid max bytes value.");
+                }
+                break;
+            }
+            case "extractThumbnails":
+            case "extractSpriteSheet": {
+                final String input = call.argument(ARGUMENT_INPUT);
+                final List<Number> timestamps = call.argument(ARGUMENT_TIMESTAMPS);
+                final Integer width = call.argument(ARGUMENT_WIDTH);
+                final Integer height = call.argument(ARGUMENT_HEIGHT);
+                final Integer columns = call.argument(ARGUMENT_COLUMNS);
+                final String format = call.argument(ARGUMENT_FORMAT);
+                if (input == null) {
+                    resultHandler.errorAsync(result, "INVALID_INPUT", "Invalid input value.");
+                } else if (timestamps == null) {
+                    resultHandler.errorAsync(result, "INVALID_TIMESTAMPS", "Invalid timestamps value.");
+                } else {
+                    extractThumbnails(call.method.equals("extractSpriteSheet"), input, timestamps, width, height, columns, format, result);
+                }
+                break;
+            }
+            case "setThumbnailCacheMaxBytes": {
+                final Number maxBytes = call.argument(ARGUMENT_MAX_BYTES);
+                if (maxBytes != null) {
+                    thumbnailEngine.setMaxBytes(maxBytes.longValue());
+                    resultHandler.successAsync(result, null);
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_MAX_BYTES", "Invalid max bytes value.");
+                }
+                break;
+            }
+            case "clearThumbnailCache":
+                thumbnailEngine.clear();
+                resultHandler.successAsync(result, null);
+                break;
+            case "getMediaInformationCacheStatistics":
+                getMediaInformationCacheStatistics(result);
+                break;
+            case "clearMediaInformationCache":
+                clearMediaInformationCache(result);
+                break;
             case "mediaInformationJsonParserFrom":
                 if (ffprobeJsonOutput != null) {
                     mediaInformationJsonParserFrom(ffprobeJsonOutput, result);
@@ -383,6 +799,24 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
                     resultHandler.errorAsync(result, "INVALID_FFPROBE_JSON_OUTPUT", "Invalid ffprobe json output.");
                 }
                 break;
+            case "mediaInformationJsonParserFromBytes": {
+                final byte[] ffprobeJsonOutputBytes = call.argument(ARGUMENT_FFPROBE_JSON_OUTPUT_BYTES);
+                if (ffprobeJsonOutputBytes != null) {
+                    mediaInformationJsonParserFrom(ffprobeJsonOutputBytes, result);
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_FFPROBE_JSON_OUTPUT", "Invalid ffprobe json output.");
+                }
+                break;
+            }
+            case "mediaInformationJsonParserFromBytesWithError": {
+                final byte[] ffprobeJsonOutputBytes = call.argument(ARGUMENT_FFPROBE_JSON_OUTPUT_BYTES);
+                if (ffprobeJsonOutputBytes != null) {
+                    mediaInformationJsonParserFromWithError(ffprobeJsonOutputBytes, result);
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_FFPROBE_JSON_OUTPUT", "Invalid ffprobe json output.");
+                }
+                break;
+            }
             case "enableRedirection":
                 enableRedirection(result);
                 break;
@@ -395,12 +829,31 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
             case "disableLogs":
                 disableLogs(result);
                 break;
+            case "setLogBatchOptions":
+                final Integer maxBatchSize = call.argument(ARGUMENT_MAX_BATCH_SIZE);
+                final Integer maxBatchLatency = call.argument(ARGUMENT_MAX_BATCH_LATENCY);
+                if (maxBatchSize != null && maxBatchLatency != null) {
+                    setLogBatchOptions(maxBatchSize, maxBatchLatency, result);
+                } else if (maxBatchSize != null) {
+                    resultHandler.errorAsync(result, "INVALID_BATCH_LATENCY", "Invalid max batch latency value.");
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_BATCH_SIZE", "Invalid max batch size value.");
+                }
+                break;
             case "enableStatistics":
                 enableStatistics(result);
                 break;
             case "disableStatistics":
                 disableStatistics(result);
                 break;
+            case "setStatisticsDeliveryRate":
+                final Integer maxStatisticsRate = call.argument(ARGUMENT_MAX_STATISTICS_RATE);
+                if (maxStatisticsRate != null) {
+                    setStatisticsDeliveryRate(maxStatisticsRate, result);
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_STATISTICS_RATE", "Invalid max statistics rate value.");
+                }
+                break;
             case "setFontconfigConfigurationPath":
                 final String path = call.argument("path");
                 if (path != null) {
@@ -511,6 +964,23 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
                     resultHandler.errorAsync(result, "INVALID_SESSION", "Invalid session id.");
                 }
                 break;
+            case "submitBatch":
+                final List<Map<String, Object>> jobs = call.argument(ARGUMENT_JOBS);
+                if (jobs != null) {
+                    submitBatch(jobs, result);
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_BATCH", "Invalid jobs value.");
+                }
+                break;
+            case "getConcurrencyLimits":
+                getConcurrencyLimits(result);
+                break;
+            case "setConcurrencyLimits":
+                final Integer ffmpegConcurrencyLimit = call.argument(ARGUMENT_FFMPEG_CONCURRENCY_LIMIT);
+                final Integer ffprobeConcurrencyLimit = call.argument(ARGUMENT_FFPROBE_CONCURRENCY_LIMIT);
+                final Integer pipeConcurrencyLimit = call.argument(ARGUMENT_PIPE_CONCURRENCY_LIMIT);
+                setConcurrencyLimits(ffmpegConcurrencyLimit, ffprobeConcurrencyLimit, pipeConcurrencyLimit, result);
+                break;
             case "getLogLevel":
                 getLogLevel(result);
                 break;
@@ -522,6 +992,28 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
                     resultHandler.errorAsync(result, "INVALID_LEVEL", "Invalid level value.");
                 }
                 break;
+            case "setLogFilter": {
+                final Boolean logCallback = call.argument(ARGUMENT_LOG_CALLBACK);
+                final Boolean printLogs = call.argument(ARGUMENT_PRINT_LOGS);
+                if (logCallback != null && printLogs != null) {
+                    setLogFilter(logCallback, printLogs, result);
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_LOG_FILTER", "Invalid log filter value.");
+                }
+                break;
+            }
+            case "setSessionLogFilter": {
+                final Boolean logCallback = call.argument(ARGUMENT_LOG_CALLBACK);
+                final Boolean printLogs = call.argument(ARGUMENT_PRINT_LOGS);
+                if (sessionId != null && logCallback != null) {
+                    setSessionLogFilter(sessionId, logCallback, printLogs, result);
+                } else if (sessionId != null) {
+                    resultHandler.errorAsync(result, "INVALID_LOG_FILTER", "Invalid log filter value.");
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_SESSION", "Invalid session id.");
+                }
+                break;
+            }
             case "getSessionHistorySize":
                 getSessionHistorySize(result);
                 break;
@@ -560,6 +1052,31 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
                     resultHandler.errorAsync(result, "INVALID_SESSION_STATE", "Invalid session state value.");
                 }
                 break;
+            case "getSessionStates": {
+                final List<Number> sessionIds = call.argument(ARGUMENT_SESSION_IDS);
+                final Integer fieldMask = call.argument(ARGUMENT_FIELD_MASK);
+                if (sessionIds != null && fieldMask != null) {
+                    getSessionStates(sessionIds, fieldMask, result);
+                } else if (sessionIds != null) {
+                    resultHandler.errorAsync(result, "INVALID_FIELD_MASK", "Invalid field mask value.");
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_SESSION", "Invalid session ids.");
+                }
+                break;
+            }
+            case "getSessionsPage": {
+                final Integer offset = call.argument(ARGUMENT_OFFSET);
+                final Integer limit = call.argument(ARGUMENT_LIMIT);
+                final Integer stateFilter = call.argument(ARGUMENT_STATE);
+                final Integer typeFilter = call.argument(ARGUMENT_TYPE);
+                final Boolean summary = call.argument(ARGUMENT_SUMMARY);
+                if (limit != null && limit > 0) {
+                    getSessionsPage(offset, limit, stateFilter, typeFilter, Boolean.TRUE.equals(summary), result);
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_LIMIT", "Invalid limit value.");
+                }
+                break;
+            }
             case "getLogRedirectionStrategy":
                 getLogRedirectionStrategy(result);
                 break;
@@ -581,6 +1098,26 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
             case "getPlatform":
                 getPlatform(result);
                 break;
+            case "setCompletionEventOptions": {
+                final Boolean includeStatistics = call.argument(ARGUMENT_INCLUDE_STATISTICS);
+                final Integer logTailSize = call.argument(ARGUMENT_LOG_TAIL_SIZE);
+                if (includeStatistics != null && logTailSize != null) {
+                    setCompletionEventOptions(includeStatistics, logTailSize, result);
+                } else if (includeStatistics != null) {
+                    resultHandler.errorAsync(result, "INVALID_LOG_TAIL_SIZE", "Invalid log tail size value.");
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_INCLUDE_STATISTICS", "Invalid include statistics value.");
+                }
+                break;
+            }
+            case "setCompactEvents":
+                final Boolean compactEvents = call.argument(ARGUMENT_COMPACT_EVENTS);
+                if (compactEvents != null) {
+                    setCompactEvents(compactEvents, result);
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_COMPACT_EVENTS", "Invalid compact events value.");
+                }
+                break;
             case "writeToPipe":
                 final String input = call.argument("input");
                 final String pipe = call.argument("pipe");
@@ -592,6 +1129,77 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
                     resultHandler.errorAsync(result, "INVALID_PIPE", "Invalid pipe value.");
                 }
                 break;
+            case "cancelWriteToPipe":
+                final String pipeToCancel = call.argument("pipe");
+                if (pipeToCancel != null) {
+                    cancelWriteToPipe(pipeToCancel, result);
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_PIPE", "Invalid pipe value.");
+                }
+                break;
+            case "openPipeWriter": {
+                final String pipeToOpen = call.argument("pipe");
+                final Integer capacity = call.argument("capacity");
+                if (pipeToOpen != null) {
+                    openPipeWriter(pipeToOpen, capacity, result);
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_PIPE", "Invalid pipe value.");
+                }
+                break;
+            }
+            case "writeToPipeChunk": {
+                final String pipeToWrite = call.argument("pipe");
+                final byte[] chunk = call.argument("chunk");
+                if (pipeToWrite != null && chunk != null) {
+                    writeToPipeChunk(pipeToWrite, chunk, result);
+                } else if (pipeToWrite != null) {
+                    resultHandler.errorAsync(result, "INVALID_CHUNK", "Invalid chunk value.");
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_PIPE", "Invalid pipe value.");
+                }
+                break;
+            }
+            case "closePipeWriter": {
+                final String pipeToClose = call.argument("pipe");
+                if (pipeToClose != null) {
+                    closePipeWriter(pipeToClose, result);
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_PIPE", "Invalid pipe value.");
+                }
+                break;
+            }
+            case "openPipeReader": {
+                final String pipeToRead = call.argument("pipe");
+                final Integer bufferSize = call.argument("bufferSize");
+                final Integer credits = call.argument("credits");
+                if (pipeToRead != null) {
+                    openPipeReader(pipeToRead, bufferSize, credits, result);
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_PIPE", "Invalid pipe value.");
+                }
+                break;
+            }
+            case "requestPipeReaderChunks": {
+                final String pipeToRead = call.argument("pipe");
+                final Integer count = call.argument("count");
+                if (pipeToRead != null && count != null) {
+                    requestPipeReaderChunks(pipeToRead, count, result);
+                } else if (pipeToRead != null) {
+                    resultHandler.errorAsync(result, "INVALID_COUNT", "Invalid count value.");
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_PIPE", "Invalid pipe value.");
+                }
+                break;
+            }
+            case "closePipeReader": {
+                final String pipeToClose = call.argument("pipe");
+                if (pipeToClose != null) {
+                    closePipeReader(pipeToClose, result);
+                } else {
+                    resultHandler.errorAsync(result, "INVALID_PIPE", "Invalid pipe value.");
+                }
+                break;
+            }
             case "selectDocument":
                 final String title = call.argument("title");
                 final String type = call.argument("type");
@@ -603,7 +1211,9 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
                     extraTypesArray = null;
                 }
                 if (writable != null) {
-                    selectDocument(writable, title, type, extraTypesArray, result);
+
+                    // activities can only be started from the main thread
+                    resultHandler.runOnMainThread(() -> selectDocument(writable, title, type, extraTypesArray, result));
                 } else {
                     resultHandler.errorAsync(result, "INVALID_WRITABLE", "Invalid writable value.");
                 }
@@ -622,6 +1232,14 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
             case "cancel":
                 cancel(result);
                 break;
+            case "getPluginMetrics":
+                resultHandler.successAsync(result, pluginMetrics.toMap(sessionExecutor, batchJobScheduler.getActiveBatchCount()));
+                break;
+            case "resetPluginMetrics":
+                pluginMetrics.reset();
+                sessionExecutor.resetMetrics();
+                resultHandler.successAsync(result, null);
+                break;
             case "cancelSession":
                 if (sessionId != null) {
                     cancelSession(sessionId, result);
@@ -651,9 +1269,33 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
     }
 
     protected void uninit() {
+        logBatchEmitter.flushAll();
+        statisticsThrottler.flushAll();
+
+        for (final PipeReader pipeReader : pipeReaders.values()) {
+            pipeReader.cancel();
+        }
+        pipeReaders.clear();
+        for (final PipeChunkWriter pipeChunkWriter : pipeChunkWriters.values()) {
+            pipeChunkWriter.cancel();
+        }
+        pipeChunkWriters.clear();
+        for (final WriteToPipeTask writeToPipeTask : writeToPipeTasks.values()) {
+            writeToPipeTask.cancel();
+        }
+        writeToPipeTasks.clear();
+
+        // before the executor is released, so their queued sessions can still be cleaned up
+        batchJobScheduler.cancelAll();
+        segmentedTranscoder.cancelAll();
+
+        unregisterGlobalCallbacks();
         uninitMethodChannel();
         uninitEventChannel();
 
+        // queued tasks of this engine are cancelled, other engines keep the shared lanes
+        sessionExecutor.release();
+
         this.context = null;
 
         Log.d(LIBRARY_NAME, "FFmpegKitFlutterPlugin uninitialized.");
@@ -677,6 +1319,11 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
 
         eventChannel.setStreamHandler(null);
         eventChannel = null;
+
+        if (pipeEventChannel != null) {
+            pipeEventChannel.setStreamHandler(null);
+            pipeEventChannel = null;
+        }
     }
 
     // AbstractSession
@@ -715,6 +1362,15 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
             } else {
                 timeout = AbstractSession.DEFAULT_TIMEOUT_FOR_ASYNCHRONOUS_MESSAGES_IN_TRANSMIT;
             }
+            if (sessionLogStore.contains(session.getSessionId())) {
+                waitForAsynchronousMessagesInTransmit(session, timeout);
+                final List<Map<String, Object>> logMapList = new ArrayList<>();
+                if (sessionLogStore.forEach(session.getSessionId(), 0, Integer.MAX_VALUE, log -> logMapList.add(toMap(log)))) {
+                    resultHandler.successAsync(result, logMapList);
+                    return;
+                }
+            }
+
             final List<com.antonkarpenko.ffmpegkit.Log> allLogs = session.getAllLogs(timeout);
             resultHandler.successAsync(result, toLogMapList(allLogs));
         }
@@ -725,11 +1381,50 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
         if (session == null) {
             resultHandler.errorAsync(result, "SESSION_NOT_FOUND", "Session not found.");
         } else {
+            if (sessionLogStore.contains(session.getSessionId())) {
+                final List<Map<String, Object>> logMapList = new ArrayList<>();
+                if (sessionLogStore.forEach(session.getSessionId(), 0, Integer.MAX_VALUE, log -> logMapList.add(toMap(log)))) {
+                    resultHandler.successAsync(result, logMapList);
+                    return;
+                }
+            }
+
             final List<com.antonkarpenko.ffmpegkit.Log> allLogs = session.getLogs();
             resultHandler.successAsync(result, toLogMapList(allLogs));
         }
     }
 
+    protected void abstractSessionGetLogsSince(@NonNull final Integer sessionId, @Nullable final Integer fromIndex, @Nullable final Integer maxCount, @NonNull final Result result) {
+        final Session session = FFmpegKitConfig.getSession(sessionId.longValue());
+        if (session == null) {
+            resultHandler.errorAsync(result, "SESSION_NOT_FOUND", "Session not found.");
+        } else {
+            if (sessionLogStore.contains(session.getSessionId())) {
+                final int logCount = sessionLogStore.getLogCount(session.getSessionId());
+                final int from = toPageStart(fromIndex, logCount);
+                final int to = toPageEnd(from, maxCount, logCount);
+
+                final List<Map<String, Object>> logMapList = new ArrayList<>();
+                if (sessionLogStore.forEach(session.getSessionId(), from, to - from, log -> logMapList.add(toMap(log)))) {
+                    final Map<String, Object> logPage = new HashMap<>();
+                    logPage.put(KEY_PAGE_LOGS, logMapList);
+                    logPage.put(KEY_PAGE_NEXT_INDEX, from + logMapList.size());
+                    resultHandler.successAsync(result, logPage);
+                    return;
+                }
+            }
+
+            final List<com.antonkarpenko.ffmpegkit.Log> logs = session.getLogs();
+            final int from = toPageStart(fromIndex, logs.size());
+            final int to = toPageEnd(from, maxCount, logs.size());
+
+            final Map<String, Object> logPage = new HashMap<>();
+            logPage.put(KEY_PAGE_LOGS, toLogMapList(logs.subList(from, to)));
+            logPage.put(KEY_PAGE_NEXT_INDEX, to);
+            resultHandler.successAsync(result, logPage);
+        }
+    }
+
     protected void abstractSessionGetAllLogsAsString(@NonNull final Integer sessionId, @Nullable final Integer waitTimeout, @NonNull final Result result) {
         final Session session = FFmpegKitConfig.getSession(sessionId.longValue());
         if (session == null) {
@@ -741,11 +1436,32 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
             } else {
                 timeout = AbstractSession.DEFAULT_TIMEOUT_FOR_ASYNCHRONOUS_MESSAGES_IN_TRANSMIT;
             }
+            if (sessionLogStore.contains(session.getSessionId())) {
+                waitForAsynchronousMessagesInTransmit(session, timeout);
+                resultHandler.successAsync(result, sessionLogStore.getLogsAsString(session.getSessionId()));
+                return;
+            }
+
             final String allLogsAsString = session.getAllLogsAsString(timeout);
             resultHandler.successAsync(result, allLogsAsString);
         }
     }
 
+    /**
+     * Waits like AbstractSession.getAllLogs does, without copying the logs of the session.
+     */
+    protected static void waitForAsynchronousMessagesInTransmit(@NonNull final Session session, final int timeout) {
+        final long deadline = System.currentTimeMillis() + timeout;
+        while (session.thereAreAsynchronousMessagesInTransmit() && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(100);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
     protected void abstractSessionGetState(@NonNull final Integer sessionId, @NonNull final Result result) {
         final Session session = FFmpegKitConfig.getSession(sessionId.longValue());
         if (session == null) {
@@ -834,6 +1550,26 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
         }
     }
 
+    protected void ffmpegSessionGetStatisticsSince(@NonNull final Integer sessionId, @Nullable final Integer fromIndex, @Nullable final Integer maxCount, @NonNull final Result result) {
+        final Session session = FFmpegKitConfig.getSession(sessionId.longValue());
+        if (session == null) {
+            resultHandler.errorAsync(result, "SESSION_NOT_FOUND", "Session not found.");
+        } else {
+            if (session.isFFmpeg()) {
+                final List<Statistics> statistics = ((FFmpegSession) session).getStatistics();
+                final int from = toPageStart(fromIndex, statistics.size());
+                final int to = toPageEnd(from, maxCount, statistics.size());
+
+                final Map<String, Object> statisticsPage = new HashMap<>();
+                statisticsPage.put(KEY_PAGE_STATISTICS, toStatisticsMapList(statistics.subList(from, to)));
+                statisticsPage.put(KEY_PAGE_NEXT_INDEX, to);
+                resultHandler.successAsync(result, statisticsPage);
+            } else {
+                resultHandler.errorAsync(result, "NOT_FFMPEG_SESSION", "A session is found but it does not have the correct type.");
+            }
+        }
+    }
+
     // FFprobeSession
 
     protected void ffprobeSession(@NonNull final List<String> arguments, @NonNull final Result result) {
@@ -853,38 +1589,246 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
         if (session == null) {
             resultHandler.errorAsync(result, "SESSION_NOT_FOUND", "Session not found.");
         } else {
-            if (session.isMediaInformation()) {
-                final MediaInformationSession mediaInformationSession = (MediaInformationSession) session;
-                final MediaInformation mediaInformation = mediaInformationSession.getMediaInformation();
-                resultHandler.successAsync(result, toMap(mediaInformation));
-            } else {
+            if (!session.isMediaInformation()) {
                 resultHandler.errorAsync(result, "NOT_MEDIA_INFORMATION_SESSION", "A session is found but it does not have the correct type.");
+            } else if (!mediaInformationCache.isEnabled()) {
+                resultHandler.successAsync(result, toMap(((MediaInformationSession) session).getMediaInformation()));
+            } else {
+
+                // the file identity needs a stat or a content resolver query and the entry may be read from disk
+                sessionExecutor.submit(SessionExecutor.Lane.FFPROBE, () -> resultHandler.successAsync(result, toCachedMap((MediaInformationSession) session)));
             }
         }
     }
 
     // MediaInformationJsonParser
 
-    protected void mediaInformationJsonParserFrom(@NonNull final String ffprobeJsonOutput, @NonNull final Result result) {
+    protected void probeMediaInformation(@NonNull final List<String> inputs, @Nullable final Integer maxInFlight, @Nullable final List<String> projectionPaths, @Nullable final Integer waitTimeout, @NonNull final Result result) {
+        final int timeout;
+        if (isValidPositiveNumber(waitTimeout)) {
+            timeout = waitTimeout;
+        } else {
+            timeout = AbstractSession.DEFAULT_TIMEOUT_FOR_ASYNCHRONOUS_MESSAGES_IN_TRANSMIT;
+        }
+
+        final MediaInformationProjection projection;
         try {
-            final MediaInformation mediaInformation = MediaInformationJsonParser.fromWithError(ffprobeJsonOutput);
-            resultHandler.successAsync(result, toMap(mediaInformation));
+            projection = (projectionPaths != null) ? MediaInformationProjection.parse(projectionPaths) : null;
+        } catch (final IllegalArgumentException e) {
+            resultHandler.errorAsync(result, "INVALID_PROJECTION", e.getMessage());
+            return;
+        }
+
+        final MediaProbeScheduler.Probe probe = mediaProbeScheduler.create(context, inputs, maxInFlight, projection, timeout);
+
+        // reply before the first input is probed, so Dart knows the probe id when results arrive
+        resultHandler.successAsync(result, probe.getId());
+        mediaProbeScheduler.start(probe);
+    }
+
+    protected void getProjectedMediaInformation(@NonNull final String path, @NonNull final List<String> projectionPaths, @Nullable final Integer waitTimeout, @NonNull final Result result) {
+        final int timeout;
+        if (isValidPositiveNumber(waitTimeout)) {
+            timeout = waitTimeout;
+        } else {
+            timeout = AbstractSession.DEFAULT_TIMEOUT_FOR_ASYNCHRONOUS_MESSAGES_IN_TRANSMIT;
+        }
+
+        final MediaInformationProjection projection;
+        try {
+            projection = MediaInformationProjection.parse(projectionPaths);
+        } catch (final IllegalArgumentException e) {
+            resultHandler.errorAsync(result, "INVALID_PROJECTION", e.getMessage());
+            return;
+        }
+
+        sessionExecutor.submit(SessionExecutor.Lane.FFPROBE, () -> {
+            try {
+                final MediaProbeScheduler.ProbeResult probeResult = mediaProbeScheduler.probe(context, path, projection, timeout);
+                if (probeResult.getErrorMessage() != null) {
+                    Log.i(LIBRARY_NAME, String.format("Getting projected media information of %s failed. %s", path, probeResult.getErrorMessage()));
+                }
+                resultHandler.successAsync(result, probeResult.getMediaInformation());
+            } catch (final RuntimeException e) {
+                Log.w(LIBRARY_NAME, String.format("Getting projected media information of %s failed.", path), e);
+                resultHandler.errorAsync(result, "PROBE_FAILED", e.getMessage());
+            }
+        });
+    }
+
+    protected void extractThumbnails(final boolean spriteSheet, @NonNull final String input, @NonNull final List<Number> timestamps, @Nullable final Integer width, @Nullable final Integer height, @Nullable final Integer columns, @Nullable final String format, @NonNull final Result result) {
+        if (context == null) {
+            Log.w(LIBRARY_NAME, "Cannot extract thumbnails. Context is null.");
+            resultHandler.errorAsync(result, "INVALID_CONTEXT", "Context is null.");
+            return;
+        }
+
+        final List<Long> timestampList = new ArrayList<>(timestamps.size());
+        for (final Number timestamp : timestamps) {
+            timestampList.add(timestamp.longValue());
+        }
+        final File workDirectory = new File(context.getCacheDir(), THUMBNAIL_DIRECTORY);
+        final int thumbnailWidth = isValidPositiveNumber(width) ? width : -1;
+        final int thumbnailHeight = isValidPositiveNumber(height) ? height : -1;
+        final String thumbnailFormat = (format != null) ? format : "jpg";
+
+        sessionExecutor.submit(SessionExecutor.Lane.FFMPEG, () -> {
+            try {
+                if (spriteSheet) {
+                    final int spriteColumns = isValidPositiveNumber(columns) ? columns : timestampList.size();
+                    resultHandler.successAsync(result, thumbnailEngine.extractSpriteSheet(context, workDirectory, input, timestampList, thumbnailWidth, thumbnailHeight, spriteColumns, thumbnailFormat));
+                } else {
+                    resultHandler.successAsync(result, thumbnailEngine.extractThumbnails(context, workDirectory, input, timestampList, thumbnailWidth, thumbnailHeight, thumbnailFormat));
+                }
+            } catch (final IllegalArgumentException e) {
+                resultHandler.errorAsync(result, "INVALID_FORMAT", e.getMessage());
+            } catch (final RuntimeException e) {
+                Log.w(LIBRARY_NAME, String.format("Extracting thumbnails of %s failed.", input), e);
+                resultHandler.errorAsync(result, "THUMBNAIL_FAILED", e.getMessage());
+            }
+        });
+    }
+
+    protected void getCachedMediaInformation(@NonNull final String path, @NonNull final Result result) {
+        if (!mediaInformationCache.isEnabled()) {
+            resultHandler.successAsync(result, null);
+            return;
+        }
+
+        // the file identity needs a stat or a content resolver query and the entry may be read from disk
+        sessionExecutor.submit(SessionExecutor.Lane.FFPROBE, () -> {
+            final FileIdentity identity = FileIdentity.of(context, path);
+            if (identity == null) {
+                resultHandler.successAsync(result, null);
+            } else {
+                resultHandler.successAsync(result, mediaInformationCache.get(MediaInformationCache.toDefaultKey(identity)));
+            }
+        });
+    }
+
+    protected void setMediaInformationCacheOptions(final long maxBytes, @NonNull final Boolean diskCache, @NonNull final Result result) {
+        if (diskCache && context == null) {
+            Log.w(LIBRARY_NAME, "Cannot enable media information disk cache. Context is null.");
+            resultHandler.errorAsync(result, "INVALID_CONTEXT", "Context is null.");
+            return;
+        }
+
+        mediaInformationCache.setOptions(maxBytes, diskCache ? new File(context.getCacheDir(), MEDIA_INFORMATION_CACHE_DIRECTORY) : null);
+        resultHandler.successAsync(result, null);
+    }
+
+    protected void setSessionLogStorage(@NonNull final Integer memoryLineCount, @NonNull final Result result) {
+        if (memoryLineCount > 0 && context == null) {
+            Log.w(LIBRARY_NAME, "Cannot enable session log storage. Context is null.");
+            resultHandler.errorAsync(result, "INVALID_CONTEXT", "Context is null.");
+            return;
+        }
+
+        // sessions which already exist have logged lines the store has never seen
+        long firstSessionId = 0;
+        for (final Session session : FFmpegKitConfig.getSessions()) {
+            firstSessionId = Math.max(firstSessionId, session.getSessionId() + 1);
+        }
+
+        sessionLogStore.setOptions(memoryLineCount, (memoryLineCount > 0) ? new File(context.getCacheDir(), SESSION_LOG_DIRECTORY) : null, firstSessionId);
+        resultHandler.successAsync(result, null);
+    }
+
+    protected void getMediaInformationCacheStatistics(@NonNull final Result result) {
+        final Map<String, Object> statisticsMap = new HashMap<>();
+        statisticsMap.put(KEY_CACHE_HIT_COUNT, mediaInformationCache.getHitCount());
+        statisticsMap.put(KEY_CACHE_MISS_COUNT, mediaInformationCache.getMissCount());
+        statisticsMap.put(KEY_CACHE_ENTRY_COUNT, mediaInformationCache.getEntryCount());
+        statisticsMap.put(KEY_CACHE_BYTE_COUNT, mediaInformationCache.getByteCount());
+        resultHandler.successAsync(result, statisticsMap);
+    }
+
+    protected void clearMediaInformationCache(@NonNull final Result result) {
+        mediaInformationCache.clear();
+        resultHandler.successAsync(result, null);
+    }
+
+    /**
+     * Converts the media information of a session, reusing the map of an earlier probe of the same
+     * unchanged file with the same arguments.
+     */
+    protected Map<String, Object> toCachedMap(@NonNull final MediaInformationSession session) {
+        final MediaInformation mediaInformation = session.getMediaInformation();
+        if (mediaInformation == null || mediaInformation.getAllProperties() == null || !mediaInformationCache.isEnabled()) {
+            return toMap(mediaInformation);
+        }
+
+        final String[] arguments = session.getArguments();
+        final int inputIndex = MediaInformationCache.findInputIndex(arguments);
+        final FileIdentity identity = (inputIndex < 0) ? null : FileIdentity.of(context, arguments[inputIndex]);
+        if (identity == null) {
+            return toMap(mediaInformation);
+        }
+
+        final String key = MediaInformationCache.toKey(identity, arguments, inputIndex);
+        final Map<String, Object> cachedMap = mediaInformationCache.get(key);
+        if (cachedMap != null) {
+            return cachedMap;
+        }
+
+        final Map<String, Object> mediaInformationMap = toMap(mediaInformation);
+        mediaInformationCache.put(key, mediaInformation.getAllProperties(), mediaInformationMap);
+        return mediaInformationMap;
+    }
+
+    /**
+     * @param ffprobeJsonOutput output as a String or as UTF-8 encoded bytes
+     */
+    protected void mediaInformationJsonParserFrom(@NonNull final Object ffprobeJsonOutput, @NonNull final Result result) {
+        try {
+            resultHandler.successAsync(result, parseMediaInformation(ffprobeJsonOutput));
         } catch (final JSONException e) {
             Log.i(LIBRARY_NAME, "Parsing MediaInformation failed.", e);
             resultHandler.successAsync(result, null);
         }
     }
 
-    protected void mediaInformationJsonParserFromWithError(@NonNull final String ffprobeJsonOutput, @NonNull final Result result) {
+    /**
+     * @param ffprobeJsonOutput output as a String or as UTF-8 encoded bytes
+     */
+    protected void mediaInformationJsonParserFromWithError(@NonNull final Object ffprobeJsonOutput, @NonNull final Result result) {
         try {
-            final MediaInformation mediaInformation = MediaInformationJsonParser.fromWithError(ffprobeJsonOutput);
-            resultHandler.successAsync(result, toMap(mediaInformation));
+            resultHandler.successAsync(result, parseMediaInformation(ffprobeJsonOutput));
         } catch (JSONException e) {
             Log.i(LIBRARY_NAME, "Parsing MediaInformation failed.", e);
             resultHandler.errorAsync(result, "PARSE_FAILED", "Parsing MediaInformation failed with JSON error.");
         }
     }
 
+    /**
+     * Parses ffprobe output, reusing the result of an earlier call with identical output.
+     */
+    protected Map<String, Object> parseMediaInformation(@NonNull final Object ffprobeJsonOutput) throws JSONException {
+        final MediaInformationParseCache.Entry entry = mediaInformationParseCache.get(ffprobeJsonOutput);
+        if (entry != null) {
+            if (entry.getMediaInformationMap() == null) {
+                throw new JSONException("Parsing the same output failed before.");
+            }
+            return entry.getMediaInformationMap();
+        }
+
+        final String json;
+        if (ffprobeJsonOutput instanceof byte[]) {
+            json = new String((byte[]) ffprobeJsonOutput, StandardCharsets.UTF_8);
+        } else {
+            json = (String) ffprobeJsonOutput;
+        }
+
+        try {
+            final Map<String, Object> mediaInformationMap = toMediaInformationMap(json);
+            mediaInformationParseCache.put(ffprobeJsonOutput, mediaInformationMap);
+            return mediaInformationMap;
+        } catch (final JSONException e) {
+            mediaInformationParseCache.put(ffprobeJsonOutput, null);
+            throw e;
+        }
+    }
+
     // FFmpegKitConfig
 
     protected void enableRedirection(@NonNull final Result result) {
@@ -913,6 +1857,17 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
         resultHandler.successAsync(result, null);
     }
 
+    protected void setLogBatchOptions(@NonNull final Integer maxBatchSize, @NonNull final Integer maxBatchLatency, @NonNull final Result result) {
+        if (maxBatchSize < 1) {
+            resultHandler.errorAsync(result, "INVALID_BATCH_SIZE", "Invalid max batch size value.");
+        } else if (maxBatchLatency < 0) {
+            resultHandler.errorAsync(result, "INVALID_BATCH_LATENCY", "Invalid max batch latency value.");
+        } else {
+            logBatchEmitter.setOptions(maxBatchSize, maxBatchLatency);
+            resultHandler.successAsync(result, null);
+        }
+    }
+
     protected void enableStatistics(@NonNull final Result result) {
         enableStatistics();
 
@@ -925,6 +1880,15 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
         resultHandler.successAsync(result, null);
     }
 
+    protected void setStatisticsDeliveryRate(@NonNull final Integer maxStatisticsRate, @NonNull final Result result) {
+        if (maxStatisticsRate < 0) {
+            resultHandler.errorAsync(result, "INVALID_STATISTICS_RATE", "Invalid max statistics rate value.");
+        } else {
+            statisticsThrottler.setMaxStatisticsRate(maxStatisticsRate);
+            resultHandler.successAsync(result, null);
+        }
+    }
+
     protected void setFontconfigConfigurationPath(@NonNull final String path, @NonNull final Result result) {
         FFmpegKitConfig.setFontconfigConfigurationPath(path);
 
@@ -1015,7 +1979,7 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
         } else {
             if (session.isFFmpeg()) {
                 final FFmpegSessionExecuteTask ffmpegSessionExecuteTask = new FFmpegSessionExecuteTask((FFmpegSession) session, resultHandler, result);
-                asyncExecutorService.submit(ffmpegSessionExecuteTask);
+                sessionExecutor.submit(SessionExecutor.Lane.FFMPEG, ffmpegSessionExecuteTask);
             } else {
                 resultHandler.errorAsync(result, "NOT_FFMPEG_SESSION", "A session is found but it does not have the correct type.");
             }
@@ -1029,7 +1993,7 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
         } else {
             if (session.isFFprobe()) {
                 final FFprobeSessionExecuteTask ffprobeSessionExecuteTask = new FFprobeSessionExecuteTask((FFprobeSession) session, resultHandler, result);
-                asyncExecutorService.submit(ffprobeSessionExecuteTask);
+                sessionExecutor.submit(SessionExecutor.Lane.FFPROBE, ffprobeSessionExecuteTask);
             } else {
                 resultHandler.errorAsync(result, "NOT_FFPROBE_SESSION", "A session is found but it does not have the correct type.");
             }
@@ -1049,7 +2013,7 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
                     timeout = AbstractSession.DEFAULT_TIMEOUT_FOR_ASYNCHRONOUS_MESSAGES_IN_TRANSMIT;
                 }
                 final MediaInformationSessionExecuteTask mediaInformationSessionExecuteTask = new MediaInformationSessionExecuteTask((MediaInformationSession) session, timeout, resultHandler, result);
-                asyncExecutorService.submit(mediaInformationSessionExecuteTask);
+                sessionExecutor.submit(SessionExecutor.Lane.FFPROBE, mediaInformationSessionExecuteTask);
             } else {
                 resultHandler.errorAsync(result, "NOT_MEDIA_INFORMATION_SESSION", "A session is found but it does not have the correct type.");
             }
@@ -1062,7 +2026,7 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
             resultHandler.errorAsync(result, "SESSION_NOT_FOUND", "Session not found.");
         } else {
             if (session.isFFmpeg()) {
-                FFmpegKitConfig.asyncFFmpegExecute((FFmpegSession) session);
+                FFmpegKitConfig.asyncFFmpegExecute((FFmpegSession) session, sessionExecutor.getExecutorService(SessionExecutor.Lane.FFMPEG));
                 resultHandler.successAsync(result, null);
             } else {
                 resultHandler.errorAsync(result, "NOT_FFMPEG_SESSION", "A session is found but it does not have the correct type.");
@@ -1076,7 +2040,7 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
             resultHandler.errorAsync(result, "SESSION_NOT_FOUND", "Session not found.");
         } else {
             if (session.isFFprobe()) {
-                FFmpegKitConfig.asyncFFprobeExecute((FFprobeSession) session);
+                FFmpegKitConfig.asyncFFprobeExecute((FFprobeSession) session, sessionExecutor.getExecutorService(SessionExecutor.Lane.FFPROBE));
                 resultHandler.successAsync(result, null);
             } else {
                 resultHandler.errorAsync(result, "NOT_FFPROBE_SESSION", "A session is found but it does not have the correct type.");
@@ -1096,7 +2060,7 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
                 } else {
                     timeout = AbstractSession.DEFAULT_TIMEOUT_FOR_ASYNCHRONOUS_MESSAGES_IN_TRANSMIT;
                 }
-                FFmpegKitConfig.asyncGetMediaInformationExecute((MediaInformationSession) session, timeout);
+                FFmpegKitConfig.asyncGetMediaInformationExecute((MediaInformationSession) session, sessionExecutor.getExecutorService(SessionExecutor.Lane.FFPROBE), timeout);
                 resultHandler.successAsync(result, null);
             } else {
                 resultHandler.errorAsync(result, "NOT_MEDIA_INFORMATION_SESSION", "A session is found but it does not have the correct type.");
@@ -1104,6 +2068,51 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
         }
     }
 
+    protected void submitBatch(@NonNull final List<Map<String, Object>> jobs, @NonNull final Result result) {
+        final BatchJobScheduler.Batch batch;
+        try {
+            batch = batchJobScheduler.create(jobs);
+        } catch (final IllegalArgumentException e) {
+            Log.w(LIBRARY_NAME, "Rejected invalid batch.", e);
+            resultHandler.errorAsync(result, "INVALID_BATCH", e.getMessage());
+            return;
+        }
+
+        final Map<String, Object> batchMap = new HashMap<>();
+        batchMap.put(KEY_BATCH_ID, batch.getId());
+
+        // reply before the first job starts, so Dart knows the batch id when job events arrive
+        resultHandler.successAsync(result, batchMap);
+        batchJobScheduler.start(batch);
+    }
+
+    protected void getConcurrencyLimits(@NonNull final Result result) {
+        final Map<String, Object> concurrencyLimits = new HashMap<>();
+        concurrencyLimits.put(ARGUMENT_FFMPEG_CONCURRENCY_LIMIT, sessionExecutor.getConcurrencyLimit(SessionExecutor.Lane.FFMPEG));
+        concurrencyLimits.put(ARGUMENT_FFPROBE_CONCURRENCY_LIMIT, sessionExecutor.getConcurrencyLimit(SessionExecutor.Lane.FFPROBE));
+        concurrencyLimits.put(ARGUMENT_PIPE_CONCURRENCY_LIMIT, sessionExecutor.getConcurrencyLimit(SessionExecutor.Lane.PIPE));
+        resultHandler.successAsync(result, concurrencyLimits);
+    }
+
+    protected void setConcurrencyLimits(@Nullable final Integer ffmpegConcurrencyLimit, @Nullable final Integer ffprobeConcurrencyLimit, @Nullable final Integer pipeConcurrencyLimit, @NonNull final Result result) {
+        if ((ffmpegConcurrencyLimit != null && ffmpegConcurrencyLimit < 1) || (ffprobeConcurrencyLimit != null && ffprobeConcurrencyLimit < 1) || (pipeConcurrencyLimit != null && pipeConcurrencyLimit < 1)) {
+            resultHandler.errorAsync(result, "INVALID_CONCURRENCY_LIMIT", "Invalid concurrency limit value.");
+            return;
+        }
+
+        if (ffmpegConcurrencyLimit != null) {
+            sessionExecutor.setConcurrencyLimit(SessionExecutor.Lane.FFMPEG, ffmpegConcurrencyLimit);
+        }
+        if (ffprobeConcurrencyLimit != null) {
+            sessionExecutor.setConcurrencyLimit(SessionExecutor.Lane.FFPROBE, ffprobeConcurrencyLimit);
+        }
+        if (pipeConcurrencyLimit != null) {
+            sessionExecutor.setConcurrencyLimit(SessionExecutor.Lane.PIPE, pipeConcurrencyLimit);
+        }
+
+        resultHandler.successAsync(result, null);
+    }
+
     protected void getLogLevel(@NonNull final Result result) {
         resultHandler.successAsync(result, toInt(FFmpegKitConfig.getLogLevel()));
     }
@@ -1113,6 +2122,16 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
         resultHandler.successAsync(result, null);
     }
 
+    protected void setLogFilter(@NonNull final Boolean logCallback, @NonNull final Boolean printLogs, @NonNull final Result result) {
+        logFilter.setGlobal(logCallback, printLogs);
+        resultHandler.successAsync(result, null);
+    }
+
+    protected void setSessionLogFilter(@NonNull final Integer sessionId, @NonNull final Boolean logCallback, @Nullable final Boolean printLogs, @NonNull final Result result) {
+        logFilter.setSession(sessionId.longValue(), logCallback, printLogs);
+        resultHandler.successAsync(result, null);
+    }
+
     protected void getSessionHistorySize(@NonNull final Result result) {
         resultHandler.successAsync(result, FFmpegKitConfig.getSessionHistorySize());
     }
@@ -1147,6 +2166,8 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
 
     protected void clearSessions(@NonNull final Result result) {
         FFmpegKitConfig.clearSessions();
+        logFilter.clear();
+        sessionLogStore.clear();
         resultHandler.successAsync(result, null);
     }
 
@@ -1154,6 +2175,81 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
         resultHandler.successAsync(result, toSessionMapList(FFmpegKitConfig.getSessionsByState(toSessionState(sessionState))));
     }
 
+    /**
+     * Returns the requested fields of many sessions as parallel primitive arrays, which are sent
+     * as typed data. Sessions which are not found have {@link #NO_STATE} as their state.
+     */
+    protected void getSessionStates(@NonNull final List<Number> sessionIds, @NonNull final Integer fieldMask, @NonNull final Result result) {
+        final int count = sessionIds.size();
+        final long[] ids = new long[count];
+        final int[] states = ((fieldMask & FIELD_STATE) != 0) ? new int[count] : null;
+        final int[] returnCodes = ((fieldMask & FIELD_RETURN_CODE) != 0) ? new int[count] : null;
+        final long[] durations = ((fieldMask & FIELD_DURATION) != 0) ? new long[count] : null;
+        final long[] endTimes = ((fieldMask & FIELD_END_TIME) != 0) ? new long[count] : null;
+
+        for (int i = 0; i < count; i++) {
+            ids[i] = sessionIds.get(i).longValue();
+            final Session session = FFmpegKitConfig.getSession(ids[i]);
+
+            if (states != null) {
+                states[i] = (session == null) ? NO_STATE : session.getState().ordinal();
+            }
+            if (returnCodes != null) {
+                final ReturnCode returnCode = (session == null) ? null : session.getReturnCode();
+                returnCodes[i] = (returnCode == null) ? NO_RETURN_CODE : returnCode.getValue();
+            }
+            if (durations != null) {
+                durations[i] = (session == null) ? 0 : session.getDuration();
+            }
+            if (endTimes != null) {
+                endTimes[i] = (session == null) ? 0 : toLong(session.getEndTime());
+            }
+        }
+
+        final Map<String, Object> sessionStates = new HashMap<>();
+        sessionStates.put(KEY_SESSION_STATES_SESSION_IDS, ids);
+        if (states != null) {
+            sessionStates.put(KEY_SESSION_STATES_STATES, states);
+        }
+        if (returnCodes != null) {
+            sessionStates.put(KEY_SESSION_STATES_RETURN_CODES, returnCodes);
+        }
+        if (durations != null) {
+            sessionStates.put(KEY_SESSION_STATES_DURATIONS, durations);
+        }
+        if (endTimes != null) {
+            sessionStates.put(KEY_SESSION_STATES_END_TIMES, endTimes);
+        }
+        resultHandler.successAsync(result, sessionStates);
+    }
+
+    protected void getSessionsPage(@Nullable final Integer offset, @NonNull final Integer limit, @Nullable final Integer sessionState, @Nullable final Integer sessionType, final boolean summary, @NonNull final Result result) {
+        final List<Session> sessions = new ArrayList<>();
+        for (final Session session : FFmpegKitConfig.getSessions()) {
+            if (sessionState != null && session.getState() != toSessionState(sessionState)) {
+                continue;
+            }
+            if (sessionType != null && toSessionType(session) != sessionType) {
+                continue;
+            }
+            sessions.add(session);
+        }
+
+        final int from = toPageStart(offset, sessions.size());
+        final int to = toPageEnd(from, limit, sessions.size());
+
+        // only the sessions on the requested page are converted
+        final List<Map<String, Object>> sessionMapList = new ArrayList<>(to - from);
+        for (final Session session : sessions.subList(from, to)) {
+            sessionMapList.add(summary ? toSummaryMap(session) : toMap(session));
+        }
+
+        final Map<String, Object> sessionPage = new HashMap<>();
+        sessionPage.put(KEY_SESSION_PAGE_SESSIONS, sessionMapList);
+        sessionPage.put(KEY_SESSION_PAGE_TOTAL, sessions.size());
+        resultHandler.successAsync(result, sessionPage);
+    }
+
     protected void getLogRedirectionStrategy(@NonNull final Result result) {
         resultHandler.successAsync(result, toInt(FFmpegKitConfig.getLogRedirectionStrategy()));
     }
@@ -1171,9 +2267,117 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
         resultHandler.successAsync(result, PLATFORM_NAME);
     }
 
+    protected void setCompletionEventOptions(@NonNull final Boolean includeStatistics, @NonNull final Integer logTailSize, @NonNull final Result result) {
+        completionStatisticsEnabled.set(includeStatistics);
+        completionLogTailSize.set(Math.max(0, logTailSize));
+        resultHandler.successAsync(result, null);
+    }
+
+    protected void setCompactEvents(@NonNull final Boolean compactEvents, @NonNull final Result result) {
+        compactEventsEnabled.set(compactEvents);
+        resultHandler.successAsync(result, null);
+    }
+
     protected void writeToPipe(@NonNull final String inputPath, @NonNull final String namedPipePath, @NonNull final Result result) {
-        final WriteToPipeTask asyncTask = new WriteToPipeTask(inputPath, namedPipePath, resultHandler, result);
-        asyncExecutorService.submit(asyncTask);
+        final WriteToPipeTask asyncTask = new WriteToPipeTask(inputPath, namedPipePath, resultHandler, result, this::emitPipeProgress);
+        writeToPipeTasks.put(namedPipePath, asyncTask);
+        sessionExecutor.submit(SessionExecutor.Lane.PIPE, () -> {
+            try {
+                asyncTask.run();
+            } finally {
+                writeToPipeTasks.remove(namedPipePath, asyncTask);
+            }
+        });
+    }
+
+    protected void cancelWriteToPipe(@NonNull final String namedPipePath, @NonNull final Result result) {
+        final WriteToPipeTask asyncTask = writeToPipeTasks.get(namedPipePath);
+        if (asyncTask != null) {
+            asyncTask.cancel();
+        }
+        resultHandler.successAsync(result, asyncTask != null);
+    }
+
+    protected void openPipeWriter(@NonNull final String namedPipePath, @Nullable final Integer capacity, @NonNull final Result result) {
+        final PipeChunkWriter pipeChunkWriter = new PipeChunkWriter(namedPipePath, isValidPositiveNumber(capacity) ? capacity : PipeChunkWriter.DEFAULT_CAPACITY, resultHandler);
+        if (pipeChunkWriters.putIfAbsent(namedPipePath, pipeChunkWriter) != null) {
+            resultHandler.errorAsync(result, "PIPE_WRITER_EXISTS", "A pipe writer is already open for this pipe.");
+            return;
+        }
+
+        new Thread(pipeChunkWriter, "ffmpeg-kit-flutter-pipe-writer").start();
+        resultHandler.successAsync(result, null);
+    }
+
+    protected void writeToPipeChunk(@NonNull final String namedPipePath, @NonNull final byte[] chunk, @NonNull final Result result) {
+        final PipeChunkWriter pipeChunkWriter = pipeChunkWriters.get(namedPipePath);
+        if (pipeChunkWriter == null) {
+            resultHandler.errorAsync(result, "PIPE_WRITER_NOT_FOUND", "Pipe writer not found.");
+        } else {
+            pipeChunkWriter.write(chunk, result);
+        }
+    }
+
+    protected void closePipeWriter(@NonNull final String namedPipePath, @NonNull final Result result) {
+        final PipeChunkWriter pipeChunkWriter = pipeChunkWriters.remove(namedPipePath);
+        if (pipeChunkWriter == null) {
+            resultHandler.errorAsync(result, "PIPE_WRITER_NOT_FOUND", "Pipe writer not found.");
+        } else {
+            pipeChunkWriter.close(result);
+        }
+    }
+
+    protected void openPipeReader(@NonNull final String namedPipePath, @Nullable final Integer bufferSize, @Nullable final Integer credits, @NonNull final Result result) {
+        final PipeReader pipeReader = new PipeReader(namedPipePath, isValidPositiveNumber(bufferSize) ? bufferSize : PipeReader.DEFAULT_BUFFER_SIZE, isValidPositiveNumber(credits) ? credits : PipeReader.DEFAULT_CREDITS, new PipeReader.ChunkListener() {
+
+            @Override
+            public void onChunk(@NonNull final PipeReader pipeReader, @NonNull final byte[] chunk) {
+
+                // a dropped chunk would never return its credit and stall the reader, so it ends instead
+                if (!emitPipeChunk(pipeReader.getNamedPipePath(), chunk)) {
+                    pipeReader.abort("Pipe event channel is not listening.");
+                }
+            }
+
+            @Override
+            public void onEnd(@NonNull final PipeReader pipeReader, final long bytesRead, @Nullable final String errorMessage) {
+                pipeReaders.remove(pipeReader.getNamedPipePath(), pipeReader);
+                emitPipeEnd(pipeReader.getNamedPipePath(), bytesRead, errorMessage);
+            }
+        });
+        if (pipeReaders.putIfAbsent(namedPipePath, pipeReader) != null) {
+            resultHandler.errorAsync(result, "PIPE_READER_EXISTS", "A pipe reader is already open for this pipe.");
+            return;
+        }
+
+        // Dart listens to the pipe event channel before opening a reader, but on a background task
+        // queue this call can arrive before the listen request is handled on the main thread
+        resultHandler.runOnMainThread(() -> {
+            if (pipeEventSink == null) {
+                pipeReaders.remove(namedPipePath, pipeReader);
+                resultHandler.errorAsync(result, "PIPE_EVENTS_NOT_LISTENING", "Pipe event channel is not listening.");
+                return;
+            }
+
+            new Thread(pipeReader, "ffmpeg-kit-flutter-pipe-reader").start();
+            resultHandler.successAsync(result, null);
+        });
+    }
+
+    protected void requestPipeReaderChunks(@NonNull final String namedPipePath, @NonNull final Integer count, @NonNull final Result result) {
+        final PipeReader pipeReader = pipeReaders.get(namedPipePath);
+        if (pipeReader != null) {
+            pipeReader.grant(count);
+        }
+        resultHandler.successAsync(result, pipeReader != null);
+    }
+
+    protected void closePipeReader(@NonNull final String namedPipePath, @NonNull final Result result) {
+        final PipeReader pipeReader = pipeReaders.get(namedPipePath);
+        if (pipeReader != null) {
+            pipeReader.cancel();
+        }
+        resultHandler.successAsync(result, pipeReader != null);
     }
 
     protected void selectDocument(@NonNull final Boolean writable, @Nullable final String title, @Nullable final String type, @Nullable final String[] extraTypes, @NonNull final Result result) {
@@ -1259,10 +2463,26 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
     }
 
     protected void cancelSession(@NonNull final Integer sessionId, @NonNull final Result result) {
+        segmentedTranscoder.cancel(sessionId.longValue());
         FFmpegKit.cancel(sessionId.longValue());
         resultHandler.successAsync(result, null);
     }
 
+    protected void segmentedTranscode(@NonNull final String input, @NonNull final String output, @NonNull final List<String> encodeArguments, @Nullable final Integer segmentCount, @NonNull final Result result) {
+        if (context == null) {
+            Log.w(LIBRARY_NAME, "Cannot start segmented transcode. Context is null.");
+            resultHandler.errorAsync(result, "INVALID_CONTEXT", "Context is null.");
+            return;
+        }
+
+        final int count = isValidPositiveNumber(segmentCount) ? segmentCount : Runtime.getRuntime().availableProcessors();
+        final FFmpegSession session = segmentedTranscoder.create(new File(context.getCacheDir(), SEGMENTED_TRANSCODE_DIRECTORY), input, output, encodeArguments, count);
+
+        // reply before the segments start, so Dart registers its callbacks for the session first
+        resultHandler.successAsync(result, toMap(session));
+        segmentedTranscoder.start(session);
+    }
+
     protected void getFFmpegSessions(@NonNull final Result result) {
         resultHandler.successAsync(result, toSessionMapList(FFmpegKit.listSessions()));
     }
@@ -1293,6 +2513,7 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
 
     protected void disableLogs() {
         logsEnabled.compareAndSet(true, false);
+        logBatchEmitter.flushAll();
     }
 
     protected void enableStatistics() {
@@ -1301,12 +2522,71 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
 
     protected void disableStatistics() {
         statisticsEnabled.compareAndSet(true, false);
+        statisticsThrottler.flushAll();
     }
 
     protected static int toInt(final Level level) {
         return (level == null) ? Level.AV_LOG_TRACE.getValue() : level.getValue();
     }
 
+    /**
+     * Session map with the final state of a completed session, so Dart does not need to query it
+     * again when the completion event arrives.
+     */
+    protected static Map<String, Object> toCompletionMap(final Session session, final boolean includeStatistics, final int logTailSize) {
+        final Map<String, Object> sessionMap = toMap(session);
+
+        sessionMap.put(KEY_SESSION_END_TIME, toLong(session.getEndTime()));
+        sessionMap.put(KEY_SESSION_DURATION, session.getDuration());
+        sessionMap.put(KEY_SESSION_STATE, session.getState().ordinal());
+
+        final ReturnCode returnCode = session.getReturnCode();
+        if (returnCode != null) {
+            sessionMap.put(KEY_SESSION_RETURN_CODE, returnCode.getValue());
+        }
+        if (session.getFailStackTrace() != null) {
+            sessionMap.put(KEY_SESSION_FAIL_STACK_TRACE, session.getFailStackTrace());
+        }
+
+        if (includeStatistics && session.isFFmpeg()) {
+            final Statistics lastStatistics = ((FFmpegSession) session).getLastReceivedStatistics();
+            if (lastStatistics != null) {
+                sessionMap.put(KEY_SESSION_LAST_STATISTICS, toMap(lastStatistics));
+            }
+        }
+
+        if (logTailSize > 0) {
+
+            // the last lines may still be on their way from the native log thread, like for getAllLogs
+            waitForAsynchronousMessagesInTransmit(session, AbstractSession.DEFAULT_TIMEOUT_FOR_ASYNCHRONOUS_MESSAGES_IN_TRANSMIT);
+            final List<com.antonkarpenko.ffmpegkit.Log> logs = session.getLogs();
+            sessionMap.put(KEY_SESSION_LOG_TAIL, toLogMapList(logs.subList(Math.max(0, logs.size() - logTailSize), logs.size())));
+        }
+
+        return sessionMap;
+    }
+
+    /**
+     * Light session projection without command and media information, used for listing.
+     */
+    protected static Map<String, Object> toSummaryMap(final Session session) {
+        final Map<String, Object> sessionMap = new HashMap<>();
+
+        sessionMap.put(KEY_SESSION_ID, session.getSessionId());
+        sessionMap.put(KEY_SESSION_TYPE, toSessionType(session));
+        sessionMap.put(KEY_SESSION_CREATE_TIME, toLong(session.getCreateTime()));
+        sessionMap.put(KEY_SESSION_START_TIME, toLong(session.getStartTime()));
+        sessionMap.put(KEY_SESSION_END_TIME, toLong(session.getEndTime()));
+        sessionMap.put(KEY_SESSION_STATE, session.getState().ordinal());
+
+        final ReturnCode returnCode = session.getReturnCode();
+        if (returnCode != null) {
+            sessionMap.put(KEY_SESSION_RETURN_CODE, returnCode.getValue());
+        }
+
+        return sessionMap;
+    }
+
     protected static Map<String, Object> toMap(final Session session) {
         if (session == null) {
             return null;
@@ -1375,6 +2655,16 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
         }
     }
 
+    protected static int toSessionType(final Session session) {
+        if (session.isFFprobe()) {
+            return SESSION_TYPE_FFPROBE;
+        } else if (session.isMediaInformation()) {
+            return SESSION_TYPE_MEDIA_INFORMATION;
+        } else {
+            return SESSION_TYPE_FFMPEG;
+        }
+    }
+
     protected static SessionState toSessionState(final int value) {
         switch (value) {
             case 0:
@@ -1433,6 +2723,19 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
         }
     }
 
+    /**
+     * Converts ffprobe JSON output in a single pass, without building a JSONObject tree first. When
+     * the output can not be read that way, it is parsed with MediaInformationJsonParser, which
+     * reports errors exactly as before.
+     */
+    protected static Map<String, Object> toMediaInformationMap(@NonNull final String ffprobeJsonOutput) throws JSONException {
+        try {
+            return JsonMapReader.toMap(ffprobeJsonOutput);
+        } catch (final IOException e) {
+            return toMap(MediaInformationJsonParser.fromWithError(ffprobeJsonOutput));
+        }
+    }
+
     protected static Map<String, Object> toMap(final JSONObject jsonObject) {
         final HashMap<String, Object> map = new HashMap<>();
 
@@ -1483,6 +2786,20 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
         return list;
     }
 
+    protected static int toPageStart(@Nullable final Integer fromIndex, final int size) {
+        if (fromIndex == null || fromIndex < 0) {
+            return 0;
+        }
+        return Math.min(fromIndex, size);
+    }
+
+    protected static int toPageEnd(final int from, @Nullable final Integer maxCount, final int size) {
+        if (isValidPositiveNumber(maxCount)) {
+            return (int) Math.min((long) from + maxCount, size);
+        }
+        return size;
+    }
+
     protected static List<Map<String, Object>> toLogMapList(final List<com.antonkarpenko.ffmpegkit.Log> logList) {
         final List<Map<String, Object>> list = new ArrayList<>();
 
@@ -1508,20 +2825,114 @@ public class FFmpegKitFlutterPlugin implements FlutterPlugin, ActivityAware, Met
     }
 
     protected void emitLog(final com.antonkarpenko.ffmpegkit.Log log) {
+        if (compactEventsEnabled.get()) {
+            resultHandler.successAsync(eventSink, CompactEventEncoder.encode(log));
+            return;
+        }
+
         final HashMap<String, Object> logMap = new HashMap<>();
         logMap.put(EVENT_LOG_CALLBACK_EVENT, toMap(log));
         resultHandler.successAsync(eventSink, logMap);
     }
 
+    protected void emitLogBatch(final List<com.antonkarpenko.ffmpegkit.Log> logBatch) {
+        if (compactEventsEnabled.get()) {
+            resultHandler.successAsync(eventSink, CompactEventEncoder.encodeLogBatch(logBatch));
+            return;
+        }
+
+        final HashMap<String, Object> logBatchMap = new HashMap<>();
+        logBatchMap.put(EVENT_LOG_BATCH_CALLBACK_EVENT, toLogMapList(logBatch));
+        resultHandler.successAsync(eventSink, logBatchMap);
+    }
+
     protected void emitStatistics(final Statistics statistics) {
+        if (compactEventsEnabled.get()) {
+            resultHandler.successAsync(eventSink, CompactEventEncoder.encode(statistics));
+            return;
+        }
+
         final HashMap<String, Object> statisticsMap = new HashMap<>();
         statisticsMap.put(EVENT_STATISTICS_CALLBACK_EVENT, toMap(statistics));
         resultHandler.successAsync(eventSink, statisticsMap);
     }
 
+    protected void emitPipeProgress(final String inputPath, final String namedPipePath, final long bytesWritten, final long totalBytes) {
+        final HashMap<String, Object> progressMap = new HashMap<>();
+        progressMap.put(KEY_PIPE_PROGRESS_INPUT, inputPath);
+        progressMap.put(KEY_PIPE_PROGRESS_PIPE, namedPipePath);
+        progressMap.put(KEY_PIPE_PROGRESS_BYTES_WRITTEN, bytesWritten);
+        progressMap.put(KEY_PIPE_PROGRESS_TOTAL_BYTES, totalBytes);
+
+        final HashMap<String, Object> pipeProgressMap = new HashMap<>();
+        pipeProgressMap.put(EVENT_PIPE_PROGRESS_EVENT, progressMap);
+        resultHandler.successAsync(eventSink, pipeProgressMap);
+    }
+
+    /**
+     * Returns false if the chunk could not be emitted because no pipe event sink is attached.
+     */
+    protected boolean emitPipeChunk(final String namedPipePath, final byte[] chunk) {
+        final EventChannel.EventSink eventSink = pipeEventSink;
+        if (eventSink == null) {
+            return false;
+        }
+
+        final HashMap<String, Object> chunkMap = new HashMap<>();
+        chunkMap.put(KEY_PIPE_READER_PIPE, namedPipePath);
+        chunkMap.put(KEY_PIPE_READER_CHUNK, chunk);
+        resultHandler.successAsync(eventSink, chunkMap);
+        return true;
+    }
+
+    protected void emitPipeEnd(final String namedPipePath, final long bytesRead, final String errorMessage) {
+        final HashMap<String, Object> endMap = new HashMap<>();
+        endMap.put(KEY_PIPE_READER_PIPE, namedPipePath);
+        endMap.put(KEY_PIPE_READER_DONE, true);
+        endMap.put(KEY_PIPE_READER_BYTES_READ, bytesRead);
+        if (errorMessage != null) {
+            endMap.put(KEY_PIPE_READER_ERROR, errorMessage);
+        }
+        resultHandler.successAsync(pipeEventSink, endMap);
+    }
+
+    protected void emitBatchJob(final long batchId, final String jobId, final Long sessionId, final String status, final Integer returnCode, final int remaining) {
+        final HashMap<String, Object> jobMap = new HashMap<>();
+        jobMap.put(KEY_BATCH_ID, batchId);
+        jobMap.put(KEY_BATCH_JOB_ID, jobId);
+        jobMap.put(KEY_BATCH_JOB_SESSION_ID, sessionId);
+        jobMap.put(KEY_BATCH_JOB_STATUS, status);
+        jobMap.put(KEY_BATCH_JOB_RETURN_CODE, returnCode);
+        jobMap.put(KEY_BATCH_JOB_REMAINING, remaining);
+
+        final HashMap<String, Object> batchJobMap = new HashMap<>();
+        batchJobMap.put(EVENT_BATCH_JOB_EVENT, jobMap);
+        resultHandler.successAsync(eventSink, batchJobMap);
+    }
+
+    protected void emitMediaProbe(final long probeId, final int index, final String input, final long sessionId, final Map<String, Object> mediaInformation, final String errorMessage, final int remaining) {
+        final HashMap<String, Object> resultMap = new HashMap<>();
+        resultMap.put(KEY_MEDIA_PROBE_ID, probeId);
+        resultMap.put(KEY_MEDIA_PROBE_INDEX, index);
+        resultMap.put(KEY_MEDIA_PROBE_INPUT, input);
+        if (sessionId != 0) {
+            resultMap.put(KEY_MEDIA_PROBE_SESSION_ID, sessionId);
+        }
+        resultMap.put(KEY_MEDIA_PROBE_MEDIA_INFORMATION, mediaInformation);
+        resultMap.put(KEY_MEDIA_PROBE_ERROR, errorMessage);
+        resultMap.put(KEY_MEDIA_PROBE_REMAINING, remaining);
+
+        final HashMap<String, Object> mediaProbeMap = new HashMap<>();
+        mediaProbeMap.put(EVENT_MEDIA_PROBE_EVENT, resultMap);
+        resultHandler.successAsync(eventSink, mediaProbeMap);
+    }
+
     protected void emitSession(final Session session) {
+        logBatchEmitter.flush(session.getSessionId());
+        statisticsThrottler.flush(session.getSessionId());
+
         final HashMap<String, Object> sessionMap = new HashMap<>();
-        sessionMap.put(EVENT_COMPLETE_CALLBACK_EVENT, toMap(session));
+        sessionMap.put(EVENT_COMPLETE_CALLBACK_EVENT, toCompletionMap(session, completionStatisticsEnabled.get(), completionLogTailSize.get()));
         resultHandler.successAsync(eventSink, sessionMap);
     }
 
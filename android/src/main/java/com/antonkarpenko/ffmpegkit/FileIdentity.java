@@ -0,0 +1,111 @@
+package com.antonkarpenko.ffmpegkit;
+
+import static com.antonkarpenko.ffmpegkit.FFmpegKitFlutterPlugin.LIBRARY_NAME;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+import android.provider.DocumentsContract;
+import android.provider.OpenableColumns;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+
+/**
+ * Identifies the content of a local file or a content uri by its location, size and last
+ * modification time, so results computed from a file can be reused until the file changes.
+ */
+public class FileIdentity {
+
+    private final String location;
+    private final long size;
+    private final long lastModified;
+
+    private FileIdentity(@NonNull final String location, final long size, final long lastModified) {
+        this.location = location;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Returns the identity of a file path, file uri or content uri, or null when it can not be
+     * determined, e.g. for network urls, SAF protocol inputs or missing files.
+     */
+    @Nullable
+    public static FileIdentity of(@Nullable final Context context, @Nullable final String pathOrUri) {
+        if (pathOrUri == null || pathOrUri.isEmpty()) {
+            return null;
+        }
+
+        if (pathOrUri.startsWith(ContentResolver.SCHEME_CONTENT + ":")) {
+            return (context == null) ? null : ofContentUri(context, pathOrUri);
+        }
+
+        final String path;
+        if (pathOrUri.startsWith(ContentResolver.SCHEME_FILE + ":")) {
+            path = Uri.parse(pathOrUri).getPath();
+        } else if (pathOrUri.startsWith("/")) {
+            path = pathOrUri;
+        } else {
+            return null;
+        }
+
+        if (path == null) {
+            return null;
+        }
+
+        final File file = new File(path);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        return new FileIdentity(file.getAbsolutePath(), file.length(), file.lastModified());
+    }
+
+    private static FileIdentity ofContentUri(final Context context, final String uriString) {
+        final Uri uri = Uri.parse(uriString);
+
+        try (final Cursor cursor = context.getContentResolver().query(uri, new String[]{OpenableColumns.SIZE, DocumentsContract.Document.COLUMN_LAST_MODIFIED}, null, null, null)) {
+            if (cursor == null || !cursor.moveToFirst()) {
+                return null;
+            }
+
+            final int sizeIndex = cursor.getColumnIndex(OpenableColumns.SIZE);
+            final int lastModifiedIndex = cursor.getColumnIndex(DocumentsContract.Document.COLUMN_LAST_MODIFIED);
+
+            // without a modification time a changed document can not be told apart
+            if (sizeIndex < 0 || lastModifiedIndex < 0 || cursor.isNull(sizeIndex) || cursor.isNull(lastModifiedIndex)) {
+                return null;
+            }
+
+            return new FileIdentity(uriString, cursor.getLong(sizeIndex), cursor.getLong(lastModifiedIndex));
+        } catch (final RuntimeException e) {
+            Log.w(LIBRARY_NAME, String.format("Failed to query identity of %s.", uriString), e);
+            return null;
+        }
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Returns a key which changes whenever the location, size or modification time changes.
+     */
+    public String getKey() {
+        return location + '|' + size + '|' + lastModified;
+    }
+
+}
@@ -0,0 +1,281 @@
+package com.antonkarpenko.ffmpegkit;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts JSON text into the maps and lists sent over the method channel in a single pass,
+ * without building an intermediate JSONObject tree first.
+ *
+ * <p>Values are typed the way org.json types them, so the result is identical to converting a
+ * JSONObject with FFmpegKitFlutterPlugin.toMap: integral numbers become Integer or Long, other
+ * numbers Double, and null values are left out. Only strict JSON is accepted; the relaxed
+ * syntax org.json also tolerates is rejected, so callers can fall back to org.json for it.
+ */
+public class JsonMapReader {
+
+    private final String json;
+    private int position;
+
+    private JsonMapReader(final String json) {
+        this.json = json;
+    }
+
+    /**
+     * @throws IOException if json is not a strict JSON object
+     */
+    public static Map<String, Object> toMap(@NonNull final String json) throws IOException {
+        final JsonMapReader reader = new JsonMapReader(json);
+        reader.skipWhitespace();
+        if (reader.peek() != '{') {
+            throw reader.syntaxError("Expected object");
+        }
+
+        // like org.json, anything after the top level object is ignored
+        return reader.readObject();
+    }
+
+    private Map<String, Object> readObject() throws IOException {
+        final Map<String, Object> map = new HashMap<>();
+
+        position++;
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+            return map;
+        }
+
+        while (true) {
+            if (peek() != '"') {
+                throw syntaxError("Expected name");
+            }
+            final String name = readString();
+
+            skipWhitespace();
+            if (peek() != ':') {
+                throw syntaxError("Expected ':'");
+            }
+            position++;
+
+            final Object value = readValue();
+            if (value != null) {
+                map.put(name, value);
+            }
+
+            skipWhitespace();
+            final char separator = next();
+            if (separator == '}') {
+                return map;
+            } else if (separator != ',') {
+                throw syntaxError("Expected ',' or '}'");
+            }
+            skipWhitespace();
+        }
+    }
+
+    private List<Object> readArray() throws IOException {
+        final List<Object> list = new ArrayList<>();
+
+        position++;
+        skipWhitespace();
+        if (peek() == ']') {
+            position++;
+            return list;
+        }
+
+        while (true) {
+            final Object value = readValue();
+            if (value != null) {
+                list.add(value);
+            }
+
+            skipWhitespace();
+            final char separator = next();
+            if (separator == ']') {
+                return list;
+            } else if (separator != ',') {
+                throw syntaxError("Expected ',' or ']'");
+            }
+        }
+    }
+
+    private Object readValue() throws IOException {
+        skipWhitespace();
+
+        final char c = peek();
+        switch (c) {
+            case '{':
+                return readObject();
+            case '[':
+                return readArray();
+            case '"':
+                return readString();
+            case 't':
+                readKeyword("true");
+                return Boolean.TRUE;
+            case 'f':
+                readKeyword("false");
+                return Boolean.FALSE;
+            case 'n':
+                readKeyword("null");
+                return null;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return readNumber();
+                }
+                throw syntaxError("Unexpected character");
+        }
+    }
+
+    private String readString() throws IOException {
+        final int start = ++position;
+
+        // ffprobe output rarely contains escapes, so most strings are a plain substring
+        final int end = json.indexOf('"', start);
+        if (end == -1) {
+            throw syntaxError("Unterminated string");
+        }
+        final int escape = json.indexOf('\\', start);
+        if (escape == -1 || escape > end) {
+            position = end + 1;
+            return json.substring(start, end);
+        }
+
+        final StringBuilder builder = new StringBuilder(end - start + 16);
+        builder.append(json, start, escape);
+        position = escape;
+
+        while (true) {
+            final char c = next();
+            if (c == '"') {
+                return builder.toString();
+            } else if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+
+            final char escaped = next();
+            switch (escaped) {
+                case '"':
+                case '\\':
+                case '/':
+                    builder.append(escaped);
+                    break;
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'u':
+                    if (position + 4 > json.length()) {
+                        throw syntaxError("Unterminated escape sequence");
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                    } catch (final NumberFormatException e) {
+                        throw syntaxError("Invalid escape sequence");
+                    }
+                    position += 4;
+                    break;
+                default:
+                    throw syntaxError("Invalid escape sequence");
+            }
+        }
+    }
+
+    private void readKeyword(final String keyword) throws IOException {
+        if (!json.startsWith(keyword, position)) {
+            throw syntaxError("Unexpected literal");
+        }
+        position += keyword.length();
+    }
+
+    /**
+     * Follows JSONTokener.readLiteral, which returns the narrowest of Integer and Long for
+     * integral literals and Double for everything else.
+     */
+    private Object readNumber() throws IOException {
+        final int start = position;
+        boolean integral = true;
+
+        while (position < json.length()) {
+            final char c = json.charAt(position);
+            if (c == '.' || c == 'e' || c == 'E') {
+                integral = false;
+            } else if (!(c >= '0' && c <= '9') && c != '-' && c != '+') {
+                break;
+            }
+            position++;
+        }
+
+        final String literal = json.substring(start, position);
+        final int firstDigit = (literal.charAt(0) == '-') ? 1 : 0;
+
+        // org.json reads leading zeros as octal numbers
+        if (literal.length() > firstDigit + 1 && literal.charAt(firstDigit) == '0' && integral) {
+            throw syntaxError("Unsupported number");
+        }
+
+        if (integral) {
+            try {
+                final long longValue = Long.parseLong(literal);
+                if (longValue <= Integer.MAX_VALUE && longValue >= Integer.MIN_VALUE) {
+                    return (int) longValue;
+                } else {
+                    return longValue;
+                }
+            } catch (final NumberFormatException e) {
+                // out of range for a long, falls through to double
+            }
+        }
+
+        try {
+            return Double.valueOf(literal);
+        } catch (final NumberFormatException e) {
+            throw syntaxError("Invalid number");
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < json.length()) {
+            final char c = json.charAt(position);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private char peek() throws IOException {
+        if (position >= json.length()) {
+            throw syntaxError("Unexpected end of input");
+        }
+        return json.charAt(position);
+    }
+
+    private char next() throws IOException {
+        final char c = peek();
+        position++;
+        return c;
+    }
+
+    private IOException syntaxError(final String message) {
+        return new IOException(String.format("%s at character %d.", message, position));
+    }
+
+}
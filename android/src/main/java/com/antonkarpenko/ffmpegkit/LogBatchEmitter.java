@@ -0,0 +1,100 @@
+package com.antonkarpenko.ffmpegkit;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects log entries per session and hands them over as a single batch once the batch is full
+ * or the oldest entry has waited for the maximum batch latency.
+ */
+public class LogBatchEmitter {
+
+    public interface BatchListener {
+        void onBatch(@NonNull List<com.antonkarpenko.ffmpegkit.Log> logBatch);
+    }
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1;
+    public static final int DEFAULT_MAX_BATCH_LATENCY = 0;
+
+    private final ScheduledExecutorService scheduler;
+    private final BatchListener listener;
+    private final Map<Long, SessionBuffer> buffers;
+
+    private int maxBatchSize;
+    private int maxBatchLatency;
+
+    public LogBatchEmitter(@NonNull final ScheduledExecutorService scheduler, @NonNull final BatchListener listener) {
+        this.scheduler = scheduler;
+        this.listener = listener;
+        this.buffers = new HashMap<>();
+        this.maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+        this.maxBatchLatency = DEFAULT_MAX_BATCH_LATENCY;
+    }
+
+    public synchronized boolean isEnabled() {
+        return maxBatchSize > 1 && maxBatchLatency > 0;
+    }
+
+    public synchronized void setOptions(final int maxBatchSize, final int maxBatchLatency) {
+        flushAll();
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxBatchLatency = Math.max(0, maxBatchLatency);
+    }
+
+    public synchronized void add(@NonNull final com.antonkarpenko.ffmpegkit.Log log) {
+        final long sessionId = log.getSessionId();
+
+        SessionBuffer buffer = buffers.get(sessionId);
+        if (buffer == null) {
+            buffer = new SessionBuffer(maxBatchSize);
+            buffers.put(sessionId, buffer);
+        }
+
+        buffer.logs.add(log);
+
+        if (buffer.logs.size() >= maxBatchSize) {
+            flush(sessionId);
+        } else if (buffer.flushTask == null) {
+            buffer.flushTask = scheduler.schedule(() -> flush(sessionId), maxBatchLatency, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized void flush(final long sessionId) {
+        final SessionBuffer buffer = buffers.remove(sessionId);
+        if (buffer == null) {
+            return;
+        }
+
+        if (buffer.flushTask != null) {
+            buffer.flushTask.cancel(false);
+        }
+
+        // emitting under the lock keeps batches of the same session in order, posting them is cheap
+        if (!buffer.logs.isEmpty()) {
+            listener.onBatch(buffer.logs);
+        }
+    }
+
+    public synchronized void flushAll() {
+        for (final Long sessionId : new ArrayList<>(buffers.keySet())) {
+            flush(sessionId);
+        }
+    }
+
+    private static class SessionBuffer {
+        private final List<com.antonkarpenko.ffmpegkit.Log> logs;
+        private ScheduledFuture<?> flushTask;
+
+        SessionBuffer(final int capacity) {
+            this.logs = new ArrayList<>(capacity);
+        }
+    }
+
+}
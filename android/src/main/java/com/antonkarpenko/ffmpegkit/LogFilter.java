@@ -0,0 +1,91 @@
+package com.antonkarpenko.ffmpegkit;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.antonkarpenko.ffmpegkit.FFmpegKitConfig;
+import com.antonkarpenko.ffmpegkit.Level;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides on the native side whether Dart would do anything with a log entry, so that entries
+ * which would be neither passed to a callback nor printed are never sent over the channel.
+ *
+ * <p>Dart pushes whether a global log callback exists and whether its log redirection
+ * strategies allow printing, globally and per session. The decision must be kept in sync with
+ * _processLog in lib/src/ffmpeg_kit_flutter_initializer.dart.
+ */
+public class LogFilter {
+
+    private volatile boolean globalLogCallback;
+    private volatile boolean globalPrintLogs;
+    private final Map<Long, SessionLogFilter> sessionLogFilters;
+
+    public LogFilter() {
+
+        // until Dart tells otherwise, assume the default strategy which prints logs
+        this.globalLogCallback = false;
+        this.globalPrintLogs = true;
+        this.sessionLogFilters = new ConcurrentHashMap<>();
+    }
+
+    public void setGlobal(final boolean logCallback, final boolean printLogs) {
+        this.globalLogCallback = logCallback;
+        this.globalPrintLogs = printLogs;
+    }
+
+    public void setSession(final long sessionId, final boolean logCallback, @Nullable final Boolean printLogs) {
+
+        // sessions dropped from the session history will not log again, they are looked for only
+        // once the filters outnumber the history twice, so a scan is due every history size calls
+        if (sessionLogFilters.size() >= 2 * FFmpegKitConfig.getSessionHistorySize()) {
+            final Iterator<Long> iterator = sessionLogFilters.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (FFmpegKitConfig.getSession(iterator.next()) == null) {
+                    iterator.remove();
+                }
+            }
+        }
+
+        sessionLogFilters.put(sessionId, new SessionLogFilter(logCallback, printLogs));
+    }
+
+    public void clear() {
+        sessionLogFilters.clear();
+    }
+
+    public boolean accept(@NonNull final com.antonkarpenko.ffmpegkit.Log log) {
+        final int level = FFmpegKitFlutterPlugin.toInt(log.getLevel());
+        final int activeLogLevel = FFmpegKitFlutterPlugin.toInt(FFmpegKitConfig.getLogLevel());
+
+        // AV_LOG_STDERR logs are always redirected
+        if ((activeLogLevel == Level.AV_LOG_QUIET.getValue() && level != Level.AV_LOG_STDERR.getValue()) || level > activeLogLevel) {
+            return false;
+        }
+
+        if (globalLogCallback) {
+            return true;
+        }
+
+        final SessionLogFilter sessionLogFilter = sessionLogFilters.get(log.getSessionId());
+        if (sessionLogFilter == null) {
+            return globalPrintLogs;
+        }
+
+        return sessionLogFilter.logCallback || (sessionLogFilter.printLogs != null ? sessionLogFilter.printLogs : globalPrintLogs);
+    }
+
+    private static class SessionLogFilter {
+        private final boolean logCallback;
+        private final Boolean printLogs;
+
+        SessionLogFilter(final boolean logCallback, final Boolean printLogs) {
+            this.logCallback = logCallback;
+            this.printLogs = printLogs;
+        }
+    }
+
+}
@@ -0,0 +1,293 @@
+package com.antonkarpenko.ffmpegkit;
+
+import static com.antonkarpenko.ffmpegkit.FFmpegKitFlutterPlugin.LIBRARY_NAME;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps converted media information maps keyed by file identity and probe arguments, so a file
+ * which has not changed since it was probed is not probed and converted again.
+ *
+ * <p>Entries are evicted in least recently used order once the estimated size exceeds the
+ * memory budget. When a disk directory is set, the ffprobe JSON of every entry is also written
+ * there and read back after a memory miss.
+ */
+public class MediaInformationCache {
+
+    public static final long DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+
+    private static final int MAX_DISK_ENTRIES = 512;
+
+    private final LinkedHashMap<String, Entry> entries;
+    private final AtomicLong hitCount;
+    private final AtomicLong missCount;
+
+    private long maxBytes;
+    private long byteCount;
+    private File diskDirectory;
+    private ExecutorService diskExecutor;
+
+    public MediaInformationCache() {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.hitCount = new AtomicLong();
+        this.missCount = new AtomicLong();
+        this.maxBytes = DEFAULT_MAX_BYTES;
+    }
+
+    /**
+     * @param maxBytes      memory budget, zero disables caching
+     * @param diskDirectory directory to persist entries in, null keeps them in memory only
+     */
+    public synchronized void setOptions(final long maxBytes, @Nullable final File diskDirectory) {
+        this.maxBytes = Math.max(0, maxBytes);
+        this.diskDirectory = (this.maxBytes > 0) ? diskDirectory : null;
+
+        if (this.diskDirectory != null && diskExecutor == null) {
+            diskExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "ffmpeg-kit-flutter-media-information-cache"));
+        }
+
+        trim();
+    }
+
+    public synchronized boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    @Nullable
+    public Map<String, Object> get(@NonNull final String key) {
+        final File diskFile;
+        synchronized (this) {
+            if (maxBytes == 0) {
+                return null;
+            }
+
+            final Entry entry = entries.get(key);
+            if (entry != null) {
+                hitCount.incrementAndGet();
+                return entry.mediaInformationMap;
+            }
+
+            diskFile = (diskDirectory != null) ? new File(diskDirectory, toFileName(key)) : null;
+        }
+
+        if (diskFile != null && diskFile.isFile()) {
+            try {
+                final String json = read(diskFile);
+                final Map<String, Object> mediaInformationMap = JsonMapReader.toMap(json);
+                putInMemory(key, json, mediaInformationMap);
+                hitCount.incrementAndGet();
+                return mediaInformationMap;
+            } catch (final IOException e) {
+                Log.w(LIBRARY_NAME, String.format("Failed to read cached media information from %s.", diskFile), e);
+                diskFile.delete();
+            }
+        }
+
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    public void put(@NonNull final String key, @NonNull final JSONObject allProperties, @NonNull final Map<String, Object> mediaInformationMap) {
+        final String json = allProperties.toString();
+        putInMemory(key, json, mediaInformationMap);
+
+        final File directory;
+        final ExecutorService executor;
+        synchronized (this) {
+            directory = diskDirectory;
+            executor = diskExecutor;
+        }
+
+        if (directory != null && executor != null) {
+            executor.execute(() -> writeToDisk(directory, key, json));
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        byteCount = 0;
+
+        if (diskDirectory != null && diskExecutor != null) {
+            final File directory = diskDirectory;
+            diskExecutor.execute(() -> {
+                final File[] files = directory.listFiles();
+                if (files != null) {
+                    for (final File file : files) {
+                        file.delete();
+                    }
+                }
+            });
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public synchronized long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Builds the key of the probe FFprobeKit.getMediaInformation runs for the identified file.
+     */
+    public static String toDefaultKey(@NonNull final FileIdentity identity) {
+        final String[] arguments = toDefaultArguments(identity.getLocation());
+        return toKey(identity, arguments, arguments.length - 1);
+    }
+
+    /**
+     * Returns the arguments FFprobeKit.getMediaInformation uses to probe input.
+     */
+    public static String[] toDefaultArguments(@NonNull final String input) {
+        return new String[]{"-v", "error", "-hide_banner", "-print_format", "json", "-show_format", "-show_streams", "-show_chapters", "-i", input};
+    }
+
+    /**
+     * Builds the key of a probe of the input at inputIndex of arguments, which is identified by
+     * identity. The other arguments are part of the key, since they select what is probed.
+     */
+    public static String toKey(@NonNull final FileIdentity identity, @NonNull final String[] arguments, final int inputIndex) {
+        final StringBuilder key = new StringBuilder(identity.getKey());
+        for (int i = 0; i < arguments.length; i++) {
+            if (i != inputIndex) {
+                key.append('\u0000').append(arguments[i]);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Returns the index of the value of the last -i option, -1 if there is none.
+     */
+    public static int findInputIndex(@Nullable final String[] arguments) {
+        if (arguments == null) {
+            return -1;
+        }
+
+        for (int i = arguments.length - 2; i >= 0; i--) {
+            if ("-i".equals(arguments[i])) {
+                return i + 1;
+            }
+        }
+
+        return -1;
+    }
+
+    private synchronized void putInMemory(final String key, final String json, final Map<String, Object> mediaInformationMap) {
+        if (maxBytes == 0) {
+            return;
+        }
+
+        // rough estimate covering the UTF-16 JSON text and the converted map built from it
+        final long size = json.length() * 4L;
+
+        final Entry previous = entries.put(key, new Entry(mediaInformationMap, size));
+        if (previous != null) {
+            byteCount -= previous.size;
+        }
+        byteCount += size;
+
+        trim();
+    }
+
+    private void trim() {
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while (byteCount > maxBytes && iterator.hasNext()) {
+            byteCount -= iterator.next().size;
+            iterator.remove();
+        }
+    }
+
+    private static void writeToDisk(final File directory, final String key, final String json) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            Log.w(LIBRARY_NAME, String.format("Failed to create media information cache directory %s.", directory));
+            return;
+        }
+
+        final File file = new File(directory, toFileName(key));
+        try (final OutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(json.getBytes(StandardCharsets.UTF_8));
+        } catch (final IOException e) {
+            Log.w(LIBRARY_NAME, String.format("Failed to write cached media information to %s.", file), e);
+            file.delete();
+            return;
+        }
+
+        final File[] files = directory.listFiles();
+        if (files != null && files.length > MAX_DISK_ENTRIES) {
+            Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+            for (int i = 0; i < files.length - MAX_DISK_ENTRIES; i++) {
+                files[i].delete();
+            }
+        }
+    }
+
+    private static String read(final File file) throws IOException {
+        try (final InputStream inputStream = new FileInputStream(file)) {
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream((int) file.length());
+            final byte[] buffer = new byte[8192];
+            int count;
+            while ((count = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, count);
+            }
+            return outputStream.toString("UTF-8");
+        }
+    }
+
+    private static String toFileName(final String key) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder fileName = new StringBuilder(digest.length * 2 + 5);
+            for (final byte value : digest) {
+                fileName.append(String.format("%02x", value));
+            }
+            return fileName.append(".json").toString();
+        } catch (final NoSuchAlgorithmException e) {
+            return Integer.toHexString(key.hashCode()) + ".json";
+        }
+    }
+
+    private static class Entry {
+        private final Map<String, Object> mediaInformationMap;
+        private final long size;
+
+        Entry(final Map<String, Object> mediaInformationMap, final long size) {
+            this.mediaInformationMap = mediaInformationMap;
+            this.size = size;
+        }
+    }
+
+}
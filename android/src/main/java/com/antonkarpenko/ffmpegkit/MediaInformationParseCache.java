@@ -0,0 +1,148 @@
+package com.antonkarpenko.ffmpegkit;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the result of parsing ffprobe JSON output, so the same output sent again by Dart is
+ * not parsed again. Entries are keyed by length and content hash, and a hit is only returned
+ * after comparing the content, so hash collisions never return a wrong result.
+ *
+ * <p>The cached content and result are counted against a byte budget and evicted in least
+ * recently used order.
+ */
+public class MediaInformationParseCache {
+
+    public static final long DEFAULT_MAX_BYTES = 8 * 1024 * 1024;
+
+    private final LinkedHashMap<Key, Entry> entries;
+    private long maxBytes;
+    private long byteCount;
+
+    public MediaInformationParseCache() {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.maxBytes = DEFAULT_MAX_BYTES;
+    }
+
+    public synchronized void setMaxBytes(final long maxBytes) {
+        this.maxBytes = Math.max(0, maxBytes);
+        trim();
+    }
+
+    /**
+     * Returns the entry parsed from content, which is either a String or a byte array, or null if
+     * there is none.
+     */
+    @Nullable
+    public synchronized Entry get(@NonNull final Object content) {
+        final Entry entry = entries.get(new Key(content));
+        if (entry != null && contentEquals(entry.content, content)) {
+            return entry;
+        }
+        return null;
+    }
+
+    /**
+     * @param mediaInformationMap parse result, null if parsing failed
+     */
+    public synchronized void put(@NonNull final Object content, @Nullable final Map<String, Object> mediaInformationMap) {
+
+        // rough estimate covering the content and the converted map built from it
+        final long size = contentSize(content) * 2;
+        if (size > maxBytes) {
+            return;
+        }
+
+        final Entry previous = entries.put(new Key(content), new Entry(content, mediaInformationMap, size));
+        if (previous != null) {
+            byteCount -= previous.size;
+        }
+        byteCount += size;
+
+        trim();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        byteCount = 0;
+    }
+
+    private void trim() {
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while (byteCount > maxBytes && iterator.hasNext()) {
+            byteCount -= iterator.next().size;
+            iterator.remove();
+        }
+    }
+
+    private static long contentSize(final Object content) {
+        if (content instanceof byte[]) {
+            return ((byte[]) content).length;
+        }
+        return ((String) content).length() * 2L;
+    }
+
+    private static boolean contentEquals(final Object first, final Object second) {
+        if (first instanceof byte[] && second instanceof byte[]) {
+            return Arrays.equals((byte[]) first, (byte[]) second);
+        }
+        return first.equals(second);
+    }
+
+    public static class Entry {
+        private final Object content;
+        private final Map<String, Object> mediaInformationMap;
+        private final long size;
+
+        Entry(final Object content, final Map<String, Object> mediaInformationMap, final long size) {
+            this.content = content;
+            this.mediaInformationMap = mediaInformationMap;
+            this.size = size;
+        }
+
+        /**
+         * Returns the parse result, null if parsing failed.
+         */
+        @Nullable
+        public Map<String, Object> getMediaInformationMap() {
+            return mediaInformationMap;
+        }
+    }
+
+    private static class Key {
+        private final boolean bytes;
+        private final int length;
+        private final int hash;
+
+        Key(final Object content) {
+            this.bytes = content instanceof byte[];
+            if (bytes) {
+                this.length = ((byte[]) content).length;
+                this.hash = Arrays.hashCode((byte[]) content);
+            } else {
+                this.length = ((String) content).length();
+                this.hash = content.hashCode();
+            }
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            if (!(object instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) object;
+            return bytes == key.bytes && length == key.length && hash == key.hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * hash + length;
+        }
+    }
+
+}
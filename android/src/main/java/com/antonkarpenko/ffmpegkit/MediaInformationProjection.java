@@ -0,0 +1,242 @@
+package com.antonkarpenko.ffmpegkit;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Selects a subset of media information fields, given as paths like "format.duration",
+ * "streams[*].width" or "streams[*].tags.language". A "[*]" segment marks a list, whose
+ * elements are projected one by one, a path ending at an object selects the whole object.
+ *
+ * <p>When every path maps to an ffprobe section, the probe itself is narrowed with -show_entries,
+ * so ffprobe neither collects nor prints the other fields.
+ */
+public class MediaInformationProjection {
+
+    private static final String WILDCARD = "[*]";
+
+    private final Node root;
+    private final String showEntries;
+
+    private MediaInformationProjection(final Node root, final String showEntries) {
+        this.root = root;
+        this.showEntries = showEntries;
+    }
+
+    /**
+     * @throws IllegalArgumentException if paths is empty or contains an invalid path
+     */
+    public static MediaInformationProjection parse(@NonNull final List<String> paths) {
+        if (paths.isEmpty()) {
+            throw new IllegalArgumentException("Projection has no paths.");
+        }
+
+        final Node root = new Node();
+        final Map<String, Set<String>> sectionEntries = new LinkedHashMap<>();
+        boolean narrowable = true;
+
+        for (final String path : paths) {
+            final List<String> names = new ArrayList<>();
+            final List<Boolean> wildcards = new ArrayList<>();
+            for (final String segment : path.split("\\.", -1)) {
+                final boolean wildcard = segment.endsWith(WILDCARD);
+                final String name = wildcard ? segment.substring(0, segment.length() - WILDCARD.length()) : segment;
+                if (name.isEmpty() || name.contains("[") || name.contains("]")) {
+                    throw new IllegalArgumentException(String.format("Invalid projection path %s.", path));
+                }
+                names.add(name);
+                wildcards.add(wildcard);
+            }
+
+            Node node = root;
+            for (int i = 0; i < names.size(); i++) {
+                node = node.child(names.get(i));
+            }
+            node.whole = true;
+
+            narrowable &= addSectionEntries(sectionEntries, names, wildcards);
+        }
+
+        return new MediaInformationProjection(root, narrowable ? toShowEntries(sectionEntries) : null);
+    }
+
+    /**
+     * Returns the ffprobe arguments which probe input for this projection.
+     */
+    public String[] toArguments(@NonNull final String input) {
+        if (showEntries == null) {
+            return MediaInformationCache.toDefaultArguments(input);
+        }
+        return new String[]{"-v", "error", "-hide_banner", "-print_format", "json", "-show_entries", showEntries, "-i", input};
+    }
+
+    @Nullable
+    public String getShowEntries() {
+        return showEntries;
+    }
+
+    /**
+     * Returns a new map holding only the projected fields of mediaInformationMap.
+     */
+    @Nullable
+    public Map<String, Object> apply(@Nullable final Map<String, Object> mediaInformationMap) {
+        if (mediaInformationMap == null) {
+            return null;
+        }
+        return applyObject(mediaInformationMap, root);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object apply(final Object value, final Node node) {
+        if (node.whole) {
+            return value;
+        }
+
+        if (value instanceof List) {
+
+            // elements keep their positions, so unmatched elements stay as empty maps
+            final List<Object> list = new ArrayList<>();
+            for (final Object element : (List<Object>) value) {
+                if (element instanceof Map) {
+                    list.add(applyObject((Map<String, Object>) element, node));
+                }
+            }
+            return list;
+        }
+
+        return (value instanceof Map) ? applyObject((Map<String, Object>) value, node) : null;
+    }
+
+    private static Map<String, Object> applyObject(final Map<String, Object> map, final Node node) {
+        final Map<String, Object> projectedMap = new HashMap<>();
+        for (final Map.Entry<String, Node> child : node.children.entrySet()) {
+            final Object value = map.get(child.getKey());
+            if (value != null) {
+                final Object projectedValue = apply(value, child.getValue());
+                if (projectedValue != null) {
+                    projectedMap.put(child.getKey(), projectedValue);
+                }
+            }
+        }
+        return projectedMap;
+    }
+
+    /**
+     * Records the -show_entries sections and entries needed by a path, null entries meaning the
+     * whole section. Returns false if the path does not map to a section.
+     */
+    private static boolean addSectionEntries(final Map<String, Set<String>> sectionEntries, final List<String> names, final List<Boolean> wildcards) {
+        final String section;
+        switch (names.get(0)) {
+            case "format":
+                section = wildcards.get(0) ? null : "format";
+                break;
+            case "streams":
+                section = "stream";
+                break;
+            case "chapters":
+                section = "chapter";
+                break;
+            default:
+                section = null;
+        }
+        if (section == null) {
+            return false;
+        }
+
+        for (int i = 1; i < names.size(); i++) {
+            if (wildcards.get(i)) {
+                return false;
+            }
+        }
+
+        switch (names.size()) {
+            case 1:
+                addEntry(sectionEntries, section, null);
+                return true;
+            case 2:
+                if (isSubsection(section, names.get(1))) {
+                    addEntry(sectionEntries, section + "_" + names.get(1), null);
+                } else {
+                    addEntry(sectionEntries, section, names.get(1));
+                }
+                return true;
+            case 3:
+                if (isSubsection(section, names.get(1))) {
+                    addEntry(sectionEntries, section + "_" + names.get(1), names.get(2));
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isSubsection(final String section, final String name) {
+        return "tags".equals(name) || ("stream".equals(section) && "disposition".equals(name));
+    }
+
+    private static void addEntry(final Map<String, Set<String>> sectionEntries, final String section, final String entry) {
+        if (sectionEntries.containsKey(section) && sectionEntries.get(section) == null) {
+            return;
+        }
+
+        if (entry == null) {
+            sectionEntries.put(section, null);
+        } else {
+            Set<String> entries = sectionEntries.get(section);
+            if (entries == null) {
+                entries = new LinkedHashSet<>();
+                sectionEntries.put(section, entries);
+            }
+            entries.add(entry);
+        }
+    }
+
+    private static String toShowEntries(final Map<String, Set<String>> sectionEntries) {
+        final StringBuilder showEntries = new StringBuilder();
+        for (final Map.Entry<String, Set<String>> sectionEntry : sectionEntries.entrySet()) {
+
+            // a whole section already includes its subsections, listing one again would narrow it
+            final int separator = sectionEntry.getKey().indexOf('_');
+            if (separator != -1) {
+                final String parentSection = sectionEntry.getKey().substring(0, separator);
+                if (sectionEntries.containsKey(parentSection) && sectionEntries.get(parentSection) == null) {
+                    continue;
+                }
+            }
+
+            if (showEntries.length() > 0) {
+                showEntries.append(':');
+            }
+            showEntries.append(sectionEntry.getKey());
+            if (sectionEntry.getValue() != null) {
+                showEntries.append('=').append(String.join(",", sectionEntry.getValue()));
+            }
+        }
+        return showEntries.toString();
+    }
+
+    private static class Node {
+        private final Map<String, Node> children = new LinkedHashMap<>();
+        private boolean whole;
+
+        Node child(final String name) {
+            Node child = children.get(name);
+            if (child == null) {
+                child = new Node();
+                children.put(name, child);
+            }
+            return child;
+        }
+    }
+
+}
@@ -0,0 +1,250 @@
+package com.antonkarpenko.ffmpegkit;
+
+import static com.antonkarpenko.ffmpegkit.FFmpegKitFlutterPlugin.LIBRARY_NAME;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.antonkarpenko.ffmpegkit.FFmpegKitConfig;
+import com.antonkarpenko.ffmpegkit.MediaInformation;
+import com.antonkarpenko.ffmpegkit.MediaInformationSession;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Extracts media information of many inputs in a single call. Inputs are probed on the FFprobe
+ * lane, at most maxInFlight of them at a time, and every result is reported as soon as it is
+ * available, so results arrive in completion order rather than input order.
+ *
+ * <p>Results of unchanged local files and content uris are taken from the media information cache
+ * without running FFprobe. When a projection is given, only the projected fields are extracted.
+ */
+public class MediaProbeScheduler {
+
+    public interface ProbeListener {
+        void onProbeResult(long probeId, int index, @NonNull String input, long sessionId, @Nullable Map<String, Object> mediaInformation, @Nullable String errorMessage, int remaining);
+    }
+
+    private final SessionExecutor sessionExecutor;
+    private final MediaInformationCache mediaInformationCache;
+    private final ProbeListener listener;
+    private final AtomicLong probeCounter;
+    private final Map<Long, Probe> probes;
+
+    public MediaProbeScheduler(@NonNull final SessionExecutor sessionExecutor, @NonNull final MediaInformationCache mediaInformationCache, @NonNull final ProbeListener listener) {
+        this.sessionExecutor = sessionExecutor;
+        this.mediaInformationCache = mediaInformationCache;
+        this.listener = listener;
+        this.probeCounter = new AtomicLong(1);
+        this.probes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @param maxInFlight maximum number of inputs probed at the same time, null or non-positive
+     *                    values use the concurrency limit of the FFprobe lane
+     * @param projection  fields to extract, null extracts all of them
+     * @param timeout     time to wait for the logs of each probe
+     */
+    public Probe create(@Nullable final Context context, @NonNull final List<String> inputs, @Nullable final Integer maxInFlight, @Nullable final MediaInformationProjection projection, final int timeout) {
+        final int inFlightLimit = (maxInFlight == null || maxInFlight < 1) ? sessionExecutor.getConcurrencyLimit(SessionExecutor.Lane.FFPROBE) : maxInFlight;
+        return new Probe(probeCounter.getAndIncrement(), context, inputs.toArray(new String[0]), inFlightLimit, projection, timeout);
+    }
+
+    public void start(@NonNull final Probe probe) {
+        if (probe.inputs.length == 0) {
+            return;
+        }
+
+        probes.put(probe.id, probe);
+
+        Log.d(LIBRARY_NAME, String.format("Starting probe %d with %d inputs, %d in flight.", probe.id, probe.inputs.length, probe.inFlightLimit));
+
+        final int initialCount = Math.min(probe.inFlightLimit, probe.inputs.length);
+        synchronized (probe) {
+            probe.nextIndex = initialCount;
+        }
+
+        for (int i = 0; i < initialCount; i++) {
+            submit(probe, i);
+        }
+    }
+
+    /**
+     * Stops starting new probes for the inputs of the given probe. Inputs being probed complete
+     * normally, inputs not started yet are reported as cancelled.
+     */
+    public boolean cancel(final long probeId) {
+        final Probe probe = probes.get(probeId);
+        if (probe == null) {
+            return false;
+        }
+
+        synchronized (probe) {
+            probe.cancelled = true;
+        }
+        return true;
+    }
+
+    private void submit(final Probe probe, final int index) {
+        sessionExecutor.submit(SessionExecutor.Lane.FFPROBE, () -> {
+            ProbeResult probeResult;
+            try {
+                probeResult = probe(probe.context, probe.inputs[index], probe.projection, probe.timeout);
+            } catch (final RuntimeException e) {
+                Log.w(LIBRARY_NAME, String.format("Probing %s failed.", probe.inputs[index]), e);
+                probeResult = new ProbeResult(0, null, e.getMessage());
+            }
+            complete(probe, index, probeResult);
+
+            // the lane thread of a completed input picks up the next one, which keeps the number of
+            // inputs in flight constant without blocking any thread
+            final int nextIndex;
+            synchronized (probe) {
+                nextIndex = probe.cancelled ? -1 : probe.nextIndex++;
+            }
+
+            if (nextIndex >= 0 && nextIndex < probe.inputs.length) {
+                submit(probe, nextIndex);
+            } else if (nextIndex < 0) {
+                cancelPending(probe);
+            }
+        });
+    }
+
+    /**
+     * Extracts the media information of a single input on the calling thread.
+     */
+    public ProbeResult probe(@Nullable final Context context, @NonNull final String input, @Nullable final MediaInformationProjection projection, final int timeout) {
+        final FileIdentity identity = mediaInformationCache.isEnabled() ? FileIdentity.of(context, input) : null;
+        final String key;
+        if (identity == null) {
+            key = null;
+        } else if (projection == null) {
+            key = MediaInformationCache.toDefaultKey(identity);
+        } else {
+            final String[] arguments = projection.toArguments(identity.getLocation());
+            key = MediaInformationCache.toKey(identity, arguments, arguments.length - 1);
+        }
+
+        if (key != null) {
+            final Map<String, Object> cachedMap = mediaInformationCache.get(key);
+            if (cachedMap != null) {
+                return new ProbeResult(0, project(projection, cachedMap), null);
+            }
+        }
+
+        final String probeInput;
+        if (input.startsWith(ContentResolver.SCHEME_CONTENT + ":")) {
+            if (context == null) {
+                return new ProbeResult(0, null, "Context is null.");
+            }
+            probeInput = FFmpegKitConfig.getSafParameterForRead(context, Uri.parse(input));
+        } else {
+            probeInput = input;
+        }
+
+        final String[] arguments = (projection != null) ? projection.toArguments(probeInput) : MediaInformationCache.toDefaultArguments(probeInput);
+        final MediaInformationSession session = MediaInformationSession.create(arguments);
+        FFmpegKitConfig.getMediaInformationExecute(session, timeout);
+
+        final MediaInformation mediaInformation = session.getMediaInformation();
+        if (mediaInformation == null) {
+            final String failStackTrace = session.getFailStackTrace();
+            return new ProbeResult(session.getSessionId(), null, failStackTrace != null ? failStackTrace : String.format("Failed to extract media information from %s.", input));
+        }
+
+        final Map<String, Object> mediaInformationMap = FFmpegKitFlutterPlugin.toMap(mediaInformation);
+        if (key != null && mediaInformation.getAllProperties() != null) {
+            mediaInformationCache.put(key, mediaInformation.getAllProperties(), mediaInformationMap);
+        }
+        return new ProbeResult(session.getSessionId(), project(projection, mediaInformationMap), null);
+    }
+
+    private static Map<String, Object> project(final MediaInformationProjection projection, final Map<String, Object> mediaInformationMap) {
+        return (projection != null) ? projection.apply(mediaInformationMap) : mediaInformationMap;
+    }
+
+    private void cancelPending(final Probe probe) {
+        while (true) {
+            final int index;
+            synchronized (probe) {
+                if (probe.nextIndex >= probe.inputs.length) {
+                    return;
+                }
+                index = probe.nextIndex++;
+            }
+            complete(probe, index, new ProbeResult(0, null, "Cancelled."));
+        }
+    }
+
+    private void complete(final Probe probe, final int index, final ProbeResult probeResult) {
+        final int remaining;
+        synchronized (probe) {
+            remaining = --probe.remaining;
+            if (remaining == 0) {
+                probes.remove(probe.id);
+            }
+        }
+
+        listener.onProbeResult(probe.id, index, probe.inputs[index], probeResult.sessionId, probeResult.mediaInformation, probeResult.errorMessage, remaining);
+    }
+
+    public static class Probe {
+        private final long id;
+        private final Context context;
+        private final String[] inputs;
+        private final int inFlightLimit;
+        private final MediaInformationProjection projection;
+        private final int timeout;
+        private int nextIndex;
+        private int remaining;
+        private boolean cancelled;
+
+        Probe(final long id, final Context context, final String[] inputs, final int inFlightLimit, final MediaInformationProjection projection, final int timeout) {
+            this.id = id;
+            this.context = context;
+            this.inputs = inputs;
+            this.inFlightLimit = inFlightLimit;
+            this.projection = projection;
+            this.timeout = timeout;
+            this.remaining = inputs.length;
+        }
+
+        public long getId() {
+            return id;
+        }
+    }
+
+    public static class ProbeResult {
+        private final long sessionId;
+        private final Map<String, Object> mediaInformation;
+        private final String errorMessage;
+
+        ProbeResult(final long sessionId, final Map<String, Object> mediaInformation, final String errorMessage) {
+            this.sessionId = sessionId;
+            this.mediaInformation = mediaInformation;
+            this.errorMessage = errorMessage;
+        }
+
+        public long getSessionId() {
+            return sessionId;
+        }
+
+        public Map<String, Object> getMediaInformation() {
+            return mediaInformation;
+        }
+
+        public String getErrorMessage() {
+            return errorMessage;
+        }
+    }
+
+}
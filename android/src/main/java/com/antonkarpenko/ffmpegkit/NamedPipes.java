@@ -0,0 +1,51 @@
+package com.antonkarpenko.ffmpegkit;
+
+import static com.antonkarpenko.ffmpegkit.FFmpegKitFlutterPlugin.LIBRARY_NAME;
+
+import android.system.ErrnoException;
+import android.system.Os;
+import android.system.OsConstants;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.FileDescriptor;
+
+/**
+ * Opening one end of a named pipe blocks until its other end is opened, and interrupting the
+ * blocked thread does not release it. Opening a pipe for reading and writing never blocks and
+ * provides both ends, so holding such a descriptor releases a thread blocked in opening the pipe
+ * and lets every later open return immediately.
+ */
+final class NamedPipes {
+
+    private NamedPipes() {
+    }
+
+    /**
+     * Opens both ends of the pipe. Returns null if the pipe could not be opened.
+     */
+    @Nullable
+    static FileDescriptor openBothEnds(@NonNull final String namedPipePath) {
+        try {
+            return Os.open(namedPipePath, OsConstants.O_RDWR, 0);
+        } catch (final ErrnoException e) {
+            Log.w(LIBRARY_NAME, String.format("Failed to open both ends of pipe %s.", namedPipePath), e);
+            return null;
+        }
+    }
+
+    static void close(@Nullable final FileDescriptor fileDescriptor) {
+        if (fileDescriptor == null) {
+            return;
+        }
+
+        try {
+            Os.close(fileDescriptor);
+        } catch (final ErrnoException e) {
+            Log.w(LIBRARY_NAME, "Failed to close pipe descriptor.", e);
+        }
+    }
+
+}
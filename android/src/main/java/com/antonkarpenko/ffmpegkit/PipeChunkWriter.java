@@ -0,0 +1,199 @@
+package com.antonkarpenko.ffmpegkit;
+
+import static com.antonkarpenko.ffmpegkit.FFmpegKitFlutterPlugin.LIBRARY_NAME;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import io.flutter.plugin.common.MethodChannel;
+
+/**
+ * Writes chunks received from Dart into an FFmpeg pipe on a dedicated thread.
+ *
+ * <p>At most capacity chunks are queued. The reply of a write that does not fit is held back, and
+ * its chunk kept out of the queue, until the writer thread has drained the queue below the
+ * capacity, so a Dart producer awaiting its writes is slowed down to the speed FFmpeg reads the
+ * pipe. A further write while one is held back is rejected.
+ */
+public class PipeChunkWriter implements Runnable {
+
+    public static final int DEFAULT_CAPACITY = 8;
+
+    private static final byte[] END_OF_STREAM = new byte[0];
+
+    private final String namedPipePath;
+    private final int capacity;
+    private final FFmpegKitFlutterMethodResultHandler resultHandler;
+    private final BlockingQueue<byte[]> chunks;
+
+    private byte[] heldChunk;
+    private MethodChannel.Result heldResult;
+    private boolean closed;
+    private MethodChannel.Result closeResult;
+    private IOException failure;
+    private long bytesWritten;
+    private Thread runner;
+    private boolean cancelled;
+    private boolean pipeOpened;
+    private FileDescriptor unblockDescriptor;
+
+    public PipeChunkWriter(@NonNull final String namedPipePath, final int capacity, @NonNull final FFmpegKitFlutterMethodResultHandler resultHandler) {
+        this.namedPipePath = namedPipePath;
+        this.capacity = Math.max(1, capacity);
+        this.resultHandler = resultHandler;
+
+        // one more slot for the end of stream marker
+        this.chunks = new LinkedBlockingQueue<>(this.capacity + 1);
+    }
+
+    public synchronized void write(@NonNull final byte[] chunk, @NonNull final MethodChannel.Result result) {
+        if (failure != null) {
+            resultHandler.errorAsync(result, "WRITE_TO_PIPE_FAILED", failure.getMessage());
+        } else if (closed) {
+            resultHandler.errorAsync(result, "PIPE_CLOSED", "Pipe writer is already closed.");
+        } else if (heldResult != null) {
+            resultHandler.errorAsync(result, "PIPE_WRITER_FULL", "Pipe writer queue is full, await the previous write.");
+        } else if (chunk.length == 0 || chunks.size() < capacity) {
+            if (chunk.length > 0) {
+                chunks.add(chunk);
+            }
+            resultHandler.successAsync(result, null);
+        } else {
+            heldChunk = chunk;
+            heldResult = result;
+        }
+    }
+
+    public synchronized void close(@NonNull final MethodChannel.Result result) {
+        if (closed) {
+            resultHandler.errorAsync(result, "PIPE_CLOSED", "Pipe writer is already closed.");
+        } else if (failure != null) {
+            closed = true;
+            resultHandler.errorAsync(result, "WRITE_TO_PIPE_FAILED", failure.getMessage());
+        } else {
+            closed = true;
+            closeResult = result;
+
+            // a held back chunk is queued before the end of stream by the writer thread
+            if (heldChunk == null) {
+                chunks.add(END_OF_STREAM);
+            }
+        }
+    }
+
+    /**
+     * Fails pending and further writes and stops the writer thread, also when it is still waiting
+     * for FFmpeg to open the pipe.
+     */
+    public synchronized void cancel() {
+        fail(new IOException("Pipe writer cancelled."));
+        cancelled = true;
+        closed = true;
+        chunks.offer(END_OF_STREAM);
+
+        if (runner != null) {
+            if (!pipeOpened && unblockDescriptor == null) {
+                unblockDescriptor = NamedPipes.openBothEnds(namedPipePath);
+            }
+
+            // interrupting closes the channel, which releases a write blocked on a full pipe
+            runner.interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        synchronized (this) {
+
+            // a writer cancelled before it started never opens the pipe, nothing would release it
+            if (cancelled) {
+                complete();
+                return;
+            }
+            runner = Thread.currentThread();
+        }
+
+        Log.d(LIBRARY_NAME, String.format("Starting pipe writer for %s.", namedPipePath));
+
+        // opening a pipe for writing blocks until FFmpeg opens it for reading
+        try (final FileChannel pipeChannel = new FileOutputStream(namedPipePath).getChannel()) {
+            synchronized (this) {
+                pipeOpened = true;
+            }
+
+            while (true) {
+                final byte[] chunk = chunks.take();
+                if (chunk == END_OF_STREAM) {
+                    break;
+                }
+
+                final ByteBuffer buffer = ByteBuffer.wrap(chunk);
+                while (buffer.hasRemaining()) {
+                    pipeChannel.write(buffer);
+                }
+
+                synchronized (this) {
+                    bytesWritten += chunk.length;
+                    if (heldChunk != null && chunks.size() < capacity) {
+                        chunks.add(heldChunk);
+                        resultHandler.successAsync(heldResult, null);
+                        heldChunk = null;
+                        heldResult = null;
+
+                        if (closed) {
+                            chunks.add(END_OF_STREAM);
+                        }
+                    }
+                }
+            }
+        } catch (final IOException e) {
+            Log.e(LIBRARY_NAME, String.format("Writing to pipe %s failed with error.", namedPipePath), e);
+            fail(e);
+        } catch (final InterruptedException e) {
+            Log.i(LIBRARY_NAME, String.format("Pipe writer for %s interrupted.", namedPipePath));
+            fail(new IOException("Pipe writer interrupted."));
+        }
+
+        synchronized (this) {
+            runner = null;
+            NamedPipes.close(unblockDescriptor);
+            unblockDescriptor = null;
+            complete();
+        }
+    }
+
+    private synchronized void complete() {
+        if (closeResult != null) {
+            if (failure == null) {
+                resultHandler.successAsync(closeResult, bytesWritten);
+            } else {
+                resultHandler.errorAsync(closeResult, "WRITE_TO_PIPE_FAILED", failure.getMessage());
+            }
+        }
+
+        Log.d(LIBRARY_NAME, String.format("Pipe writer for %s completed after %d bytes.", namedPipePath, bytesWritten));
+    }
+
+    private synchronized void fail(final IOException e) {
+        if (failure == null) {
+            failure = e;
+        }
+        chunks.clear();
+
+        if (heldResult != null) {
+            resultHandler.errorAsync(heldResult, "WRITE_TO_PIPE_FAILED", failure.getMessage());
+            heldChunk = null;
+            heldResult = null;
+        }
+    }
+
+}
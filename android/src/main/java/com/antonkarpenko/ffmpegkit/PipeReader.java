@@ -0,0 +1,138 @@
+package com.antonkarpenko.ffmpegkit;
+
+import static com.antonkarpenko.ffmpegkit.FFmpegKitFlutterPlugin.LIBRARY_NAME;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Reads FFmpeg output from a pipe on a dedicated thread and hands it over chunk by chunk.
+ *
+ * <p>Every chunk consumes one credit. Once the credits granted by Dart are used up the reader
+ * stops reading, the pipe fills up and FFmpeg blocks on its next write until more credits arrive.
+ */
+public class PipeReader implements Runnable {
+
+    public interface ChunkListener {
+        void onChunk(@NonNull PipeReader pipeReader, @NonNull byte[] chunk);
+
+        void onEnd(@NonNull PipeReader pipeReader, long bytesRead, @Nullable String errorMessage);
+    }
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    public static final int DEFAULT_CREDITS = 4;
+
+    private final String namedPipePath;
+    private final ByteBuffer buffer;
+    private final Semaphore credits;
+    private final ChunkListener listener;
+    private volatile boolean cancelled;
+    private volatile String abortMessage;
+    private Thread runner;
+    private boolean pipeOpened;
+    private FileDescriptor unblockDescriptor;
+
+    public PipeReader(@NonNull final String namedPipePath, final int bufferSize, final int credits, @NonNull final ChunkListener listener) {
+        this.namedPipePath = namedPipePath;
+        this.buffer = ByteBuffer.allocate(Math.max(1, bufferSize));
+        this.credits = new Semaphore(Math.max(1, credits));
+        this.listener = listener;
+    }
+
+    public String getNamedPipePath() {
+        return namedPipePath;
+    }
+
+    public void grant(final int count) {
+        if (count > 0) {
+            credits.release(count);
+        }
+    }
+
+    public synchronized void cancel() {
+        cancelled = true;
+
+        if (runner != null) {
+
+            // a reader still opening the pipe is released by opening its other end
+            if (!pipeOpened && unblockDescriptor == null) {
+                unblockDescriptor = NamedPipes.openBothEnds(namedPipePath);
+            }
+
+            // interrupting releases a reader waiting for credits or blocked on an empty pipe
+            runner.interrupt();
+        }
+    }
+
+    /**
+     * Cancels the reader and reports errorMessage when it ends.
+     */
+    public void abort(@NonNull final String errorMessage) {
+        abortMessage = errorMessage;
+        cancel();
+    }
+
+    @Override
+    public void run() {
+        synchronized (this) {
+            if (cancelled) {
+                listener.onEnd(this, 0, abortMessage);
+                return;
+            }
+            runner = Thread.currentThread();
+        }
+
+        Log.d(LIBRARY_NAME, String.format("Starting pipe reader for %s.", namedPipePath));
+
+        long bytesRead = 0;
+        String errorMessage = null;
+
+        // opening a pipe for reading blocks until FFmpeg opens it for writing
+        try (final FileChannel pipeChannel = new FileInputStream(namedPipePath).getChannel()) {
+            synchronized (this) {
+                pipeOpened = true;
+            }
+
+            while (!cancelled) {
+                credits.acquire();
+
+                buffer.clear();
+                final int count = pipeChannel.read(buffer);
+                if (count < 0) {
+                    break;
+                }
+
+                // the read buffer is reused, only the bytes handed over to the codec are copied
+                bytesRead += count;
+                listener.onChunk(this, Arrays.copyOf(buffer.array(), count));
+            }
+        } catch (final ClosedByInterruptException | InterruptedException e) {
+            Log.d(LIBRARY_NAME, String.format("Pipe reader for %s cancelled after %d bytes.", namedPipePath, bytesRead));
+        } catch (final IOException e) {
+            Log.e(LIBRARY_NAME, String.format("Reading from pipe %s failed with error.", namedPipePath), e);
+            errorMessage = e.getMessage();
+        } finally {
+            synchronized (this) {
+                runner = null;
+                NamedPipes.close(unblockDescriptor);
+                unblockDescriptor = null;
+            }
+        }
+
+        Log.d(LIBRARY_NAME, String.format("Pipe reader for %s completed after %d bytes.", namedPipePath, bytesRead));
+
+        listener.onEnd(this, bytesRead, (abortMessage != null) ? abortMessage : errorMessage);
+    }
+
+}
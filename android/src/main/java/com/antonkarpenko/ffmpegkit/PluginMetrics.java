@@ -0,0 +1,238 @@
+package com.antonkarpenko.ffmpegkit;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.flutter.plugin.common.MethodChannel;
+
+/**
+ * Counters and latency histograms of the plugin, cheap enough to stay enabled in production.
+ * Recording never locks: counts are kept in LongAdders, which spread contended updates over
+ * separate cells, and maps only lock when a method or event type is seen for the first time.
+ */
+public class PluginMetrics {
+
+    public static final String KEY_LANES = "lanes";
+    public static final String KEY_QUEUE_DEPTH = "queueDepth";
+    public static final String KEY_MAX_QUEUE_DEPTH = "maxQueueDepth";
+    public static final String KEY_ACTIVE_COUNT = "activeCount";
+    public static final String KEY_CONCURRENCY_LIMIT = "concurrencyLimit";
+    public static final String KEY_WAIT_TIME = "waitTime";
+    public static final String KEY_RUN_TIME = "runTime";
+    public static final String KEY_EVENTS_EMITTED = "eventsEmitted";
+    public static final String KEY_EVENTS_DROPPED = "eventsDropped";
+    public static final String KEY_EVENT_DELIVERY_LATENCY = "eventDeliveryLatency";
+    public static final String KEY_REPLY_DELIVERY_LATENCY = "replyDeliveryLatency";
+    public static final String KEY_METHOD_CALLS = "methodCalls";
+    public static final String KEY_ACTIVE_BATCH_COUNT = "activeBatchCount";
+    public static final String KEY_COUNT = "count";
+    public static final String KEY_SUM = "sum";
+    public static final String KEY_MAX = "max";
+    public static final String KEY_BUCKETS = "buckets";
+
+    private final Map<String, LongAdder> eventsEmitted;
+    private final Map<String, LongAdder> eventsDropped;
+    private final Map<String, Histogram> methodCalls;
+    private final Histogram eventDeliveryLatency;
+    private final Histogram replyDeliveryLatency;
+
+    public PluginMetrics() {
+        this.eventsEmitted = new ConcurrentHashMap<>();
+        this.eventsDropped = new ConcurrentHashMap<>();
+        this.methodCalls = new ConcurrentHashMap<>();
+        this.eventDeliveryLatency = new Histogram();
+        this.replyDeliveryLatency = new Histogram();
+    }
+
+    public void onEventEmitted(@NonNull final String eventType) {
+        counter(eventsEmitted, eventType).increment();
+    }
+
+    public void onEventDropped(@NonNull final String eventType) {
+        counter(eventsDropped, eventType).increment();
+    }
+
+    /**
+     * Records the time between posting an event to the main looper and delivering it.
+     */
+    public void onEventDelivered(final long postTimeNanos) {
+        eventDeliveryLatency.record(System.nanoTime() - postTimeNanos);
+    }
+
+    /**
+     * Records the time between posting a method call reply to the main looper and delivering it.
+     */
+    public void onReplyDelivered(final long postTimeNanos) {
+        replyDeliveryLatency.record(System.nanoTime() - postTimeNanos);
+    }
+
+    /**
+     * Wraps result, so the time from receiving the method call to replying to it is recorded under
+     * the method name.
+     */
+    public MethodChannel.Result timeMethodCall(@NonNull final String method, @NonNull final MethodChannel.Result result) {
+        Histogram histogram = methodCalls.get(method);
+        if (histogram == null) {
+            histogram = methodCalls.computeIfAbsent(method, key -> new Histogram());
+        }
+        return new TimedResult(result, histogram, System.nanoTime());
+    }
+
+    public void reset() {
+        for (final LongAdder counter : eventsEmitted.values()) {
+            counter.reset();
+        }
+        for (final LongAdder counter : eventsDropped.values()) {
+            counter.reset();
+        }
+        for (final Histogram histogram : methodCalls.values()) {
+            histogram.reset();
+        }
+        eventDeliveryLatency.reset();
+        replyDeliveryLatency.reset();
+    }
+
+    /**
+     * Returns a snapshot of all metrics, including the lanes of sessionExecutor. Durations are in
+     * microseconds.
+     */
+    public Map<String, Object> toMap(@NonNull final SessionExecutor sessionExecutor, final int activeBatchCount) {
+        final Map<String, Object> lanesMap = new HashMap<>();
+        for (final SessionExecutor.Lane lane : SessionExecutor.Lane.values()) {
+            final Map<String, Object> laneMap = new HashMap<>();
+            laneMap.put(KEY_QUEUE_DEPTH, sessionExecutor.getQueueSize(lane));
+            laneMap.put(KEY_MAX_QUEUE_DEPTH, sessionExecutor.getMaxQueueSize(lane));
+            laneMap.put(KEY_ACTIVE_COUNT, sessionExecutor.getActiveCount(lane));
+            laneMap.put(KEY_CONCURRENCY_LIMIT, sessionExecutor.getConcurrencyLimit(lane));
+            laneMap.put(KEY_WAIT_TIME, sessionExecutor.getWaitTimeHistogram(lane).toMap());
+            laneMap.put(KEY_RUN_TIME, sessionExecutor.getRunTimeHistogram(lane).toMap());
+            lanesMap.put(lane.name().toLowerCase(Locale.ROOT), laneMap);
+        }
+
+        final Map<String, Object> methodCallsMap = new HashMap<>();
+        for (final Map.Entry<String, Histogram> entry : methodCalls.entrySet()) {
+            methodCallsMap.put(entry.getKey(), entry.getValue().toMap());
+        }
+
+        final Map<String, Object> metricsMap = new HashMap<>();
+        metricsMap.put(KEY_LANES, lanesMap);
+        metricsMap.put(KEY_EVENTS_EMITTED, toCountMap(eventsEmitted));
+        metricsMap.put(KEY_EVENTS_DROPPED, toCountMap(eventsDropped));
+        metricsMap.put(KEY_EVENT_DELIVERY_LATENCY, eventDeliveryLatency.toMap());
+        metricsMap.put(KEY_REPLY_DELIVERY_LATENCY, replyDeliveryLatency.toMap());
+        metricsMap.put(KEY_METHOD_CALLS, methodCallsMap);
+        metricsMap.put(KEY_ACTIVE_BATCH_COUNT, activeBatchCount);
+        return metricsMap;
+    }
+
+    private static LongAdder counter(final Map<String, LongAdder> counters, final String name) {
+        final LongAdder counter = counters.get(name);
+        if (counter != null) {
+            return counter;
+        }
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    private static Map<String, Object> toCountMap(final Map<String, LongAdder> counters) {
+        final Map<String, Object> countMap = new HashMap<>();
+        for (final Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            countMap.put(entry.getKey(), entry.getValue().sum());
+        }
+        return countMap;
+    }
+
+    /**
+     * Latency histogram with power of two buckets in microseconds. Bucket i counts durations up to
+     * 2^i microseconds, the last bucket everything longer.
+     */
+    public static class Histogram {
+        private static final int BUCKET_COUNT = 32;
+
+        private final LongAdder[] buckets;
+        private final LongAdder count;
+        private final LongAdder sum;
+        private final LongAccumulator max;
+
+        public Histogram() {
+            this.buckets = new LongAdder[BUCKET_COUNT];
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets[i] = new LongAdder();
+            }
+            this.count = new LongAdder();
+            this.sum = new LongAdder();
+            this.max = new LongAccumulator(Math::max, 0);
+        }
+
+        public void record(final long durationNanos) {
+            final long micros = Math.max(0, durationNanos / 1000);
+            final int bucket = (micros <= 1) ? 0 : Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(micros - 1));
+
+            buckets[bucket].increment();
+            count.increment();
+            sum.add(micros);
+            max.accumulate(micros);
+        }
+
+        public void reset() {
+            for (final LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+            count.reset();
+            sum.reset();
+            max.reset();
+        }
+
+        public Map<String, Object> toMap() {
+            final List<Long> bucketList = new ArrayList<>(BUCKET_COUNT);
+            for (final LongAdder bucket : buckets) {
+                bucketList.add(bucket.sum());
+            }
+
+            final Map<String, Object> histogramMap = new HashMap<>();
+            histogramMap.put(KEY_COUNT, count.sum());
+            histogramMap.put(KEY_SUM, sum.sum());
+            histogramMap.put(KEY_MAX, max.get());
+            histogramMap.put(KEY_BUCKETS, bucketList);
+            return histogramMap;
+        }
+    }
+
+    private static class TimedResult implements MethodChannel.Result {
+        private final MethodChannel.Result result;
+        private final Histogram histogram;
+        private final long startTimeNanos;
+
+        TimedResult(final MethodChannel.Result result, final Histogram histogram, final long startTimeNanos) {
+            this.result = result;
+            this.histogram = histogram;
+            this.startTimeNanos = startTimeNanos;
+        }
+
+        @Override
+        public void success(final Object object) {
+            histogram.record(System.nanoTime() - startTimeNanos);
+            result.success(object);
+        }
+
+        @Override
+        public void error(@NonNull final String errorCode, final String errorMessage, final Object errorDetails) {
+            histogram.record(System.nanoTime() - startTimeNanos);
+            result.error(errorCode, errorMessage, errorDetails);
+        }
+
+        @Override
+        public void notImplemented() {
+            histogram.record(System.nanoTime() - startTimeNanos);
+            result.notImplemented();
+        }
+    }
+
+}
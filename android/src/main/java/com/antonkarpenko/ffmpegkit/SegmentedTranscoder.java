@@ -0,0 +1,486 @@
+package com.antonkarpenko.ffmpegkit;
+
+import static com.antonkarpenko.ffmpegkit.FFmpegKitFlutterPlugin.LIBRARY_NAME;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.antonkarpenko.ffmpegkit.FFmpegKit;
+import com.antonkarpenko.ffmpegkit.FFmpegKitConfig;
+import com.antonkarpenko.ffmpegkit.FFmpegSession;
+import com.antonkarpenko.ffmpegkit.FFprobeSession;
+import com.antonkarpenko.ffmpegkit.LogRedirectionStrategy;
+import com.antonkarpenko.ffmpegkit.ReturnCode;
+import com.antonkarpenko.ffmpegkit.Statistics;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transcodes an input in keyframe aligned segments which run in parallel on the FFmpeg lane, then
+ * joins the transcoded segments with the concat demuxer without re-encoding.
+ *
+ * <p>The concat session is created first and stands for the whole transcode: statistics of the
+ * segment sessions are summed up and reported under its id, and its completion is the completion
+ * of the transcode. When a segment fails or the transcode is cancelled, the segment files are
+ * deleted before the concat session runs, so it fails as well.
+ */
+public class SegmentedTranscoder {
+
+    public interface StatisticsListener {
+        void onStatistics(@NonNull Statistics statistics);
+    }
+
+    /**
+     * Segments shorter than this are merged into their neighbour, the per segment overhead of
+     * starting a session and flushing an encoder is not worth it below this length.
+     */
+    private static final BigDecimal MINIMUM_SEGMENT_DURATION = new BigDecimal(2);
+
+    private static final String SEGMENT_FORMAT = "segment-%03d.mkv";
+    private static final String SEGMENT_LIST_FILE = "segments.txt";
+
+    private final SessionExecutor sessionExecutor;
+    private final StatisticsListener listener;
+    private final AtomicLong transcodeCounter;
+    private final Map<Long, Transcode> transcodes;
+    private final Map<Long, Segment> segments;
+    private final Set<Long> probeSessionIds;
+
+    public SegmentedTranscoder(@NonNull final SessionExecutor sessionExecutor, @NonNull final StatisticsListener listener) {
+        this.sessionExecutor = sessionExecutor;
+        this.listener = listener;
+        this.transcodeCounter = new AtomicLong(1);
+        this.transcodes = new ConcurrentHashMap<>();
+        this.segments = new ConcurrentHashMap<>();
+        this.probeSessionIds = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Creates the concat session which represents the transcode. Nothing is executed until
+     * {@link #start(FFmpegSession)} is called.
+     *
+     * @param workDirectory   parent of the directory holding the segment files
+     * @param encodeArguments output options applied to every segment, e.g. codec options
+     * @param segmentCount    number of segments to aim for
+     */
+    public FFmpegSession create(@NonNull final File workDirectory, @NonNull final String input, @NonNull final String output, @NonNull final List<String> encodeArguments, final int segmentCount) {
+        final File directory = new File(workDirectory, "transcode-" + transcodeCounter.getAndIncrement() + "-" + System.currentTimeMillis());
+        final File segmentList = new File(directory, SEGMENT_LIST_FILE);
+
+        final Transcode transcode = new Transcode(directory, input, encodeArguments, Math.max(1, segmentCount));
+        transcode.session = FFmpegSession.create(new String[]{"-y", "-f", "concat", "-safe", "0", "-i", segmentList.getAbsolutePath(), "-c", "copy", output}, session -> onComplete(transcode), null, null, LogRedirectionStrategy.NEVER_PRINT_LOGS);
+        transcodes.put(transcode.session.getSessionId(), transcode);
+
+        return transcode.session;
+    }
+
+    public void start(@NonNull final FFmpegSession session) {
+        final Transcode transcode = transcodes.get(session.getSessionId());
+        if (transcode != null) {
+            sessionExecutor.submit(SessionExecutor.Lane.FFPROBE, () -> startSegments(transcode));
+        }
+    }
+
+    /**
+     * Cancels the segments of a transcode. Returns false if sessionId is not the session of a
+     * transcode or its segments have already completed.
+     */
+    public boolean cancel(final long sessionId) {
+        final Transcode transcode = transcodes.get(sessionId);
+        if (transcode == null) {
+            return false;
+        }
+
+        final List<Segment> runningSegments;
+        synchronized (transcode) {
+            if (transcode.concatStarted) {
+                return false;
+            }
+            transcode.cancelled = true;
+            runningSegments = new ArrayList<>(transcode.segments);
+        }
+
+        cancelSegments(runningSegments);
+        return true;
+    }
+
+    /**
+     * Cancels all transcodes, e.g. when the plugin is detached. Queued concat sessions are removed
+     * from the FFmpeg lane and no concat session is started afterwards, the segment files are
+     * deleted as soon as the running segments complete. A concat session which is already running
+     * completes normally.
+     */
+    public void cancelAll() {
+        for (final Transcode transcode : transcodes.values()) {
+            final List<Segment> runningSegments;
+            synchronized (transcode) {
+                transcode.cancelled = true;
+                transcode.released = true;
+                runningSegments = transcode.concatStarted ? new ArrayList<>() : new ArrayList<>(transcode.segments);
+            }
+
+            cancelSegments(runningSegments);
+
+            final Future<?> future = transcode.session.getFuture();
+            if (future != null && future.cancel(false)) {
+                onComplete(transcode);
+            }
+        }
+    }
+
+    /**
+     * Consumes the statistics of segment sessions and reports their sum under the session of the
+     * transcode. Returns false for statistics of any other session.
+     */
+    public boolean onStatistics(@NonNull final Statistics statistics) {
+        final Segment segment = segments.get(statistics.getSessionId());
+        if (segment == null) {
+            return false;
+        }
+
+        final Transcode transcode = segment.transcode;
+        final Statistics aggregatedStatistics;
+        synchronized (transcode) {
+            segment.statistics = statistics;
+
+            int videoFrameNumber = 0;
+            float videoFps = 0;
+            float videoQuality = 0;
+            long size = 0;
+            double time = 0;
+            double speed = 0;
+            int count = 0;
+            for (final Segment transcodeSegment : transcode.segments) {
+                final Statistics segmentStatistics = transcodeSegment.statistics;
+                if (segmentStatistics != null) {
+                    videoFrameNumber += segmentStatistics.getVideoFrameNumber();
+                    videoFps += segmentStatistics.getVideoFps();
+                    videoQuality += segmentStatistics.getVideoQuality();
+                    size += segmentStatistics.getSize();
+                    time += segmentStatistics.getTime();
+                    speed += segmentStatistics.getSpeed();
+                    count++;
+                }
+            }
+
+            // frames, size and time add up over segments, segments running in parallel add up their fps and speed
+            final double bitrate = (time > 0) ? size * 8 / time : 0;
+            aggregatedStatistics = new Statistics(transcode.session.getSessionId(), videoFrameNumber, videoFps, videoQuality / Math.max(1, count), size, time, bitrate, speed);
+        }
+
+        listener.onStatistics(aggregatedStatistics);
+        return true;
+    }
+
+    /**
+     * Returns true if sessionId belongs to a segment session of a running transcode.
+     */
+    public boolean isSegment(final long sessionId) {
+        return segments.containsKey(sessionId);
+    }
+
+    /**
+     * Returns true if sessionId belongs to the keyframe probe of a transcode which is being planned.
+     */
+    public boolean isProbe(final long sessionId) {
+        return probeSessionIds.contains(sessionId);
+    }
+
+    /**
+     * Returns true if sessionId belongs to a session created internally by a transcode, i.e. a
+     * segment or a keyframe probe.
+     */
+    public boolean isInternal(final long sessionId) {
+        return isSegment(sessionId) || isProbe(sessionId);
+    }
+
+    /**
+     * Returns the log of a segment session as a log of its transcode, other logs are returned
+     * unchanged.
+     */
+    @NonNull
+    public com.antonkarpenko.ffmpegkit.Log toTranscodeLog(@NonNull final com.antonkarpenko.ffmpegkit.Log log) {
+        final Segment segment = segments.get(log.getSessionId());
+        if (segment == null) {
+            return log;
+        }
+        return new com.antonkarpenko.ffmpegkit.Log(segment.transcode.session.getSessionId(), log.getLevel(), log.getMessage());
+    }
+
+    private void startSegments(final Transcode transcode) {
+        final List<String[]> segmentBounds = planSegments(transcode);
+
+        if (!transcode.directory.isDirectory() && !transcode.directory.mkdirs()) {
+            Log.w(LIBRARY_NAME, String.format("Failed to create segment directory %s.", transcode.directory));
+        }
+
+        synchronized (transcode) {
+            for (int i = 0; i < segmentBounds.size(); i++) {
+                final String[] bounds = segmentBounds.get(i);
+                final Segment segment = new Segment(transcode, new File(transcode.directory, String.format(SEGMENT_FORMAT, i)));
+
+                final List<String> arguments = new ArrayList<>(Arrays.asList("-y", "-ss", bounds[0], "-i", transcode.input));
+                if (bounds[1] != null) {
+                    arguments.add("-t");
+                    arguments.add(new BigDecimal(bounds[1]).subtract(new BigDecimal(bounds[0])).toPlainString());
+                }
+                arguments.addAll(transcode.encodeArguments);
+                arguments.add(segment.file.getAbsolutePath());
+
+                segment.session = FFmpegSession.create(arguments.toArray(new String[0]), session -> onSegmentComplete(segment), null, null, LogRedirectionStrategy.NEVER_PRINT_LOGS);
+                transcode.segments.add(segment);
+                segments.put(segment.session.getSessionId(), segment);
+            }
+            transcode.remaining = transcode.segments.size();
+
+            if (transcode.cancelled) {
+                transcode.remaining = 0;
+            }
+        }
+
+        Log.d(LIBRARY_NAME, String.format("Starting transcode %d of %s in %d segments.", transcode.session.getSessionId(), transcode.input, transcode.segments.size()));
+
+        if (transcode.remaining == 0) {
+            startConcat(transcode);
+            return;
+        }
+
+        for (final Segment segment : transcode.segments) {
+            final boolean submitted;
+
+            // submitted under the lock, so a cancel either stops the segment here or finds its future
+            synchronized (transcode) {
+                submitted = !transcode.cancelled && !transcode.failed && execute(segment.session);
+            }
+
+            if (!submitted) {
+                onSegmentComplete(segment);
+            }
+        }
+    }
+
+    /**
+     * Splits the input at the first keyframe after every nth part of its duration. Returns start and
+     * end times as ffprobe printed them, the end of the last segment is null. The whole input is a
+     * single segment when its keyframes can not be read.
+     */
+    @SuppressWarnings("unchecked")
+    private List<String[]> planSegments(final Transcode transcode) {
+        final List<String[]> segmentBounds = new ArrayList<>();
+        final List<String> starts = new ArrayList<>();
+        starts.add("0");
+
+        try {
+            final FFprobeSession probeSession = FFprobeSession.create(new String[]{"-v", "error", "-select_streams", "v:0", "-show_entries", "packet=pts_time,flags:format=duration", "-print_format", "json", "-i", transcode.input}, null, null, LogRedirectionStrategy.NEVER_PRINT_LOGS);
+            final String probeOutput;
+
+            // the probe prints an entry for every packet, it is kept away from Dart like the segments
+            probeSessionIds.add(probeSession.getSessionId());
+            try {
+                FFmpegKitConfig.ffprobeExecute(probeSession);
+                probeOutput = probeSession.getOutput();
+            } finally {
+                probeSessionIds.remove(probeSession.getSessionId());
+            }
+
+            final Map<String, Object> probe = JsonMapReader.toMap(probeOutput);
+            final Map<String, Object> format = (Map<String, Object>) probe.get("format");
+            final List<Object> packets = (List<Object>) probe.get("packets");
+            if (format == null || format.get("duration") == null || packets == null) {
+                throw new IOException("Keyframes or duration not found.");
+            }
+
+            final BigDecimal duration = new BigDecimal(String.valueOf(format.get("duration")));
+            final BigDecimal segmentDuration = duration.divide(new BigDecimal(transcode.segmentCount), 6, RoundingMode.HALF_UP);
+
+            BigDecimal lastStart = BigDecimal.ZERO;
+            BigDecimal target = segmentDuration;
+            for (final Object packetObject : packets) {
+                final Map<String, Object> packet = (Map<String, Object>) packetObject;
+                final Object flags = packet.get("flags");
+                final Object ptsTime = packet.get("pts_time");
+                if (!(flags instanceof String) || !((String) flags).startsWith("K") || ptsTime == null || starts.size() >= transcode.segmentCount) {
+                    continue;
+                }
+
+                final BigDecimal keyframeTime = new BigDecimal(String.valueOf(ptsTime));
+                if (keyframeTime.compareTo(target) >= 0 && keyframeTime.subtract(lastStart).compareTo(MINIMUM_SEGMENT_DURATION) >= 0 && duration.subtract(keyframeTime).compareTo(MINIMUM_SEGMENT_DURATION) >= 0) {
+                    starts.add(String.valueOf(ptsTime));
+                    lastStart = keyframeTime;
+                    target = segmentDuration.multiply(new BigDecimal(starts.size()));
+                }
+            }
+        } catch (final IOException | RuntimeException e) {
+            Log.w(LIBRARY_NAME, String.format("Failed to find keyframes of %s, transcoding it as a single segment.", transcode.input), e);
+            starts.clear();
+            starts.add("0");
+        }
+
+        for (int i = 0; i < starts.size(); i++) {
+            segmentBounds.add(new String[]{starts.get(i), (i + 1 < starts.size()) ? starts.get(i + 1) : null});
+        }
+        return segmentBounds;
+    }
+
+    private void onSegmentComplete(final Segment segment) {
+        final Transcode transcode = segment.transcode;
+        final ReturnCode returnCode = segment.session.getReturnCode();
+
+        final List<Segment> runningSegments = new ArrayList<>();
+        final boolean concat;
+        synchronized (transcode) {
+            segment.completed = true;
+            transcode.remaining--;
+
+            if (!ReturnCode.isSuccess(returnCode) && !transcode.failed) {
+                if (!transcode.cancelled) {
+                    Log.w(LIBRARY_NAME, String.format("Segment session %d of transcode %d failed with return code %s.", segment.session.getSessionId(), transcode.session.getSessionId(), returnCode));
+                }
+                transcode.failed = true;
+                for (final Segment transcodeSegment : transcode.segments) {
+                    if (!transcodeSegment.completed) {
+                        runningSegments.add(transcodeSegment);
+                    }
+                }
+            }
+
+            concat = (transcode.remaining == 0);
+        }
+
+        cancelSegments(runningSegments);
+
+        if (concat) {
+            startConcat(transcode);
+        }
+    }
+
+    /**
+     * Cancels running segments and removes queued segments from the FFmpeg lane. FFmpegKit.cancel
+     * has no effect on a session which has not started yet.
+     */
+    private void cancelSegments(final List<Segment> segmentsToCancel) {
+        for (final Segment segment : segmentsToCancel) {
+            final Future<?> future = segment.session.getFuture();
+            if (future != null && future.cancel(false)) {
+
+                // a segment removed from the queue never runs, so it never completes on its own
+                onSegmentComplete(segment);
+            } else {
+                FFmpegKit.cancel(segment.session.getSessionId());
+            }
+        }
+    }
+
+    private void startConcat(final Transcode transcode) {
+        final boolean succeeded;
+        synchronized (transcode) {
+            transcode.concatStarted = true;
+            succeeded = !transcode.failed && !transcode.cancelled;
+        }
+
+        final StringBuilder segmentList = new StringBuilder();
+        for (final Segment segment : transcode.segments) {
+            if (!succeeded) {
+                segment.file.delete();
+            }
+            segmentList.append("file '").append(segment.file.getAbsolutePath().replace("'", "'\\''")).append("'\n");
+        }
+
+        try (final OutputStream outputStream = new FileOutputStream(new File(transcode.directory, SEGMENT_LIST_FILE))) {
+            outputStream.write(segmentList.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (final IOException e) {
+            Log.w(LIBRARY_NAME, String.format("Failed to write segment list of transcode %d.", transcode.session.getSessionId()), e);
+        }
+
+        final boolean released;
+        synchronized (transcode) {
+            released = transcode.released;
+        }
+
+        // the concat session of a released transcode never runs, so its files are deleted here
+        if (released || !execute(transcode.session)) {
+            onComplete(transcode);
+        }
+    }
+
+    /**
+     * Submits a session to the FFmpeg lane. Returns false if the lane rejected it, i.e. the plugin
+     * was detached.
+     */
+    private boolean execute(final FFmpegSession session) {
+        try {
+            FFmpegKitConfig.asyncFFmpegExecute(session, sessionExecutor.getExecutorService(SessionExecutor.Lane.FFMPEG));
+            return true;
+        } catch (final RejectedExecutionException e) {
+            Log.w(LIBRARY_NAME, String.format("Session %d of a segmented transcode was rejected.", session.getSessionId()), e);
+            return false;
+        }
+    }
+
+    private void onComplete(final Transcode transcode) {
+        transcodes.remove(transcode.session.getSessionId());
+        for (final Segment segment : transcode.segments) {
+            segments.remove(segment.session.getSessionId());
+        }
+
+        final File[] files = transcode.directory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                file.delete();
+            }
+        }
+        transcode.directory.delete();
+    }
+
+    private static class Transcode {
+        private final File directory;
+        private final String input;
+        private final List<String> encodeArguments;
+        private final int segmentCount;
+        private final List<Segment> segments;
+        private FFmpegSession session;
+        private int remaining;
+        private boolean failed;
+        private boolean cancelled;
+        private boolean released;
+        private boolean concatStarted;
+
+        Transcode(final File directory, final String input, final List<String> encodeArguments, final int segmentCount) {
+            this.directory = directory;
+            this.input = input;
+            this.encodeArguments = encodeArguments;
+            this.segmentCount = segmentCount;
+            this.segments = new ArrayList<>();
+        }
+    }
+
+    private static class Segment {
+        private final Transcode transcode;
+        private final File file;
+        private FFmpegSession session;
+        private Statistics statistics;
+        private boolean completed;
+
+        Segment(final Transcode transcode, final File file) {
+            this.transcode = transcode;
+            this.file = file;
+        }
+    }
+
+}
@@ -0,0 +1,393 @@
+package com.antonkarpenko.ffmpegkit;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Runs plugin tasks on separate lanes, so that quick FFprobe/MediaInformation sessions and pipe
+ * copies never wait behind long FFmpeg executions. Each lane has its own queue and its own
+ * concurrency limit, which can be changed at runtime.
+ *
+ * <p>The lanes are shared by the plugin instances of all Flutter engines in the process. Every
+ * instance holds a reference from {@link #acquire()} to {@link #release()}, the lanes are shut
+ * down when the last reference is released and created again by the next acquire. Idle lane
+ * threads exit after a keep alive time, so lanes without work hold no threads. Tasks are tracked
+ * per instance, releasing an instance cancels its queued tasks and leaves the tasks of other
+ * engines untouched.
+ */
+public class SessionExecutor {
+
+    public enum Lane {
+        FFMPEG,
+        FFPROBE,
+        PIPE
+    }
+
+    /**
+     * Pipe writers block until FFmpeg opens the other end of the pipe, so the pipe lane never
+     * runs fewer tasks in parallel than the previous shared pool did.
+     */
+    private static final int MINIMUM_DEFAULT_PIPE_CONCURRENCY_LIMIT = 10;
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static SharedLanes sharedLanes;
+    private static int sharedLanesReferenceCount;
+
+    private final Set<FutureTask<?>> pendingTasks;
+    private final Map<Lane, EngineExecutor> engineExecutors;
+    private SharedLanes lanes;
+    private boolean released;
+
+    public SessionExecutor() {
+        this.pendingTasks = ConcurrentHashMap.newKeySet();
+        this.engineExecutors = new EnumMap<>(Lane.class);
+        for (final Lane lane : Lane.values()) {
+            engineExecutors.put(lane, new EngineExecutor(lane));
+        }
+    }
+
+    /**
+     * Takes a reference to the shared lanes. Lanes are also acquired on first use, an explicit
+     * acquire is only needed to use this instance again after {@link #release()}.
+     */
+    public synchronized void acquire() {
+        released = false;
+        if (lanes == null) {
+            lanes = acquireSharedLanes();
+        }
+    }
+
+    /**
+     * Cancels the queued tasks of this instance and releases its reference to the shared lanes.
+     * Running tasks are not interrupted, they complete on their lane. Tasks submitted after this
+     * call are rejected until the next {@link #acquire()}.
+     */
+    public void release() {
+        release(true);
+    }
+
+    /**
+     * Releases the reference to the shared lanes and returns the tasks cancelled. Queued tasks
+     * still run on their lane when cancelPendingTasks is false.
+     */
+    private List<Runnable> release(final boolean cancelPendingTasks) {
+        final SharedLanes releasedLanes;
+        synchronized (this) {
+            released = true;
+            releasedLanes = lanes;
+            lanes = null;
+        }
+
+        final List<Runnable> cancelledTasks = new ArrayList<>();
+        if (cancelPendingTasks) {
+            for (final FutureTask<?> task : pendingTasks) {
+                if (task.cancel(false)) {
+                    cancelledTasks.add(task);
+                }
+            }
+            pendingTasks.clear();
+        }
+        notifyTaskCompletion();
+
+        if (releasedLanes != null) {
+            releaseSharedLanes(releasedLanes);
+        }
+
+        return cancelledTasks;
+    }
+
+    private void notifyTaskCompletion() {
+        synchronized (pendingTasks) {
+            pendingTasks.notifyAll();
+        }
+    }
+
+    public Future<?> submit(@NonNull final Lane lane, @NonNull final Runnable task) {
+        return getExecutorService(lane).submit(task);
+    }
+
+    /**
+     * Returns the executor service of a lane for this instance. Tasks executed through it run on
+     * the shared lane and are cancelled by {@link #release()} while they are queued.
+     */
+    public ExecutorService getExecutorService(@NonNull final Lane lane) {
+        return engineExecutors.get(lane);
+    }
+
+    /**
+     * Returns the number of tasks of this instance which are queued or running.
+     */
+    public int getPendingTaskCount() {
+        return pendingTasks.size();
+    }
+
+    public int getConcurrencyLimit(@NonNull final Lane lane) {
+        return getExecutor(lane).getMaximumPoolSize();
+    }
+
+    public void setConcurrencyLimit(@NonNull final Lane lane, final int concurrencyLimit) {
+        if (concurrencyLimit < 1) {
+            throw new IllegalArgumentException("Concurrency limit must be positive.");
+        }
+
+        final ThreadPoolExecutor executor = getExecutor(lane);
+
+        synchronized (executor) {
+
+            // the core size may never exceed the maximum size, so the order of updates matters
+            if (concurrencyLimit > executor.getMaximumPoolSize()) {
+                executor.setMaximumPoolSize(concurrencyLimit);
+                executor.setCorePoolSize(concurrencyLimit);
+            } else {
+                executor.setCorePoolSize(concurrencyLimit);
+                executor.setMaximumPoolSize(concurrencyLimit);
+            }
+        }
+    }
+
+    public int getQueueSize(@NonNull final Lane lane) {
+        return getExecutor(lane).getQueue().size();
+    }
+
+    public int getActiveCount(@NonNull final Lane lane) {
+        return getExecutor(lane).getActiveCount();
+    }
+
+    /**
+     * Returns the largest queue size seen since the last reset.
+     */
+    public long getMaxQueueSize(@NonNull final Lane lane) {
+        return getExecutor(lane).maxQueueSize.get();
+    }
+
+    /**
+     * Returns the time tasks of the lane spent in its queue.
+     */
+    public PluginMetrics.Histogram getWaitTimeHistogram(@NonNull final Lane lane) {
+        return getExecutor(lane).waitTime;
+    }
+
+    public PluginMetrics.Histogram getRunTimeHistogram(@NonNull final Lane lane) {
+        return getExecutor(lane).runTime;
+    }
+
+    public void resetMetrics() {
+        for (final Lane lane : Lane.values()) {
+            final LaneExecutor executor = getExecutor(lane);
+            executor.maxQueueSize.reset();
+            executor.waitTime.reset();
+            executor.runTime.reset();
+        }
+    }
+
+    private LaneExecutor getExecutor(final Lane lane) {
+        return getLanes().getExecutor(lane);
+    }
+
+    private synchronized SharedLanes getLanes() {
+        if (lanes == null) {
+            if (released) {
+                throw new RejectedExecutionException("Session executor is released.");
+            }
+            lanes = acquireSharedLanes();
+        }
+        return lanes;
+    }
+
+    private static synchronized SharedLanes acquireSharedLanes() {
+        if (sharedLanes == null) {
+            sharedLanes = new SharedLanes();
+        }
+        sharedLanesReferenceCount++;
+        return sharedLanes;
+    }
+
+    private static synchronized void releaseSharedLanes(final SharedLanes releasedLanes) {
+        if (releasedLanes != sharedLanes) {
+            return;
+        }
+
+        sharedLanesReferenceCount--;
+        if (sharedLanesReferenceCount == 0) {
+
+            // running tasks still complete, their threads exit afterwards
+            sharedLanes.shutdown();
+            sharedLanes = null;
+        }
+    }
+
+    private static LaneExecutor newLaneExecutor(final Lane lane, final int concurrencyLimit) {
+        final LaneExecutor executor = new LaneExecutor(concurrencyLimit, new LaneThreadFactory(lane));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Measures how long tasks wait in the queue and how long they run. Every task passes through
+     * execute, including the ones FFmpegKitConfig submits to the executor service of a lane.
+     */
+    private static class LaneExecutor extends ThreadPoolExecutor {
+        private final PluginMetrics.Histogram waitTime;
+        private final PluginMetrics.Histogram runTime;
+        private final LongAccumulator maxQueueSize;
+
+        LaneExecutor(final int concurrencyLimit, final ThreadFactory threadFactory) {
+            super(concurrencyLimit, concurrencyLimit, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+            this.waitTime = new PluginMetrics.Histogram();
+            this.runTime = new PluginMetrics.Histogram();
+            this.maxQueueSize = new LongAccumulator(Math::max, 0);
+        }
+
+        @Override
+        public void execute(@NonNull final Runnable task) {
+            final long submitTime = System.nanoTime();
+            super.execute(() -> {
+                final long startTime = System.nanoTime();
+                waitTime.record(startTime - submitTime);
+                try {
+                    task.run();
+                } finally {
+                    runTime.record(System.nanoTime() - startTime);
+                }
+            });
+            maxQueueSize.accumulate(getQueue().size());
+        }
+    }
+
+    private static class SharedLanes {
+        private final LaneExecutor ffmpegExecutor;
+        private final LaneExecutor ffprobeExecutor;
+        private final LaneExecutor pipeExecutor;
+
+        SharedLanes() {
+            final int processors = Runtime.getRuntime().availableProcessors();
+
+            this.ffmpegExecutor = newLaneExecutor(Lane.FFMPEG, processors);
+            this.ffprobeExecutor = newLaneExecutor(Lane.FFPROBE, processors);
+            this.pipeExecutor = newLaneExecutor(Lane.PIPE, Math.max(processors, MINIMUM_DEFAULT_PIPE_CONCURRENCY_LIMIT));
+        }
+
+        LaneExecutor getExecutor(final Lane lane) {
+            switch (lane) {
+                case FFPROBE:
+                    return ffprobeExecutor;
+                case PIPE:
+                    return pipeExecutor;
+                case FFMPEG:
+                default:
+                    return ffmpegExecutor;
+            }
+        }
+
+        void shutdown() {
+            ffmpegExecutor.shutdown();
+            ffprobeExecutor.shutdown();
+            pipeExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Executor service of one lane for one plugin instance, which keeps track of the instance's
+     * tasks. Shutting it down releases the whole instance, i.e. all of its lanes.
+     */
+    private class EngineExecutor extends AbstractExecutorService {
+        private final Lane lane;
+
+        EngineExecutor(final Lane lane) {
+            this.lane = lane;
+        }
+
+        @Override
+        public void execute(@NonNull final Runnable command) {
+            final FutureTask<?> task = (command instanceof FutureTask) ? (FutureTask<?>) command : new FutureTask<>(command, null);
+
+            pendingTasks.add(task);
+            try {
+                getExecutor(lane).execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        pendingTasks.remove(task);
+                        notifyTaskCompletion();
+                    }
+                });
+            } catch (final RejectedExecutionException e) {
+                pendingTasks.remove(task);
+                throw e;
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            release(false);
+        }
+
+        @NonNull
+        @Override
+        public List<Runnable> shutdownNow() {
+            return release(true);
+        }
+
+        @Override
+        public boolean isShutdown() {
+            synchronized (SessionExecutor.this) {
+                return released;
+            }
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return isShutdown() && pendingTasks.isEmpty();
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, @NonNull final TimeUnit unit) throws InterruptedException {
+            final long deadline = System.nanoTime() + unit.toNanos(timeout);
+            synchronized (pendingTasks) {
+                while (!isTerminated()) {
+                    final long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(pendingTasks, remaining);
+                }
+                return true;
+            }
+        }
+    }
+
+    private static class LaneThreadFactory implements ThreadFactory {
+        private final String namePrefix;
+        private final AtomicInteger threadNumber;
+
+        LaneThreadFactory(final Lane lane) {
+            this.namePrefix = String.format("ffmpeg-kit-flutter-%s-", lane.name().toLowerCase(Locale.ROOT));
+            this.threadNumber = new AtomicInteger(1);
+        }
+
+        @Override
+        public Thread newThread(@NonNull final Runnable runnable) {
+            return new Thread(runnable, namePrefix + threadNumber.getAndIncrement());
+        }
+    }
+
+}
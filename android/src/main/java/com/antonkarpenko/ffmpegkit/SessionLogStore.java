@@ -0,0 +1,488 @@
+package com.antonkarpenko.ffmpegkit;
+
+import static com.antonkarpenko.ffmpegkit.FFmpegKitFlutterPlugin.LIBRARY_NAME;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.antonkarpenko.ffmpegkit.AbstractSession;
+import com.antonkarpenko.ffmpegkit.FFmpegKitConfig;
+import com.antonkarpenko.ffmpegkit.Level;
+import com.antonkarpenko.ffmpegkit.Session;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the logs of long running sessions with bounded memory. Each session keeps only its most
+ * recent lines in memory, older lines are appended to a per session file through a buffered
+ * FileChannel and read back from there when all logs are requested.
+ *
+ * <p>The log list of the session itself is trimmed to the same recent lines, which is what bounds
+ * the memory of a session: FFmpegKitConfig adds every line to it before the log callback runs.
+ * If a spill file can not be written or read the lines already trimmed are lost, the session
+ * falls back to its own list and keeps all lines from then on.
+ *
+ * <p>Files are written by a single spill writer thread, the log callback of FFmpeg only moves
+ * lines between queues and never waits for disk I/O, not even while a reader is reading the file.
+ *
+ * <p>Only sessions created after the store was enabled are tracked, since the lines logged by
+ * earlier sessions never passed through it.
+ */
+public class SessionLogStore {
+
+    public interface LogVisitor {
+        void visit(@NonNull com.antonkarpenko.ffmpegkit.Log log);
+    }
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * File offsets of every Nth spilled line are remembered, so reads starting in the middle of a
+     * file skip at most this many lines.
+     */
+    private static final int CHECKPOINT_INTERVAL = 1024;
+
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private static final long SPILL_WRITER_KEEP_ALIVE_SECONDS = 30;
+
+    private final Map<Long, SessionLogs> sessionLogs;
+    private final ThreadPoolExecutor spillExecutor;
+    private volatile int memoryLineCount;
+    private volatile long firstSessionId;
+    private File directory;
+
+    public SessionLogStore() {
+        this.sessionLogs = new ConcurrentHashMap<>();
+        this.spillExecutor = new ThreadPoolExecutor(1, 1, SPILL_WRITER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> new Thread(runnable, "ffmpeg-kit-flutter-log-spill"));
+
+        // an idle writer holds no thread
+        this.spillExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @param memoryLineCount number of recent lines kept in memory per session, zero disables the
+     *                        store
+     * @param directory       directory of the spill files, its previous content is deleted
+     * @param firstSessionId  id of the first session to track
+     */
+    public synchronized void setOptions(final int memoryLineCount, @Nullable final File directory, final long firstSessionId) {
+        clear();
+
+        this.memoryLineCount = (directory != null) ? Math.max(0, memoryLineCount) : 0;
+        this.directory = directory;
+        this.firstSessionId = firstSessionId;
+
+        if (this.memoryLineCount > 0) {
+            deleteFiles(directory);
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                android.util.Log.w(LIBRARY_NAME, String.format("Failed to create session log directory %s.", directory));
+                this.memoryLineCount = 0;
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return memoryLineCount > 0;
+    }
+
+    public void add(@NonNull final com.antonkarpenko.ffmpegkit.Log log) {
+        final int lineCount = memoryLineCount;
+        if (lineCount == 0 || log.getSessionId() < firstSessionId) {
+            return;
+        }
+
+        SessionLogs logs = sessionLogs.get(log.getSessionId());
+        if (logs == null) {
+            logs = createSessionLogs(log.getSessionId(), lineCount);
+            if (logs == null) {
+                return;
+            }
+        }
+
+        logs.add(log);
+    }
+
+    /**
+     * Returns true if all logs of the session are available from this store.
+     */
+    public boolean contains(final long sessionId) {
+        final SessionLogs logs = sessionLogs.get(sessionId);
+        return logs != null && !logs.failed;
+    }
+
+    public int getLogCount(final long sessionId) {
+        final SessionLogs logs = sessionLogs.get(sessionId);
+        return (logs != null) ? logs.getCount() : 0;
+    }
+
+    /**
+     * Visits up to maxCount logs of the session starting at fromIndex, from disk first and from
+     * memory after. Returns false if the logs could not be read.
+     */
+    public boolean forEach(final long sessionId, final int fromIndex, final int maxCount, @NonNull final LogVisitor visitor) {
+        final SessionLogs logs = sessionLogs.get(sessionId);
+        return logs != null && logs.forEach(fromIndex, maxCount, visitor);
+    }
+
+    public String getLogsAsString(final long sessionId) {
+        final StringBuilder concatenatedString = new StringBuilder();
+        forEach(sessionId, 0, Integer.MAX_VALUE, log -> concatenatedString.append(log.getMessage()));
+        return concatenatedString.toString();
+    }
+
+    public synchronized void clear() {
+        for (final SessionLogs logs : sessionLogs.values()) {
+            logs.close();
+        }
+        sessionLogs.clear();
+    }
+
+    private synchronized SessionLogs createSessionLogs(final long sessionId, final int lineCount) {
+        SessionLogs logs = sessionLogs.get(sessionId);
+        if (logs != null || memoryLineCount == 0) {
+            return logs;
+        }
+
+        // sessions dropped from the session history will never be queried again, they are only
+        // looked for once more sessions are stored than the history holds
+        if (sessionLogs.size() >= FFmpegKitConfig.getSessionHistorySize()) {
+            final Iterator<SessionLogs> iterator = sessionLogs.values().iterator();
+            while (iterator.hasNext()) {
+                final SessionLogs existingLogs = iterator.next();
+                if (FFmpegKitConfig.getSession(existingLogs.sessionId) == null) {
+                    existingLogs.close();
+                    iterator.remove();
+                }
+            }
+        }
+
+        final Session session = FFmpegKitConfig.getSession(sessionId);
+        logs = new SessionLogs(sessionId, (session instanceof AbstractSession) ? (AbstractSession) session : null, lineCount, new File(directory, sessionId + ".log"), spillExecutor);
+        sessionLogs.put(sessionId, logs);
+        return logs;
+    }
+
+    private static void deleteFiles(final File directory) {
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    private static class SessionLogs {
+        private final long sessionId;
+        private final AbstractSession session;
+        private final int lineCount;
+        private final File file;
+        private final Executor spillExecutor;
+        private final ArrayDeque<com.antonkarpenko.ffmpegkit.Log> recentLogs;
+        private final ArrayDeque<com.antonkarpenko.ffmpegkit.Log> pendingLogs;
+        private boolean spillScheduled;
+        private int spilledCount;
+        private volatile boolean failed;
+
+        // guards the spill file, held by the spill writer and readers but never by the log callback
+        private final Object fileLock;
+        private final ByteBuffer writeBuffer;
+        private long[] checkpoints;
+        private int checkpointCount;
+        private FileChannel channel;
+        private long flushedBytes;
+        private int writtenCount;
+        private boolean closed;
+
+        SessionLogs(final long sessionId, @Nullable final AbstractSession session, final int lineCount, final File file, final Executor spillExecutor) {
+            this.sessionId = sessionId;
+            this.session = session;
+            this.lineCount = lineCount;
+            this.file = file;
+            this.spillExecutor = spillExecutor;
+            this.recentLogs = new ArrayDeque<>(Math.min(lineCount, 1024));
+            this.pendingLogs = new ArrayDeque<>();
+            this.fileLock = new Object();
+            this.writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+            this.checkpoints = new long[16];
+        }
+
+        synchronized void add(final com.antonkarpenko.ffmpegkit.Log log) {
+            if (failed) {
+                return;
+            }
+
+            recentLogs.addLast(log);
+            if (recentLogs.size() > lineCount) {
+                pendingLogs.addLast(recentLogs.pollFirst());
+
+                // the log callback only hands lines over, the spill writer does the disk I/O
+                if (!spillScheduled) {
+                    spillScheduled = true;
+                    spillExecutor.execute(this::spill);
+                }
+
+                trimSessionLogs();
+            }
+        }
+
+        /**
+         * Drops the lines of the session's own log list which are older than the recent lines.
+         * They are all in this store, pending or spilled.
+         */
+        private void trimSessionLogs() {
+            if (session == null) {
+                return;
+            }
+
+            synchronized (session.logsLock) {
+                while (session.logs.size() > lineCount) {
+                    session.logs.remove(0);
+                }
+            }
+        }
+
+        synchronized int getCount() {
+            return spilledCount + pendingLogs.size() + recentLogs.size();
+        }
+
+        boolean forEach(final int fromIndex, final int maxCount, final LogVisitor visitor) {
+            final int snapshotSpilledCount;
+            final List<com.antonkarpenko.ffmpegkit.Log> memoryLogs;
+            synchronized (this) {
+                if (failed) {
+                    return false;
+                }
+                snapshotSpilledCount = spilledCount;
+                memoryLogs = new ArrayList<>(pendingLogs.size() + recentLogs.size());
+                memoryLogs.addAll(pendingLogs);
+                memoryLogs.addAll(recentLogs);
+            }
+
+            int index = Math.max(0, fromIndex);
+            int remaining = maxCount;
+
+            // reading the file only holds the file lock, logging continues meanwhile
+            if (index < snapshotSpilledCount && remaining > 0) {
+                try {
+                    final int readCount;
+                    synchronized (fileLock) {
+                        readCount = readSpilled(index, Math.min(remaining, snapshotSpilledCount - index), visitor);
+                    }
+                    index += readCount;
+                    remaining -= readCount;
+                } catch (final IOException e) {
+                    android.util.Log.w(LIBRARY_NAME, String.format("Failed to read logs of session %d from %s.", sessionId, file), e);
+                    fail();
+                    return false;
+                }
+            }
+
+            int memoryIndex = snapshotSpilledCount;
+            for (final com.antonkarpenko.ffmpegkit.Log log : memoryLogs) {
+                if (remaining <= 0) {
+                    break;
+                }
+                if (memoryIndex++ >= index) {
+                    visitor.visit(log);
+                    remaining--;
+                }
+            }
+
+            return true;
+        }
+
+        void close() {
+            synchronized (this) {
+                pendingLogs.clear();
+            }
+            synchronized (fileLock) {
+                closed = true;
+                closeChannel();
+                file.delete();
+            }
+        }
+
+        /**
+         * Writes the pending lines to the spill file on the spill writer. Lines stay pending until
+         * they are flushed, so readers always find a line either in memory or on disk.
+         */
+        private void spill() {
+            while (true) {
+                final List<com.antonkarpenko.ffmpegkit.Log> batch;
+                synchronized (this) {
+                    if (pendingLogs.isEmpty() || failed) {
+                        spillScheduled = false;
+                        return;
+                    }
+                    batch = new ArrayList<>(pendingLogs);
+                }
+
+                try {
+                    synchronized (fileLock) {
+                        if (closed) {
+                            return;
+                        }
+                        for (final com.antonkarpenko.ffmpegkit.Log log : batch) {
+                            write(log);
+                        }
+                        flush();
+                    }
+                } catch (final IOException e) {
+                    android.util.Log.w(LIBRARY_NAME, String.format("Failed to write logs of session %d to %s.", sessionId, file), e);
+                    fail();
+                    return;
+                }
+
+                synchronized (this) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        pendingLogs.pollFirst();
+                    }
+                    spilledCount += batch.size();
+                }
+            }
+        }
+
+        private void write(final com.antonkarpenko.ffmpegkit.Log log) throws IOException {
+            if (channel == null) {
+                channel = new RandomAccessFile(file, "rw").getChannel();
+            }
+
+            final byte[] message = (log.getMessage() != null) ? log.getMessage().getBytes(StandardCharsets.UTF_8) : new byte[0];
+            final int recordSize = RECORD_HEADER_SIZE + message.length;
+
+            if (writtenCount % CHECKPOINT_INTERVAL == 0) {
+                if (checkpointCount == checkpoints.length) {
+                    checkpoints = Arrays.copyOf(checkpoints, checkpointCount * 2);
+                }
+                checkpoints[checkpointCount++] = flushedBytes + writeBuffer.position();
+            }
+
+            if (writeBuffer.remaining() < recordSize) {
+                flush();
+            }
+
+            if (recordSize > writeBuffer.capacity()) {
+                final ByteBuffer record = ByteBuffer.allocate(recordSize);
+                record.putInt(log.getLevel().getValue()).putInt(message.length).put(message).flip();
+                write(record);
+            } else {
+                writeBuffer.putInt(log.getLevel().getValue()).putInt(message.length).put(message);
+            }
+
+            writtenCount++;
+        }
+
+        private void flush() throws IOException {
+            if (writeBuffer.position() > 0) {
+                writeBuffer.flip();
+                write(writeBuffer);
+                writeBuffer.clear();
+            }
+        }
+
+        private void write(final ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                flushedBytes += channel.write(buffer, flushedBytes);
+            }
+        }
+
+        private int readSpilled(final int fromIndex, final int maxCount, final LogVisitor visitor) throws IOException {
+            if (closed) {
+                throw new IOException("Session logs are closed.");
+            }
+
+            final int checkpoint = fromIndex / CHECKPOINT_INTERVAL;
+            long position = checkpoints[checkpoint];
+            int index = checkpoint * CHECKPOINT_INTERVAL;
+            int readCount = 0;
+
+            ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            readBuffer.limit(0);
+
+            while (index < writtenCount && readCount < maxCount) {
+                if (readBuffer.remaining() < RECORD_HEADER_SIZE) {
+                    position = refill(readBuffer, position);
+                }
+
+                final int levelValue = readBuffer.getInt();
+                final int length = readBuffer.getInt();
+
+                if (readBuffer.remaining() < length) {
+                    if (length > readBuffer.capacity()) {
+                        final ByteBuffer largerBuffer = ByteBuffer.allocate(length);
+                        largerBuffer.put(readBuffer).flip();
+                        readBuffer = largerBuffer;
+                    }
+                    position = refill(readBuffer, position);
+                }
+
+                if (index >= fromIndex) {
+                    final String message = new String(readBuffer.array(), readBuffer.arrayOffset() + readBuffer.position(), length, StandardCharsets.UTF_8);
+                    visitor.visit(new com.antonkarpenko.ffmpegkit.Log(sessionId, Level.from(levelValue), message));
+                    readCount++;
+                }
+                readBuffer.position(readBuffer.position() + length);
+                index++;
+            }
+
+            return readCount;
+        }
+
+        /**
+         * Moves unread bytes to the start of buffer and fills the rest from the file.
+         */
+        private long refill(final ByteBuffer buffer, long position) throws IOException {
+            buffer.compact();
+            while (buffer.hasRemaining() && position < flushedBytes) {
+                final int count = channel.read(buffer, position);
+                if (count < 0) {
+                    break;
+                }
+                position += count;
+            }
+            buffer.flip();
+            return position;
+        }
+
+        private void fail() {
+            synchronized (this) {
+                failed = true;
+                recentLogs.clear();
+                pendingLogs.clear();
+            }
+            synchronized (fileLock) {
+                closeChannel();
+            }
+        }
+
+        private void closeChannel() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (final IOException e) {
+                    android.util.Log.w(LIBRARY_NAME, String.format("Failed to close %s.", file), e);
+                }
+                channel = null;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.antonkarpenko.ffmpegkit;
+
+import androidx.annotation.NonNull;
+
+import com.antonkarpenko.ffmpegkit.FFmpegKitConfig;
+import com.antonkarpenko.ffmpegkit.FFmpegSession;
+import com.antonkarpenko.ffmpegkit.FFprobeSession;
+import com.antonkarpenko.ffmpegkit.MediaInformationSession;
+import com.antonkarpenko.ffmpegkit.Statistics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Shares the process wide callbacks of FFmpegKitConfig between the plugin instances of all
+ * Flutter engines, the same way {@link SessionExecutor} shares its lanes. The callbacks are
+ * enabled when the first listener registers, fan out to every registered listener and are
+ * disabled again when the last listener unregisters.
+ *
+ * <p>Events of an internal session, e.g. a segment of a segmented transcode, are only delivered
+ * to the listener owning that session.
+ */
+public class SharedCallbacks {
+
+    public interface Listener {
+
+        /**
+         * Returns true if sessionId belongs to a session this listener created for internal use.
+         */
+        boolean isInternalSession(long sessionId);
+
+        void onFFmpegSessionComplete(@NonNull FFmpegSession session);
+
+        void onFFprobeSessionComplete(@NonNull FFprobeSession session);
+
+        void onMediaInformationSessionComplete(@NonNull MediaInformationSession session);
+
+        void onLog(@NonNull com.antonkarpenko.ffmpegkit.Log log);
+
+        void onStatistics(@NonNull Statistics statistics);
+    }
+
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private SharedCallbacks() {
+    }
+
+    public static synchronized void register(@NonNull final Listener listener) {
+        if (listeners.contains(listener)) {
+            return;
+        }
+
+        listeners.add(listener);
+        if (listeners.size() == 1) {
+            FFmpegKitConfig.enableFFmpegSessionCompleteCallback(session -> {
+                for (final Listener sessionListener : listenersOf(session.getSessionId())) {
+                    sessionListener.onFFmpegSessionComplete(session);
+                }
+            });
+            FFmpegKitConfig.enableFFprobeSessionCompleteCallback(session -> {
+                for (final Listener sessionListener : listenersOf(session.getSessionId())) {
+                    sessionListener.onFFprobeSessionComplete(session);
+                }
+            });
+            FFmpegKitConfig.enableMediaInformationSessionCompleteCallback(session -> {
+                for (final Listener sessionListener : listenersOf(session.getSessionId())) {
+                    sessionListener.onMediaInformationSessionComplete(session);
+                }
+            });
+            FFmpegKitConfig.enableLogCallback(log -> {
+                for (final Listener sessionListener : listenersOf(log.getSessionId())) {
+                    sessionListener.onLog(log);
+                }
+            });
+            FFmpegKitConfig.enableStatisticsCallback(statistics -> {
+                for (final Listener sessionListener : listenersOf(statistics.getSessionId())) {
+                    sessionListener.onStatistics(statistics);
+                }
+            });
+        }
+    }
+
+    public static synchronized void unregister(@NonNull final Listener listener) {
+        if (listeners.remove(listener) && listeners.isEmpty()) {
+            FFmpegKitConfig.enableFFmpegSessionCompleteCallback(null);
+            FFmpegKitConfig.enableFFprobeSessionCompleteCallback(null);
+            FFmpegKitConfig.enableMediaInformationSessionCompleteCallback(null);
+            FFmpegKitConfig.enableLogCallback(null);
+            FFmpegKitConfig.enableStatisticsCallback(null);
+        }
+    }
+
+    private static List<Listener> listenersOf(final long sessionId) {
+        for (final Listener listener : listeners) {
+            if (listener.isInternalSession(sessionId)) {
+                return Collections.singletonList(listener);
+            }
+        }
+        return listeners;
+    }
+
+}
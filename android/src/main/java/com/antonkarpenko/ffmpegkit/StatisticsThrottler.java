@@ -0,0 +1,79 @@
+package com.antonkarpenko.ffmpegkit;
+
+import androidx.annotation.NonNull;
+
+import com.antonkarpenko.ffmpegkit.Statistics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps only the latest statistics of each session and hands them over at most
+ * maxStatisticsRate times per second. Statistics received between two flushes overwrite each
+ * other in place.
+ */
+public class StatisticsThrottler {
+
+    public interface Listener {
+        void onStatistics(@NonNull Statistics statistics);
+    }
+
+    public static final int DEFAULT_MAX_STATISTICS_RATE = 0;
+
+    private final ScheduledExecutorService scheduler;
+    private final Listener listener;
+    private final Map<Long, Statistics> latestStatistics;
+    private final AtomicBoolean flushScheduled;
+
+    private volatile int maxStatisticsRate;
+
+    public StatisticsThrottler(@NonNull final ScheduledExecutorService scheduler, @NonNull final Listener listener) {
+        this.scheduler = scheduler;
+        this.listener = listener;
+        this.latestStatistics = new ConcurrentHashMap<>();
+        this.flushScheduled = new AtomicBoolean(false);
+        this.maxStatisticsRate = DEFAULT_MAX_STATISTICS_RATE;
+    }
+
+    public boolean isEnabled() {
+        return maxStatisticsRate > 0;
+    }
+
+    public void setMaxStatisticsRate(final int maxStatisticsRate) {
+        flushAll();
+        this.maxStatisticsRate = Math.max(0, maxStatisticsRate);
+    }
+
+    /**
+     * Returns true if statistics replaced statistics of the same session which were not sent yet.
+     */
+    public boolean offer(@NonNull final Statistics statistics) {
+        final Statistics replacedStatistics = latestStatistics.put(statistics.getSessionId(), statistics);
+
+        final int rate = maxStatisticsRate;
+        if (rate > 0 && flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flushAll, Math.max(1, 1000 / rate), TimeUnit.MILLISECONDS);
+        }
+
+        return replacedStatistics != null;
+    }
+
+    public synchronized void flush(final long sessionId) {
+        final Statistics statistics = latestStatistics.remove(sessionId);
+        if (statistics != null) {
+            listener.onStatistics(statistics);
+        }
+    }
+
+    public synchronized void flushAll() {
+        flushScheduled.set(false);
+
+        for (final Long sessionId : latestStatistics.keySet()) {
+            flush(sessionId);
+        }
+    }
+
+}
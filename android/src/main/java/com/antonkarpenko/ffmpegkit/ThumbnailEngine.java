@@ -0,0 +1,360 @@
+package com.antonkarpenko.ffmpegkit;
+
+import static com.antonkarpenko.ffmpegkit.FFmpegKitFlutterPlugin.LIBRARY_NAME;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.antonkarpenko.ffmpegkit.FFmpegKitConfig;
+import com.antonkarpenko.ffmpegkit.FFmpegSession;
+import com.antonkarpenko.ffmpegkit.LogRedirectionStrategy;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Extracts thumbnails at many timestamps of an input with a single FFmpeg session. Every
+ * timestamp becomes a separate input of that session seeking to it, so only the frames between
+ * the closest keyframe and the timestamp are decoded instead of the whole file up to it.
+ *
+ * <p>Encoded thumbnails are kept in an LRU cache keyed by file identity, timestamp, size and
+ * format, limited by a byte budget. Sprite sheets are tiled from the cached thumbnails.
+ *
+ * <p>The sessions of this engine are internal, their logs and completions are not forwarded to
+ * Dart. They are still added to the session history of FFmpegKitConfig like any other session, so
+ * frequent extraction pushes older sessions out of a small history.
+ */
+public class ThumbnailEngine {
+
+    public static final long DEFAULT_MAX_BYTES = 32 * 1024 * 1024;
+
+    /**
+     * Each input of a pass holds its own demuxer and decoder, larger requests are split into
+     * several passes to bound memory use.
+     */
+    private static final int MAX_INPUTS_PER_PASS = 16;
+
+    private static final List<String> FORMATS = Arrays.asList("jpg", "png", "webp");
+
+    /**
+     * Logs are delivered asynchronously, a completed session may still have logs in transmit for a
+     * short while. Same limit as the one AbstractSession uses.
+     */
+    private static final long MESSAGES_IN_TRANSMIT_TIMEOUT = 5000;
+
+    private final AtomicLong passCounter;
+    private final Set<Long> sessionIds;
+    private final LinkedHashMap<String, byte[]> thumbnails;
+    private long maxBytes;
+    private long byteCount;
+
+    public ThumbnailEngine() {
+        this.passCounter = new AtomicLong(1);
+        this.sessionIds = ConcurrentHashMap.newKeySet();
+        this.thumbnails = new LinkedHashMap<>(16, 0.75f, true);
+        this.maxBytes = DEFAULT_MAX_BYTES;
+    }
+
+    public synchronized void setMaxBytes(final long maxBytes) {
+        this.maxBytes = Math.max(0, maxBytes);
+        trim();
+    }
+
+    public synchronized void clear() {
+        thumbnails.clear();
+        byteCount = 0;
+    }
+
+    /**
+     * Returns true if sessionId belongs to a session of a running extraction.
+     */
+    public boolean isInternal(final long sessionId) {
+        return sessionIds.contains(sessionId);
+    }
+
+    /**
+     * Returns the encoded thumbnails of input at timestamps, given in milliseconds, in the same
+     * order. A thumbnail is null if no frame could be extracted at its timestamp. A width or
+     * height of -1 keeps the aspect ratio, both -1 keep the original size.
+     *
+     * @throws IllegalArgumentException if format is not one of jpg, png or webp
+     */
+    @NonNull
+    public List<byte[]> extractThumbnails(@NonNull final Context context, @NonNull final File workDirectory, @NonNull final String input, @NonNull final List<Long> timestamps, final int width, final int height, @NonNull final String format) {
+        validateFormat(format);
+
+        final FileIdentity identity = FileIdentity.of(context, input);
+        final List<byte[]> result = new ArrayList<>(timestamps.size());
+        final List<Integer> missingIndexes = new ArrayList<>();
+
+        for (int i = 0; i < timestamps.size(); i++) {
+            final byte[] thumbnail = (identity != null) ? get(toKey(identity, timestamps.get(i), width, height, format)) : null;
+            result.add(thumbnail);
+            if (thumbnail == null) {
+                missingIndexes.add(i);
+            }
+        }
+
+        if (missingIndexes.isEmpty()) {
+            return result;
+        }
+
+        for (int passStart = 0; passStart < missingIndexes.size(); passStart += MAX_INPUTS_PER_PASS) {
+            final List<Integer> passIndexes = missingIndexes.subList(passStart, Math.min(passStart + MAX_INPUTS_PER_PASS, missingIndexes.size()));
+            final List<Long> passTimestamps = new ArrayList<>(passIndexes.size());
+            for (final Integer index : passIndexes) {
+                passTimestamps.add(timestamps.get(index));
+            }
+
+            final List<byte[]> passThumbnails = runPass(context, workDirectory, input, passTimestamps, width, height, format);
+            for (int i = 0; i < passIndexes.size(); i++) {
+                final byte[] thumbnail = passThumbnails.get(i);
+                result.set(passIndexes.get(i), thumbnail);
+                if (thumbnail != null && identity != null) {
+                    put(toKey(identity, passTimestamps.get(i), width, height, format), thumbnail);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a single image holding the thumbnails of input at timestamps, placed left to right
+     * and top to bottom in rows of columns thumbnails. Timestamps without a frame are left out.
+     * Returns null if the sprite sheet could not be created.
+     *
+     * @throws IllegalArgumentException if format is not one of jpg, png or webp
+     */
+    @Nullable
+    public byte[] extractSpriteSheet(@NonNull final Context context, @NonNull final File workDirectory, @NonNull final String input, @NonNull final List<Long> timestamps, final int width, final int height, final int columns, @NonNull final String format) {
+        validateFormat(format);
+
+        final FileIdentity identity = FileIdentity.of(context, input);
+        final String spriteKey = (identity != null) ? toSpriteKey(identity, timestamps, width, height, columns, format) : null;
+        if (spriteKey != null) {
+            final byte[] spriteSheet = get(spriteKey);
+            if (spriteSheet != null) {
+                return spriteSheet;
+            }
+        }
+
+        // tiles are extracted losslessly, so the sheet is encoded only once
+        final List<byte[]> tiles = new ArrayList<>();
+        for (final byte[] tile : extractThumbnails(context, workDirectory, input, timestamps, width, height, "png")) {
+            if (tile != null) {
+                tiles.add(tile);
+            }
+        }
+        if (tiles.isEmpty()) {
+            return null;
+        }
+
+        final File directory = new File(workDirectory, "sprite-" + passCounter.getAndIncrement());
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException(String.format("Failed to create directory %s.", directory));
+            }
+            for (int i = 0; i < tiles.size(); i++) {
+                try (final OutputStream outputStream = new FileOutputStream(new File(directory, String.format("tile-%04d.png", i)))) {
+                    outputStream.write(tiles.get(i));
+                }
+            }
+
+            final int tileColumns = Math.max(1, Math.min(columns, tiles.size()));
+            final int tileRows = (tiles.size() + tileColumns - 1) / tileColumns;
+            final File output = new File(directory, "sprite." + format);
+
+            final List<String> arguments = new ArrayList<>(Arrays.asList("-y", "-f", "image2", "-i", new File(directory, "tile-%04d.png").getAbsolutePath(), "-vf", String.format("tile=%dx%d", tileColumns, tileRows), "-frames:v", "1"));
+            addEncodeArguments(arguments, format);
+            arguments.add(output.getAbsolutePath());
+
+            execute(FFmpegSession.create(arguments.toArray(new String[0]), null, null, null, LogRedirectionStrategy.NEVER_PRINT_LOGS));
+
+            final byte[] spriteSheet = output.isFile() ? readFile(output) : null;
+            if (spriteSheet != null && spriteKey != null) {
+                put(spriteKey, spriteSheet);
+            }
+            return spriteSheet;
+        } catch (final IOException e) {
+            Log.w(LIBRARY_NAME, String.format("Failed to create sprite sheet of %s.", input), e);
+            return null;
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    private List<byte[]> runPass(final Context context, final File workDirectory, final String input, final List<Long> timestamps, final int width, final int height, final String format) {
+        final File directory = new File(workDirectory, "pass-" + passCounter.getAndIncrement());
+        final List<byte[]> passThumbnails = new ArrayList<>(timestamps.size());
+
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException(String.format("Failed to create directory %s.", directory));
+            }
+
+            final List<String> arguments = new ArrayList<>();
+            arguments.add("-y");
+            for (final Long timestamp : timestamps) {
+                arguments.add("-ss");
+                arguments.add(BigDecimal.valueOf(timestamp, 3).toPlainString());
+                arguments.add("-i");
+                arguments.add(toFFmpegInput(context, input));
+            }
+
+            final List<File> outputs = new ArrayList<>(timestamps.size());
+            for (int i = 0; i < timestamps.size(); i++) {
+                final File output = new File(directory, String.format("thumbnail-%04d.%s", i, format));
+                outputs.add(output);
+
+                arguments.addAll(Arrays.asList("-map", i + ":v:0", "-frames:v", "1", "-vf", String.format("scale=%d:%d", width, height)));
+                addEncodeArguments(arguments, format);
+                arguments.add(output.getAbsolutePath());
+            }
+
+            execute(FFmpegSession.create(arguments.toArray(new String[0]), null, null, null, LogRedirectionStrategy.NEVER_PRINT_LOGS));
+
+            // a timestamp past the end leaves its output empty, the others are still valid
+            for (final File output : outputs) {
+                passThumbnails.add((output.length() > 0) ? readFile(output) : null);
+            }
+        } catch (final IOException e) {
+            Log.w(LIBRARY_NAME, String.format("Failed to extract thumbnails of %s.", input), e);
+            while (passThumbnails.size() < timestamps.size()) {
+                passThumbnails.add(null);
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+
+        return passThumbnails;
+    }
+
+    private void execute(final FFmpegSession session) {
+        final long sessionId = session.getSessionId();
+        sessionIds.add(sessionId);
+        try {
+            FFmpegKitConfig.ffmpegExecute(session);
+
+            final long deadline = System.currentTimeMillis() + MESSAGES_IN_TRANSMIT_TIMEOUT;
+            while (FFmpegKitConfig.messagesInTransmit(sessionId) > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            sessionIds.remove(sessionId);
+        }
+    }
+
+    /**
+     * Reads the whole file, java.nio.file.Files is not available before API level 26.
+     */
+    private static byte[] readFile(final File file) throws IOException {
+        final byte[] bytes = new byte[(int) file.length()];
+        try (final InputStream inputStream = new FileInputStream(file)) {
+            int offset = 0;
+            while (offset < bytes.length) {
+                final int count = inputStream.read(bytes, offset, bytes.length - offset);
+                if (count < 0) {
+                    throw new IOException(String.format("Unexpected end of file %s.", file));
+                }
+                offset += count;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the input argument of a single -i option. A SAF parameter can be opened only once,
+     * so content uris get a new one for every input.
+     */
+    private static String toFFmpegInput(final Context context, final String input) {
+        if (input.startsWith(ContentResolver.SCHEME_CONTENT + ":")) {
+            return FFmpegKitConfig.getSafParameterForRead(context, Uri.parse(input));
+        }
+        return input;
+    }
+
+    private static void addEncodeArguments(final List<String> arguments, final String format) {
+        if ("jpg".equals(format)) {
+            arguments.add("-q:v");
+            arguments.add("3");
+        }
+        arguments.add("-update");
+        arguments.add("1");
+    }
+
+    private synchronized byte[] get(final String key) {
+        return thumbnails.get(key);
+    }
+
+    private synchronized void put(final String key, final byte[] thumbnail) {
+        if (thumbnail.length > maxBytes) {
+            return;
+        }
+
+        final byte[] previous = thumbnails.put(key, thumbnail);
+        if (previous != null) {
+            byteCount -= previous.length;
+        }
+        byteCount += thumbnail.length;
+
+        trim();
+    }
+
+    private void trim() {
+        final Iterator<byte[]> iterator = thumbnails.values().iterator();
+        while (byteCount > maxBytes && iterator.hasNext()) {
+            byteCount -= iterator.next().length;
+            iterator.remove();
+        }
+    }
+
+    private static void validateFormat(final String format) {
+        if (!FORMATS.contains(format)) {
+            throw new IllegalArgumentException(String.format("Unsupported thumbnail format %s.", format));
+        }
+    }
+
+    private static String toKey(final FileIdentity identity, final long timestamp, final int width, final int height, final String format) {
+        return identity.getKey() + "|" + timestamp + "|" + width + "x" + height + "|" + format;
+    }
+
+    private static String toSpriteKey(final FileIdentity identity, final List<Long> timestamps, final int width, final int height, final int columns, final String format) {
+        final StringBuilder key = new StringBuilder(identity.getKey()).append("|sprite");
+        for (final Long timestamp : timestamps) {
+            key.append(',').append(timestamp);
+        }
+        return key.append('|').append(width).append('x').append(height).append('|').append(columns).append('|').append(format).toString();
+    }
+
+    private static void deleteDirectory(final File directory) {
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+}
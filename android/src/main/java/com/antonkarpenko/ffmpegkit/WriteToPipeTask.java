@@ -6,46 +6,138 @@ import android.util.Log;
 
 import androidx.annotation.NonNull;
 
+import com.antonkarpenko.ffmpegkit.ReturnCode;
+
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
 
 import io.flutter.plugin.common.MethodChannel;
 
 public class WriteToPipeTask implements Runnable {
+
+    public interface ProgressListener {
+        void onProgress(@NonNull String inputPath, @NonNull String namedPipePath, long bytesWritten, long totalBytes);
+    }
+
+    private static final long TRANSFER_CHUNK_SIZE = 1024 * 1024;
+    private static final long PROGRESS_INTERVAL = 250;
+    private static final int COPY_FAILED_RETURN_CODE = 1;
+
     private final String inputPath;
     private final String namedPipePath;
     private final FFmpegKitFlutterMethodResultHandler resultHandler;
     private final MethodChannel.Result result;
+    private final ProgressListener progressListener;
+    private volatile boolean cancelled;
+    private Thread runner;
+    private boolean pipeOpened;
+    private FileDescriptor unblockDescriptor;
 
-    public WriteToPipeTask(@NonNull final String inputPath, @NonNull final String namedPipePath, @NonNull final FFmpegKitFlutterMethodResultHandler resultHandler, @NonNull final MethodChannel.Result result) {
+    public WriteToPipeTask(@NonNull final String inputPath, @NonNull final String namedPipePath, @NonNull final FFmpegKitFlutterMethodResultHandler resultHandler, @NonNull final MethodChannel.Result result, @NonNull final ProgressListener progressListener) {
         this.inputPath = inputPath;
         this.namedPipePath = namedPipePath;
         this.resultHandler = resultHandler;
         this.result = result;
+        this.progressListener = progressListener;
+    }
+
+    public synchronized void cancel() {
+        cancelled = true;
+
+        if (runner != null) {
+
+            // a copy still opening the pipe is released by opening its other end, e.g. when FFmpeg
+            // failed or was cancelled before it opened the pipe
+            if (!pipeOpened && unblockDescriptor == null) {
+                unblockDescriptor = NamedPipes.openBothEnds(namedPipePath);
+            }
+
+            // interrupting closes the channels, which releases a copy blocked on a full pipe
+            runner.interrupt();
+        }
     }
 
     @Override
     public void run() {
-        final int rc;
+        synchronized (this) {
+            if (cancelled) {
+                resultHandler.successAsync(result, ReturnCode.CANCEL);
+                return;
+            }
+            runner = Thread.currentThread();
+        }
 
         try {
-            final String asyncCommand = "cat " + inputPath + " > " + namedPipePath;
-            Log.d(LIBRARY_NAME, String.format("Starting copy %s to pipe %s operation.", inputPath, namedPipePath));
+            copy();
+        } finally {
+            synchronized (this) {
+                runner = null;
+                NamedPipes.close(unblockDescriptor);
+                unblockDescriptor = null;
+            }
+
+            // do not leak a late cancellation into the next task executed by this thread
+            Thread.interrupted();
+        }
+    }
+
+    private void copy() {
+        Log.d(LIBRARY_NAME, String.format("Starting copy %s to pipe %s operation.", inputPath, namedPipePath));
+
+        final long startTime = System.currentTimeMillis();
+        long bytesWritten = 0;
+
+        // opening a pipe for writing blocks until FFmpeg opens it for reading. The pipe is opened
+        // before the input, like the shell opened it before cat ran, so FFmpeg reads end of file
+        // instead of waiting forever when the input can not be read
+        try (final FileChannel pipeChannel = openPipe();
+             final FileChannel inputChannel = new FileInputStream(inputPath).getChannel()) {
+            final long totalBytes = inputChannel.size();
+            long lastProgressTime = 0;
 
-            final long startTime = System.currentTimeMillis();
+            while (bytesWritten < totalBytes && !cancelled) {
+                final long count = inputChannel.transferTo(bytesWritten, Math.min(TRANSFER_CHUNK_SIZE, totalBytes - bytesWritten), pipeChannel);
 
-            final Process process = Runtime.getRuntime().exec(new String[]{"sh", "-c", asyncCommand});
-            rc = process.waitFor();
+                // the input was truncated while it was copied
+                if (count <= 0) {
+                    break;
+                }
+                bytesWritten += count;
 
-            final long endTime = System.currentTimeMillis();
+                final long now = System.currentTimeMillis();
+                if (now - lastProgressTime >= PROGRESS_INTERVAL || bytesWritten == totalBytes) {
+                    lastProgressTime = now;
+                    progressListener.onProgress(inputPath, namedPipePath, bytesWritten, totalBytes);
+                }
+            }
 
-            Log.d(LIBRARY_NAME, String.format("Copying %s to pipe %s operation completed with rc %d in %d seconds.", inputPath, namedPipePath, rc, (endTime - startTime) / 1000));
+            final int rc = cancelled ? ReturnCode.CANCEL : ReturnCode.SUCCESS;
+
+            Log.d(LIBRARY_NAME, String.format("Copying %s to pipe %s operation completed with rc %d in %d seconds.", inputPath, namedPipePath, rc, (System.currentTimeMillis() - startTime) / 1000));
 
             resultHandler.successAsync(result, rc);
 
-        } catch (final IOException | InterruptedException e) {
+        } catch (final ClosedByInterruptException e) {
+            Log.d(LIBRARY_NAME, String.format("Copying %s to pipe %s operation cancelled after %d bytes.", inputPath, namedPipePath, bytesWritten));
+            resultHandler.successAsync(result, ReturnCode.CANCEL);
+        } catch (final IOException e) {
+
+            // failures are reported with the return code cat failed with before
             Log.e(LIBRARY_NAME, String.format("Copy %s to pipe %s failed with error.", inputPath, namedPipePath), e);
-            resultHandler.errorAsync(result, "WRITE_TO_PIPE_FAILED", e.getMessage());
+            resultHandler.successAsync(result, COPY_FAILED_RETURN_CODE);
+        }
+    }
+
+    private FileChannel openPipe() throws IOException {
+        final FileChannel pipeChannel = new FileOutputStream(namedPipePath).getChannel();
+        synchronized (this) {
+            pipeOpened = true;
         }
+        return pipeChannel;
     }
 
 }
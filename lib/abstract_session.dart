@@ -20,6 +20,7 @@
 import 'package:ffmpeg_kit_flutter_platform_interface/ffmpeg_kit_flutter_platform_interface.dart';
 import 'package:flutter/services.dart';
 
+import 'cursor_page.dart';
 import 'ffmpeg_kit_config.dart';
 import 'ffmpeg_session.dart';
 import 'ffprobe_session.dart';
@@ -32,6 +33,7 @@ import 'return_code.dart';
 import 'session.dart';
 import 'session_state.dart';
 import 'src/ffmpeg_kit_factory.dart';
+import 'statistics.dart';
 
 /// Abstract session implementation which includes common features shared by
 /// "FFmpeg", "FFprobe" and "MediaInformation" sessions.
@@ -59,6 +61,27 @@ abstract class AbstractSession extends Session {
   /// Session specific log redirection strategy.
   LogRedirectionStrategy? _logRedirectionStrategy;
 
+  /// Final state received with the completion event, null until then.
+  SessionState? _finalState;
+
+  /// Final return code received with the completion event.
+  ReturnCode? _finalReturnCode;
+
+  /// Date and time the session ended, received with the completion event.
+  DateTime? _endTime;
+
+  /// Duration received with the completion event.
+  int? _duration;
+
+  /// Fail stack trace received with the completion event.
+  String? _failStackTrace;
+
+  /// Last statistics entry received with the completion event.
+  Statistics? _finalStatistics;
+
+  /// Last log entries received with the completion event.
+  List<Log>? _logTail;
+
   /// Creates a new FFmpeg session using [argumentsArray] and
   /// [logRedirectionStrategy].
   ///
@@ -98,6 +121,40 @@ abstract class AbstractSession extends Session {
     }
   }
 
+  /// Creates a completed session from [sessionMap] received with an enriched
+  /// completion event. The final state, return code, end time, duration and
+  /// fail stack trace are kept, so they are not queried from the platform
+  /// again.
+  ///
+  /// Returns the session created.
+  static Session createCompletedSessionFromMap(
+    Map<dynamic, dynamic> sessionMap,
+  ) {
+    final session =
+        FFmpegKitFactory.mapToSession(sessionMap) as AbstractSession;
+    final int? returnCode = sessionMap["returnCode"];
+    final Map<dynamic, dynamic>? lastStatistics = sessionMap["lastStatistics"];
+    final List<dynamic>? logTail = sessionMap["logTail"];
+
+    session._finalReturnCode =
+        returnCode == null ? null : new ReturnCode(returnCode);
+    session._endTime = FFmpegKitFactory.validDate(sessionMap["endTime"]);
+    session._duration = sessionMap["duration"];
+    session._failStackTrace = sessionMap["failStackTrace"];
+    session._finalStatistics = lastStatistics == null
+        ? null
+        : FFmpegKitFactory.mapToStatistics(lastStatistics);
+    session._logTail = logTail
+        ?.map(
+          (dynamic logObject) =>
+              FFmpegKitFactory.mapToLog(logObject as Map<dynamic, dynamic>),
+        )
+        .toList();
+    session._finalState = SessionState.values[sessionMap["state"]];
+
+    return session;
+  }
+
   /// Creates a new FFmpeg session from [sessionMap], which includes session
   /// fields as map keys.
   ///
@@ -258,6 +315,9 @@ abstract class AbstractSession extends Session {
 
   /// Returns session end time.
   Future<DateTime?> getEndTime() async {
+    if (_finalState != null) {
+      return _endTime;
+    }
     try {
       return _platform
           .abstractSessionGetEndTime(this.getSessionId())
@@ -271,6 +331,9 @@ abstract class AbstractSession extends Session {
   /// Returns time taken to execute this session in milliseconds or zero (0)
   /// if the session is not over yet.
   Future<int> getDuration() async {
+    if (_finalState != null) {
+      return _duration ?? 0;
+    }
     try {
       return _platform
           .abstractSessionGetDuration(this.getSessionId())
@@ -339,6 +402,54 @@ abstract class AbstractSession extends Session {
     }
   }
 
+  /// Returns the log entries of this session starting at [fromIndex], at most
+  /// [maxCount] of them. Pass the next index of the returned page to the
+  /// following call to receive only the entries generated in between.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  Future<CursorPage<Log>> getLogsSince(
+    int fromIndex, [
+    int? maxCount = null,
+  ]) async {
+    try {
+      await FFmpegKitConfig.init();
+      return FFmpegKitFactory.methodChannel.invokeMapMethod<String, dynamic>(
+        'abstractSessionGetLogsSince',
+        {
+          'sessionId': this.getSessionId(),
+          'fromIndex': fromIndex,
+          'maxCount': maxCount,
+        },
+      ).then((logPage) {
+        final List<dynamic> logs = logPage?["logs"] ?? List.empty();
+        return new CursorPage<Log>(
+          logs
+              .map(
+                (dynamic logObject) => FFmpegKitFactory.mapToLog(
+                  logObject as Map<dynamic, dynamic>,
+                ),
+              )
+              .toList(),
+          logPage?["nextIndex"] ?? fromIndex,
+        );
+      });
+    } on PlatformException catch (e, stack) {
+      print("Plugin getLogsSince error: ${e.message}");
+      return Future.error("getLogsSince failed.", stack);
+    }
+  }
+
+  /// Returns the last log entries received with the completion event of
+  /// this session. It is null unless a log tail is enabled with
+  /// [FFmpegKitConfig.setCompletionEventOptions].
+  List<Log>? getLogTail() => _logTail;
+
+  /// Returns the last statistics entry received with the completion event of
+  /// this session. It is null unless statistics are enabled with
+  /// [FFmpegKitConfig.setCompletionEventOptions].
+  Statistics? getFinalStatistics() => _finalStatistics;
+
   /// Returns all log entries generated for this session as a concatenated
   /// string. If there are asynchronous logs that are not delivered yet,
   /// this method waits for them until [waitTimeout].
@@ -375,6 +486,9 @@ abstract class AbstractSession extends Session {
 
   /// Returns the state of the session.
   Future<SessionState> getState() async {
+    if (_finalState != null) {
+      return _finalState!;
+    }
     try {
       return _platform.abstractSessionGetState(this.getSessionId()).then((
         state,
@@ -401,6 +515,9 @@ abstract class AbstractSession extends Session {
   /// set for sessions that end with COMPLETED state. If a session is not
   /// started, still running or failed then this method returns null.
   Future<ReturnCode?> getReturnCode() async {
+    if (_finalState != null) {
+      return _finalReturnCode;
+    }
     try {
       return _platform.abstractSessionGetReturnCode(this.getSessionId()).then((
         returnCode,
@@ -423,6 +540,9 @@ abstract class AbstractSession extends Session {
   /// The stack trace is only set for sessions that end with FAILED state. For
   /// sessions that has COMPLETED state this method returns null.
   Future<String?> getFailStackTrace() async {
+    if (_finalState != null) {
+      return _failStackTrace;
+    }
     try {
       return _platform.abstractSessionGetFailStackTrace(this.getSessionId());
     } on PlatformException catch (e, stack) {
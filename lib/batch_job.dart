@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2019-2021 Taner Sener
+ *
+ * This file is part of FFmpegKit.
+ *
+ * FFmpegKit is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FFmpegKit is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FFmpegKit.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/// A command submitted as part of a batch with
+/// [FFmpegKitConfig.submitBatch]. A job starts once all jobs listed in
+/// dependsOn completed successfully, and is skipped if any of them fails.
+class BatchJob {
+  static const String typeFFmpeg = "ffmpeg";
+  static const String typeFFprobe = "ffprobe";
+
+  String _id;
+  String _type;
+  List<String> _arguments;
+  List<String> _dependsOn;
+
+  BatchJob.ffmpeg(
+    this._id,
+    this._arguments, [
+    List<String> dependsOn = const [],
+  ])  : _type = typeFFmpeg,
+        _dependsOn = dependsOn;
+
+  BatchJob.ffprobe(
+    this._id,
+    this._arguments, [
+    List<String> dependsOn = const [],
+  ])  : _type = typeFFprobe,
+        _dependsOn = dependsOn;
+
+  String getId() => _id;
+
+  String getType() => _type;
+
+  List<String> getArguments() => _arguments;
+
+  List<String> getDependsOn() => _dependsOn;
+
+  Map<String, dynamic> toMap() => {
+        'id': _id,
+        'type': _type,
+        'arguments': _arguments,
+        'dependsOn': _dependsOn,
+      };
+}
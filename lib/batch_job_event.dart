@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2019-2021 Taner Sener
+ *
+ * This file is part of FFmpegKit.
+ *
+ * FFmpegKit is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FFmpegKit is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FFmpegKit.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import 'return_code.dart';
+
+/// Start or completion of a single job of a batch.
+class BatchJobEvent {
+  static const String statusStarted = "started";
+  static const String statusCompleted = "completed";
+  static const String statusFailed = "failed";
+  static const String statusSkipped = "skipped";
+
+  int _batchId;
+  String _jobId;
+  int? _sessionId;
+  String _status;
+  ReturnCode? _returnCode;
+  int _remaining;
+
+  BatchJobEvent(
+    this._batchId,
+    this._jobId,
+    this._sessionId,
+    this._status,
+    this._returnCode,
+    this._remaining,
+  );
+
+  int getBatchId() => _batchId;
+
+  String getJobId() => _jobId;
+
+  /// Session id of the job, null for skipped jobs which never got a session.
+  int? getSessionId() => _sessionId;
+
+  /// One of [statusStarted], [statusCompleted], [statusFailed] or
+  /// [statusSkipped].
+  String getStatus() => _status;
+
+  /// Return code of the session, null for started and skipped jobs.
+  ReturnCode? getReturnCode() => _returnCode;
+
+  /// Number of jobs of the batch which have not finished yet.
+  int getRemaining() => _remaining;
+}
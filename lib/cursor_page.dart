@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2019-2021 Taner Sener
+ *
+ * This file is part of FFmpegKit.
+ *
+ * FFmpegKit is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FFmpegKit is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FFmpegKit.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/// A window of session entries together with the index to continue from.
+class CursorPage<T> {
+  List<T> _items;
+  int _nextIndex;
+
+  CursorPage(this._items, this._nextIndex);
+
+  List<T> getItems() => _items;
+
+  /// Index to pass as `fromIndex` to fetch the entries following this page.
+  int getNextIndex() => _nextIndex;
+}
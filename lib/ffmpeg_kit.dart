@@ -82,6 +82,60 @@ class FFmpegKit {
     return session;
   }
 
+  /// Starts an asynchronous transcode of [input] into [output], which splits
+  /// [input] at keyframes into [segmentCount] segments, encodes them in
+  /// parallel with [encodeArguments] and joins them without re-encoding.
+  /// [segmentCount] defaults to the number of cores. [output] is overwritten
+  /// if it exists.
+  ///
+  /// The returned session stands for the whole transcode: [logCallback] and
+  /// [statisticsCallback] receive the logs and the summed statistics of all
+  /// segments, [completeCallback] is invoked once the segments are joined.
+  /// Cancelling the session cancels all segments. Audio encoded this way may
+  /// contain short gaps at segment boundaries, so prefer copying audio or
+  /// transcoding it separately.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<FFmpegSession> executeSegmentedAsync(
+    String input,
+    String output,
+    List<String> encodeArguments, [
+    FFmpegSessionCompleteCallback? completeCallback = null,
+    LogCallback? logCallback = null,
+    StatisticsCallback? statisticsCallback = null,
+    int? segmentCount = null,
+  ]) async {
+    try {
+      await FFmpegKitConfig.init();
+      return FFmpegKitFactory.methodChannel.invokeMethod<Map<dynamic, dynamic>>(
+        'segmentedTranscode',
+        {
+          'input': input,
+          'output': output,
+          'encodeArguments': encodeArguments,
+          'segmentCount': segmentCount,
+        },
+      ).then((sessionMap) {
+        final session =
+            FFmpegKitFactory.mapToSession(sessionMap!) as FFmpegSession;
+        final sessionId = session.getSessionId();
+
+        FFmpegKitFactory.setFFmpegSessionCompleteCallback(
+          sessionId,
+          completeCallback,
+        );
+        FFmpegKitFactory.setLogCallback(sessionId, logCallback);
+        FFmpegKitFactory.setStatisticsCallback(sessionId, statisticsCallback);
+
+        return session;
+      });
+    } on PlatformException catch (e, stack) {
+      print("Plugin executeSegmentedAsync error: ${e.message}");
+      return Future.error("executeSegmentedAsync failed.", stack);
+    }
+  }
+
   /// Cancels the session specified with [sessionId].
   static Future<void> cancel([int? sessionId = null]) async {
     try {
@@ -17,9 +17,16 @@
  * along with FFmpegKit.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import 'dart:async';
+import 'dart:typed_data';
+
 import 'package:ffmpeg_kit_flutter_platform_interface/ffmpeg_kit_flutter_platform_interface.dart';
+
 import 'package:flutter/services.dart';
 
+import 'batch_job.dart';
+import 'batch_job_callback.dart';
+import 'batch_submission.dart';
 import 'ffmpeg_session.dart';
 import 'ffmpeg_session_complete_callback.dart';
 import 'ffprobe_session.dart';
@@ -27,14 +34,21 @@ import 'ffprobe_session_complete_callback.dart';
 import 'level.dart';
 import 'log_callback.dart';
 import 'log_redirection_strategy.dart';
+import 'media_information_cache_statistics.dart';
 import 'media_information_session.dart';
 import 'media_information_session_complete_callback.dart';
+import 'pipe_progress_callback.dart';
+import 'plugin_metrics.dart';
 import 'session.dart';
+import 'session_page.dart';
 import 'session_state.dart';
+import 'session_states.dart';
+import 'session_summary.dart';
 import 'signal.dart';
 import 'src/ffmpeg_kit_factory.dart';
 import 'src/ffmpeg_kit_flutter_initializer.dart';
 import 'statistics_callback.dart';
+import 'thumbnail_kit.dart';
 
 /// Configuration class of "FFmpegKit" library.
 class FFmpegKitConfig {
@@ -328,6 +342,7 @@ class FFmpegKitConfig {
   /// Sets a global callback to redirect FFmpeg/FFprobe logs.
   static void enableLogCallback([LogCallback? logCallback = null]) {
     FFmpegKitFactory.setGlobalLogCallback(logCallback);
+    FFmpegKitFactory.updateGlobalLogFilter(_globalLogRedirectionStrategy);
   }
 
   /// Sets a global callback to redirect FFmpeg statistics.
@@ -381,6 +396,53 @@ class FFmpegKitConfig {
       getMediaInformationSessionCompleteCallback() =>
           FFmpegKitFactory.getGlobalMediaInformationSessionCompleteCallback();
 
+  /// Returns the number of FFmpeg, FFprobe and pipe tasks that can run in
+  /// parallel, keyed by "ffmpegConcurrencyLimit", "ffprobeConcurrencyLimit"
+  /// and "pipeConcurrencyLimit".
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<Map<String, int>?> getConcurrencyLimits() async {
+    try {
+      await init();
+      return FFmpegKitFactory.methodChannel
+          .invokeMapMethod<String, int>('getConcurrencyLimits');
+    } on PlatformException catch (e, stack) {
+      print("Plugin getConcurrencyLimits error: ${e.message}");
+      return Future.error("getConcurrencyLimits failed.", stack);
+    }
+  }
+
+  /// Sets how many FFmpeg, FFprobe/MediaInformation and pipe tasks can run in
+  /// parallel. Each kind of task is queued separately, so FFprobe sessions
+  /// never wait behind FFmpeg sessions. Limits that are not provided are left
+  /// unchanged; all limits default to the number of processor cores. Tasks of
+  /// all Flutter engines in the application share the same queues, so the
+  /// limits apply to all engines.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<void> setConcurrencyLimits([
+    int? ffmpegConcurrencyLimit = null,
+    int? ffprobeConcurrencyLimit = null,
+    int? pipeConcurrencyLimit = null,
+  ]) async {
+    try {
+      await init();
+      return FFmpegKitFactory.methodChannel.invokeMethod<void>(
+        'setConcurrencyLimits',
+        {
+          'ffmpegConcurrencyLimit': ffmpegConcurrencyLimit,
+          'ffprobeConcurrencyLimit': ffprobeConcurrencyLimit,
+          'pipeConcurrencyLimit': pipeConcurrencyLimit,
+        },
+      );
+    } on PlatformException catch (e, stack) {
+      print("Plugin setConcurrencyLimits error: ${e.message}");
+      return Future.error("setConcurrencyLimits failed.", stack);
+    }
+  }
+
   /// Returns the current log level.
   static int getLogLevel() => _activeLogLevel;
 
@@ -645,6 +707,156 @@ class FFmpegKitConfig {
     }
   }
 
+  /// Returns [limit] sessions of the session history starting at [offset],
+  /// optionally only the ones in [sessionState] and of [sessionType]. The
+  /// total number of matching sessions is returned with the page.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<SessionPage<Session>> getSessionsPage(
+    int offset,
+    int limit, [
+    SessionState? sessionState = null,
+    SessionType? sessionType = null,
+  ]) async {
+    try {
+      await init();
+      return _getSessionsPage(offset, limit, sessionState, sessionType, false)
+          .then(
+        (sessionPage) => new SessionPage<Session>(
+          _getSessionPageItems(sessionPage)
+              .map(
+                (dynamic sessionObject) => FFmpegKitFactory.mapToSession(
+                  sessionObject as Map<dynamic, dynamic>,
+                ),
+              )
+              .toList(),
+          sessionPage?["total"] ?? 0,
+        ),
+      );
+    } on PlatformException catch (e, stack) {
+      print("Plugin getSessionsPage error: ${e.message}");
+      return Future.error("getSessionsPage failed.", stack);
+    }
+  }
+
+  /// Returns summaries of [limit] sessions of the session history starting
+  /// at [offset], optionally only the ones in [sessionState] and of
+  /// [sessionType]. Summaries do not include commands and media information,
+  /// which keeps listing a large session history cheap.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<SessionPage<SessionSummary>> getSessionSummaries(
+    int offset,
+    int limit, [
+    SessionState? sessionState = null,
+    SessionType? sessionType = null,
+  ]) async {
+    try {
+      await init();
+      return _getSessionsPage(offset, limit, sessionState, sessionType, true)
+          .then(
+        (sessionPage) => new SessionPage<SessionSummary>(
+          _getSessionPageItems(sessionPage)
+              .map(
+                (dynamic sessionObject) => FFmpegKitFactory.mapToSessionSummary(
+                  sessionObject as Map<dynamic, dynamic>,
+                ),
+              )
+              .toList(),
+          sessionPage?["total"] ?? 0,
+        ),
+      );
+    } on PlatformException catch (e, stack) {
+      print("Plugin getSessionSummaries error: ${e.message}");
+      return Future.error("getSessionSummaries failed.", stack);
+    }
+  }
+
+  static Future<Map<String, dynamic>?> _getSessionsPage(
+    int offset,
+    int limit,
+    SessionState? sessionState,
+    SessionType? sessionType,
+    bool summary,
+  ) =>
+      FFmpegKitFactory.methodChannel.invokeMapMethod<String, dynamic>(
+        'getSessionsPage',
+        {
+          'offset': offset,
+          'limit': limit,
+          'state': sessionState?.index,
+          'type': sessionType == null ? null : sessionType.index + 1,
+          'summary': summary,
+        },
+      );
+
+  static List<dynamic> _getSessionPageItems(
+    Map<String, dynamic>? sessionPage,
+  ) =>
+      sessionPage?["sessions"] ?? List.empty();
+
+  /// Submits [jobs] in a single call. Each job is executed as soon as the
+  /// jobs it depends on have completed successfully, its session is created
+  /// when it starts. Jobs depending on a failed job are skipped.
+  /// [batchJobCallback] is invoked for each job which starts, completes,
+  /// fails or is skipped.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<BatchSubmission> submitBatch(
+    List<BatchJob> jobs, [
+    BatchJobCallback? batchJobCallback = null,
+  ]) async {
+    try {
+      await init();
+      return FFmpegKitFactory.methodChannel.invokeMapMethod<String, dynamic>(
+        'submitBatch',
+        {'jobs': jobs.map((job) => job.toMap()).toList()},
+      ).then((batch) {
+        final int batchId = batch?["batchId"];
+        if (jobs.isNotEmpty) {
+          FFmpegKitFactory.setBatchJobCallback(batchId, batchJobCallback);
+        }
+        return new BatchSubmission(batchId);
+      });
+    } on PlatformException catch (e, stack) {
+      print("Plugin submitBatch error: ${e.message}");
+      return Future.error("submitBatch failed.", stack);
+    }
+  }
+
+  /// Returns the fields selected by [fieldMask] of all [sessionIds] in a
+  /// single call, as parallel columns. See [SessionStates] for the field
+  /// constants.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<SessionStates> getSessionStates(
+    List<int> sessionIds, [
+    int fieldMask = SessionStates.fieldAll,
+  ]) async {
+    try {
+      await init();
+      return FFmpegKitFactory.methodChannel.invokeMapMethod<String, dynamic>(
+        'getSessionStates',
+        {'sessionIds': sessionIds, 'fieldMask': fieldMask},
+      ).then(
+        (sessionStates) => new SessionStates(
+          sessionStates?["sessionIds"] ?? new Int64List(0),
+          sessionStates?["states"],
+          sessionStates?["returnCodes"],
+          sessionStates?["durations"],
+          sessionStates?["endTimes"],
+        ),
+      );
+    } on PlatformException catch (e, stack) {
+      print("Plugin getSessionStates error: ${e.message}");
+      return Future.error("getSessionStates failed.", stack);
+    }
+  }
+
   /// Returns the active log redirection strategy.
   static LogRedirectionStrategy getLogRedirectionStrategy() =>
       _globalLogRedirectionStrategy;
@@ -654,6 +866,7 @@ class FFmpegKitConfig {
     LogRedirectionStrategy logRedirectionStrategy,
   ) {
     _globalLogRedirectionStrategy = logRedirectionStrategy;
+    FFmpegKitFactory.updateGlobalLogFilter(_globalLogRedirectionStrategy);
   }
 
   /// Returns the number of messages that are not transmitted to the
@@ -779,6 +992,31 @@ class FFmpegKitConfig {
     }
   }
 
+  /// Delivers logs to Dart in batches instead of one event per log line.
+  ///
+  /// Logs of a session are collected until [maxBatchSize] entries are
+  /// buffered or the oldest entry has waited [maxBatchLatency] milliseconds,
+  /// then sent as a single event. Use a [maxBatchSize] of 1 to restore one
+  /// event per log line.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<void> setLogBatchOptions(
+    int maxBatchSize,
+    int maxBatchLatency,
+  ) async {
+    try {
+      await init();
+      return FFmpegKitFactory.methodChannel.invokeMethod<void>(
+        'setLogBatchOptions',
+        {'maxBatchSize': maxBatchSize, 'maxBatchLatency': maxBatchLatency},
+      );
+    } on PlatformException catch (e, stack) {
+      print("Plugin setLogBatchOptions error: ${e.message}");
+      return Future.error("setLogBatchOptions failed.", stack);
+    }
+  }
+
   /// Enables statistics.
   static Future<void> enableStatistics() async {
     try {
@@ -801,6 +1039,47 @@ class FFmpegKitConfig {
     }
   }
 
+  /// Limits how often statistics are delivered to Dart.
+  ///
+  /// Only the latest statistics of each session are kept and sent at most
+  /// [maxStatisticsRate] times per second; the last statistics of a session
+  /// are always sent before its complete callback. Use 0 to deliver every
+  /// statistics received.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<void> setStatisticsDeliveryRate(int maxStatisticsRate) async {
+    try {
+      await init();
+      return FFmpegKitFactory.methodChannel.invokeMethod<void>(
+        'setStatisticsDeliveryRate',
+        {'maxStatisticsRate': maxStatisticsRate},
+      );
+    } on PlatformException catch (e, stack) {
+      print("Plugin setStatisticsDeliveryRate error: ${e.message}");
+      return Future.error("setStatisticsDeliveryRate failed.", stack);
+    }
+  }
+
+  /// Sends log and statistics events as compact binary messages instead of
+  /// maps, which reduces the encoding cost on the native side and the
+  /// decoding cost in Dart when many events are delivered.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<void> setCompactEvents(bool compactEvents) async {
+    try {
+      await init();
+      return FFmpegKitFactory.methodChannel.invokeMethod<void>(
+        'setCompactEvents',
+        {'compactEvents': compactEvents},
+      );
+    } on PlatformException catch (e, stack) {
+      print("Plugin setCompactEvents error: ${e.message}");
+      return Future.error("setCompactEvents failed.", stack);
+    }
+  }
+
   /// Returns the platform name the library is loaded on.
   static Future<String?> getPlatform() async {
     try {
@@ -813,6 +1092,9 @@ class FFmpegKitConfig {
   }
 
   /// Writes [inputPath] to [pipePath].
+  ///
+  /// Returns zero on success, 255 when cancelled and a nonzero code when the
+  /// input could not be read or the pipe could not be written.
   static Future<int?> writeToPipe(String inputPath, String pipePath) async {
     try {
       await init();
@@ -823,6 +1105,390 @@ class FFmpegKitConfig {
     }
   }
 
+  /// Cancels an ongoing [writeToPipe] operation that writes to [pipePath].
+  /// The cancelled operation completes with the cancel return code.
+  ///
+  /// Returns true if an operation was found for [pipePath].
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<bool?> cancelWriteToPipe(String pipePath) async {
+    try {
+      await init();
+      return FFmpegKitFactory.methodChannel.invokeMethod<bool>(
+        'cancelWriteToPipe',
+        {'pipe': pipePath},
+      );
+    } on PlatformException catch (e, stack) {
+      print("Plugin cancelWriteToPipe error: ${e.message}");
+      return Future.error("cancelWriteToPipe failed.", stack);
+    }
+  }
+
+  /// Opens a writer that pushes chunks given to [writeToPipeChunk] into
+  /// [pipePath] on a dedicated native thread, without creating a file first.
+  ///
+  /// At most [capacity] chunks are queued natively. When the queue is full,
+  /// [writeToPipeChunk] completes only after FFmpeg has consumed enough data,
+  /// so awaiting each write keeps the producer in step with FFmpeg. A write
+  /// started while the previous one is still held back fails.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<void> openPipeWriter(
+    String pipePath, [
+    int? capacity = null,
+  ]) async {
+    try {
+      await init();
+      return FFmpegKitFactory.methodChannel.invokeMethod<void>(
+        'openPipeWriter',
+        {'pipe': pipePath, 'capacity': capacity},
+      );
+    } on PlatformException catch (e, stack) {
+      print("Plugin openPipeWriter error: ${e.message}");
+      return Future.error("openPipeWriter failed.", stack);
+    }
+  }
+
+  /// Queues [chunk] to be written into [pipePath] by the writer opened with
+  /// [openPipeWriter].
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<void> writeToPipeChunk(String pipePath, Uint8List chunk) async {
+    try {
+      await init();
+      return FFmpegKitFactory.methodChannel.invokeMethod<void>(
+        'writeToPipeChunk',
+        {'pipe': pipePath, 'chunk': chunk},
+      );
+    } on PlatformException catch (e, stack) {
+      print("Plugin writeToPipeChunk error: ${e.message}");
+      return Future.error("writeToPipeChunk failed.", stack);
+    }
+  }
+
+  /// Closes the writer opened with [openPipeWriter] after all queued chunks
+  /// are written, which signals end of input to FFmpeg.
+  ///
+  /// Returns the number of bytes written into the pipe.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<int?> closePipeWriter(String pipePath) async {
+    try {
+      await init();
+      return FFmpegKitFactory.methodChannel.invokeMethod<int>(
+        'closePipeWriter',
+        {'pipe': pipePath},
+      );
+    } on PlatformException catch (e, stack) {
+      print("Plugin closePipeWriter error: ${e.message}");
+      return Future.error("closePipeWriter failed.", stack);
+    }
+  }
+
+  /// Includes the last statistics entry and the last [logTailSize] log
+  /// entries in session completion events. Sessions passed to complete
+  /// callbacks then return them from getFinalStatistics and getLogTail,
+  /// without further platform calls. With a log tail the completion event
+  /// waits up to 5 seconds for log entries still in transmit, the same way
+  /// getAllLogs does.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<void> setCompletionEventOptions(
+    bool includeStatistics,
+    int logTailSize,
+  ) async {
+    try {
+      await init();
+      return FFmpegKitFactory.methodChannel.invokeMethod<void>(
+        'setCompletionEventOptions',
+        {'includeStatistics': includeStatistics, 'logTailSize': logTailSize},
+      );
+    } on PlatformException catch (e, stack) {
+      print("Plugin setCompletionEventOptions error: ${e.message}");
+      return Future.error("setCompletionEventOptions failed.", stack);
+    }
+  }
+
+  /// Keeps only the last [memoryLineCount] log lines of each session in
+  /// memory and appends older lines to a file in the application cache
+  /// directory. The session log methods keep returning all lines, reading the
+  /// older ones back from disk. Only sessions created after this call are
+  /// stored this way. Zero turns the storage off.
+  ///
+  /// The native log list of each stored session is trimmed to the same recent
+  /// lines, so a long session no longer keeps every line in memory. Methods
+  /// returning all logs at once still build the whole list, page through long
+  /// sessions with `getLogsSince` instead.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<void> setSessionLogStorage(int memoryLineCount) async {
+    try {
+      await init();
+      return FFmpegKitFactory.methodChannel.invokeMethod<void>(
+        'setSessionLogStorage',
+        {'memoryLineCount': memoryLineCount},
+      );
+    } on PlatformException catch (e, stack) {
+      print("Plugin setSessionLogStorage error: ${e.message}");
+      return Future.error("setSessionLogStorage failed.", stack);
+    }
+  }
+
+  /// Returns the counters and latency histograms of the native plugin:
+  /// queue depths and task times of the execution lanes, emitted and dropped
+  /// events, main thread delivery latency and per method call latency.
+  /// Recording them is lock free, so they are always collected.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<PluginMetrics> getPluginMetrics() async {
+    try {
+      await init();
+      return FFmpegKitFactory.methodChannel
+          .invokeMethod<Map<dynamic, dynamic>>('getPluginMetrics')
+          .then(PluginMetrics.fromMap);
+    } on PlatformException catch (e, stack) {
+      print("Plugin getPluginMetrics error: ${e.message}");
+      return Future.error("getPluginMetrics failed.", stack);
+    }
+  }
+
+  /// Resets the counters and latency histograms returned by
+  /// [getPluginMetrics].
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<void> resetPluginMetrics() async {
+    try {
+      await init();
+      return FFmpegKitFactory.methodChannel.invokeMethod<void>(
+        'resetPluginMetrics',
+      );
+    } on PlatformException catch (e, stack) {
+      print("Plugin resetPluginMetrics error: ${e.message}");
+      return Future.error("resetPluginMetrics failed.", stack);
+    }
+  }
+
+  /// Sets the memory budget of the native thumbnail cache, which keeps the
+  /// thumbnails and sprite sheets extracted by [ThumbnailKit]. Least recently
+  /// used entries are evicted first, zero disables the cache.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<void> setThumbnailCacheMaxBytes(int maxBytes) async {
+    try {
+      await init();
+      return FFmpegKitFactory.methodChannel.invokeMethod<void>(
+        'setThumbnailCacheMaxBytes',
+        {'maxBytes': maxBytes},
+      );
+    } on PlatformException catch (e, stack) {
+      print("Plugin setThumbnailCacheMaxBytes error: ${e.message}");
+      return Future.error("setThumbnailCacheMaxBytes failed.", stack);
+    }
+  }
+
+  /// Removes all entries from the native thumbnail cache.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<void> clearThumbnailCache() async {
+    try {
+      await init();
+      return FFmpegKitFactory.methodChannel.invokeMethod<void>(
+        'clearThumbnailCache',
+      );
+    } on PlatformException catch (e, stack) {
+      print("Plugin clearThumbnailCache error: ${e.message}");
+      return Future.error("clearThumbnailCache failed.", stack);
+    }
+  }
+
+  /// Configures the native media information cache, which keeps the result of
+  /// every media information probe of a local file or content uri until the
+  /// file changes. [maxBytes] is the memory budget, zero disables the cache.
+  /// When [diskCache] is true, entries are also kept in the application cache
+  /// directory and survive application restarts.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<void> setMediaInformationCacheOptions(
+    int maxBytes, [
+    bool diskCache = false,
+  ]) async {
+    try {
+      await init();
+      return FFmpegKitFactory.methodChannel.invokeMethod<void>(
+        'setMediaInformationCacheOptions',
+        {'maxBytes': maxBytes, 'diskCache': diskCache},
+      );
+    } on PlatformException catch (e, stack) {
+      print("Plugin setMediaInformationCacheOptions error: ${e.message}");
+      return Future.error("setMediaInformationCacheOptions failed.", stack);
+    }
+  }
+
+  /// Returns the counters of the native media information cache.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<MediaInformationCacheStatistics>
+      getMediaInformationCacheStatistics() async {
+    try {
+      await init();
+      return FFmpegKitFactory.methodChannel.invokeMapMethod<String, dynamic>(
+        'getMediaInformationCacheStatistics',
+      ).then(
+        (statistics) => new MediaInformationCacheStatistics(
+          statistics?["hitCount"] ?? 0,
+          statistics?["missCount"] ?? 0,
+          statistics?["entryCount"] ?? 0,
+          statistics?["byteCount"] ?? 0,
+        ),
+      );
+    } on PlatformException catch (e, stack) {
+      print("Plugin getMediaInformationCacheStatistics error: ${e.message}");
+      return Future.error("getMediaInformationCacheStatistics failed.", stack);
+    }
+  }
+
+  /// Removes all entries of the native media information cache, including
+  /// the ones kept on disk.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<void> clearMediaInformationCache() async {
+    try {
+      await init();
+      return FFmpegKitFactory.methodChannel.invokeMethod<void>(
+        'clearMediaInformationCache',
+      );
+    } on PlatformException catch (e, stack) {
+      print("Plugin clearMediaInformationCache error: ${e.message}");
+      return Future.error("clearMediaInformationCache failed.", stack);
+    }
+  }
+
+  /// Sets a global callback to receive the progress of [writeToPipe]
+  /// operations.
+  ///
+  /// Note that progress is only reported on Android.
+  static void enablePipeProgressCallback([
+    PipeProgressCallback? pipeProgressCallback = null,
+  ]) {
+    FFmpegKitFactory.setGlobalPipeProgressCallback(pipeProgressCallback);
+  }
+
+  /// Reads the data FFmpeg writes into [pipePath] and delivers it as a stream
+  /// of chunks of at most [bufferSize] bytes, while the session is still
+  /// running.
+  ///
+  /// At most [credits] chunks are in flight between the native reader and the
+  /// listener. When the listener pauses the subscription or falls behind,
+  /// the native reader stops reading and FFmpeg waits on the pipe. Cancelling
+  /// the subscription closes the native reader.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Stream<Uint8List> readFromPipe(
+    String pipePath, [
+    int? bufferSize = null,
+    int? credits = null,
+  ]) {
+    late StreamController<Uint8List> controller;
+    StreamSubscription<dynamic>? subscription;
+    final int initialCredits = (credits != null && credits > 0) ? credits : 4;
+    int consumedCredits = 0;
+
+    void grantCredits() {
+      if (consumedCredits > 0 && !controller.isPaused) {
+        final count = consumedCredits;
+        consumedCredits = 0;
+        FFmpegKitFactory.methodChannel.invokeMethod<bool>(
+          'requestPipeReaderChunks',
+          {'pipe': pipePath, 'count': count},
+        ).catchError((e) {
+          print("Plugin requestPipeReaderChunks error: $e");
+          return false;
+        });
+      }
+    }
+
+    void onPipeEvent(dynamic event) {
+      if (event is! Map || event['pipe'] != pipePath) {
+        return;
+      }
+
+      if (event['done'] == true) {
+        subscription?.cancel();
+        subscription = null;
+        if (event['error'] != null) {
+          controller.addError("readFromPipe failed: ${event['error']}");
+        }
+        controller.close();
+        return;
+      }
+
+      controller.add(event['chunk']);
+
+      // credits are returned in groups to keep the method channel traffic low
+      consumedCredits++;
+      if (consumedCredits * 2 >= initialCredits) {
+        grantCredits();
+      }
+    }
+
+    controller = StreamController<Uint8List>(
+      onListen: () async {
+        subscription = FFmpegKitFactory.pipeEventStream.listen(
+          onPipeEvent,
+          onError: controller.addError,
+        );
+        try {
+          await init();
+          await FFmpegKitFactory.methodChannel.invokeMethod<void>(
+            'openPipeReader',
+            {
+              'pipe': pipePath,
+              'bufferSize': bufferSize,
+              'credits': initialCredits,
+            },
+          );
+        } on PlatformException catch (e, stack) {
+          print("Plugin openPipeReader error: ${e.message}");
+          subscription?.cancel();
+          subscription = null;
+          controller.addError("readFromPipe failed.", stack);
+          controller.close();
+        }
+      },
+      onResume: grantCredits,
+      onCancel: () async {
+        if (subscription != null) {
+          subscription?.cancel();
+          subscription = null;
+          try {
+            await FFmpegKitFactory.methodChannel.invokeMethod<bool>(
+              'closePipeReader',
+              {'pipe': pipePath},
+            );
+          } on PlatformException catch (e) {
+            print("Plugin closePipeReader error: ${e.message}");
+          }
+        }
+      },
+    );
+
+    return controller.stream;
+  }
+
   /// Displays the native file dialog to select a file in read mode. If a file
   /// is selected then this method returns the Structured Access Framework Uri
   /// ("content:…") for that file.
@@ -21,6 +21,7 @@ import 'package:ffmpeg_kit_flutter_platform_interface/ffmpeg_kit_flutter_platfor
 import 'package:flutter/services.dart';
 
 import 'abstract_session.dart';
+import 'cursor_page.dart';
 import 'ffmpeg_kit_config.dart';
 import 'ffmpeg_session_complete_callback.dart';
 import 'log_callback.dart';
@@ -117,9 +118,49 @@ class FFmpegSession extends AbstractSession {
     }
   }
 
+  /// Returns the statistics entries of this session starting at [fromIndex],
+  /// at most [maxCount] of them. Pass the next index of the returned page to
+  /// the following call to receive only the entries generated in between.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  Future<CursorPage<Statistics>> getStatisticsSince(
+    int fromIndex, [
+    int? maxCount = null,
+  ]) async {
+    try {
+      await FFmpegKitConfig.init();
+      return FFmpegKitFactory.methodChannel.invokeMapMethod<String, dynamic>(
+        'ffmpegSessionGetStatisticsSince',
+        {
+          'sessionId': this.getSessionId(),
+          'fromIndex': fromIndex,
+          'maxCount': maxCount,
+        },
+      ).then((statisticsPage) {
+        final List<dynamic> statistics =
+            statisticsPage?["statistics"] ?? List.empty();
+        return new CursorPage<Statistics>(
+          statistics
+              .map(
+                (dynamic statisticsObject) => FFmpegKitFactory.mapToStatistics(
+                  statisticsObject as Map<dynamic, dynamic>,
+                ),
+              )
+              .toList(),
+          statisticsPage?["nextIndex"] ?? fromIndex,
+        );
+      });
+    } on PlatformException catch (e, stack) {
+      print("Plugin getStatisticsSince error: ${e.message}");
+      return Future.error("getStatisticsSince failed.", stack);
+    }
+  }
+
   /// Returns the last received statistics entry.
   Future<Statistics?> getLastReceivedStatistics() async =>
-      this.getStatistics().then((statistics) {
+      this.getFinalStatistics() ??
+      await this.getStatistics().then((statistics) {
         if (statistics.isNotEmpty) {
           return statistics[statistics.length - 1];
         } else {
@@ -24,8 +24,10 @@ import 'ffmpeg_kit_config.dart';
 import 'ffprobe_session.dart';
 import 'ffprobe_session_complete_callback.dart';
 import 'log_callback.dart';
+import 'media_information.dart';
 import 'media_information_session.dart';
 import 'media_information_session_complete_callback.dart';
+import 'media_probe_callback.dart';
 import 'src/ffmpeg_kit_factory.dart';
 
 /// Main class to run "FFprobe" commands.
@@ -247,6 +249,120 @@ class FFprobeKit {
     return session;
   }
 
+  /// Extracts media information of all [inputs], which can be file paths,
+  /// file uris or SAF content uris, in a single call. Inputs are probed in
+  /// parallel, at most [maxInFlight] at a time, on a pool sized to the number
+  /// of cores. [mediaProbeCallback] is invoked as soon as each input has been
+  /// probed, so results arrive in completion order. When [projection] is
+  /// given, only those fields are extracted, see
+  /// [getProjectedMediaInformation]. Returns the probe id.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<int> probeMediaInformation(
+    List<String> inputs,
+    MediaProbeCallback mediaProbeCallback, [
+    int? maxInFlight = null,
+    int? waitTimeout = null,
+    List<String>? projection = null,
+  ]) async {
+    try {
+      await FFmpegKitConfig.init();
+      return FFmpegKitFactory.methodChannel.invokeMethod<int>(
+        'probeMediaInformation',
+        {
+          'inputs': inputs,
+          'maxInFlight': maxInFlight,
+          'waitTimeout': waitTimeout,
+          'projection': projection,
+        },
+      ).then((probeId) {
+        if (inputs.isNotEmpty) {
+          FFmpegKitFactory.setMediaProbeCallback(probeId!, mediaProbeCallback);
+        }
+        return probeId!;
+      });
+    } on PlatformException catch (e, stack) {
+      print("Plugin probeMediaInformation error: ${e.message}");
+      return Future.error("probeMediaInformation failed.", stack);
+    }
+  }
+
+  /// Extracts only the media information fields listed in [projection] for
+  /// the file at [path]. Fields are given as paths like "format.duration",
+  /// "streams[*].width" or "streams[*].tags.language", where "[*]" marks a
+  /// list. When all paths refer to format, stream or chapter fields, FFprobe
+  /// is told to collect only those fields, which makes the probe faster, too.
+  /// Returns null if media information can not be extracted.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<MediaInformation?> getProjectedMediaInformation(
+    String path,
+    List<String> projection, [
+    int? waitTimeout = null,
+  ]) async {
+    try {
+      await FFmpegKitConfig.init();
+      return FFmpegKitFactory.methodChannel
+          .invokeMethod<Map<dynamic, dynamic>>(
+            'getProjectedMediaInformation',
+            {
+              'path': path,
+              'projection': projection,
+              'waitTimeout': waitTimeout,
+            },
+          )
+          .then(FFmpegKitFactory.mapToNullableMediaInformation);
+    } on PlatformException catch (e, stack) {
+      print("Plugin getProjectedMediaInformation error: ${e.message}");
+      return Future.error("getProjectedMediaInformation failed.", stack);
+    }
+  }
+
+  /// Stops a [probeMediaInformation] call from probing further inputs.
+  /// Inputs being probed complete normally, the others are reported with an
+  /// error. Returns false if the probe has already completed.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<bool> cancelMediaProbe(int probeId) async {
+    try {
+      await FFmpegKitConfig.init();
+      return FFmpegKitFactory.methodChannel
+          .invokeMethod<bool>('cancelMediaProbe', {'probeId': probeId})
+          .then((cancelled) => cancelled ?? false);
+    } on PlatformException catch (e, stack) {
+      print("Plugin cancelMediaProbe error: ${e.message}");
+      return Future.error("cancelMediaProbe failed.", stack);
+    }
+  }
+
+  /// Returns the media information of an earlier [getMediaInformation] call
+  /// for the file at [path], without running FFprobe again. Returns null if
+  /// the file was not probed before, changed since it was probed or its
+  /// identity can not be determined, e.g. for network urls and SAF protocol
+  /// inputs.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<MediaInformation?> getCachedMediaInformation(
+    String path,
+  ) async {
+    try {
+      await FFmpegKitConfig.init();
+      return FFmpegKitFactory.methodChannel
+          .invokeMethod<Map<dynamic, dynamic>>(
+            'getCachedMediaInformation',
+            {'path': path},
+          )
+          .then(FFmpegKitFactory.mapToNullableMediaInformation);
+    } on PlatformException catch (e, stack) {
+      print("Plugin getCachedMediaInformation error: ${e.message}");
+      return Future.error("getCachedMediaInformation failed.", stack);
+    }
+  }
+
   /// Lists all FFprobe sessions in the session history.
   static Future<List<FFprobeSession>> listFFprobeSessions() async {
     try {
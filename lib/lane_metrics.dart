@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2019-2021 Taner Sener
+ *
+ * This file is part of FFmpegKit.
+ *
+ * FFmpegKit is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FFmpegKit is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FFmpegKit.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import 'latency_histogram.dart';
+
+/// Metrics of one native execution lane, part of [PluginMetrics].
+class LaneMetrics {
+  int _queueDepth;
+  int _maxQueueDepth;
+  int _activeCount;
+  int _concurrencyLimit;
+  LatencyHistogram _waitTime;
+  LatencyHistogram _runTime;
+
+  LaneMetrics(
+    this._queueDepth,
+    this._maxQueueDepth,
+    this._activeCount,
+    this._concurrencyLimit,
+    this._waitTime,
+    this._runTime,
+  );
+
+  /// Creates lane metrics from the map sent by the native plugin.
+  static LaneMetrics fromMap(Map<dynamic, dynamic>? map) => new LaneMetrics(
+        map?["queueDepth"] ?? 0,
+        map?["maxQueueDepth"] ?? 0,
+        map?["activeCount"] ?? 0,
+        map?["concurrencyLimit"] ?? 0,
+        LatencyHistogram.fromMap(map?["waitTime"]),
+        LatencyHistogram.fromMap(map?["runTime"]),
+      );
+
+  /// Number of tasks waiting in the queue of the lane.
+  int getQueueDepth() => _queueDepth;
+
+  /// Largest queue depth seen since the metrics were reset.
+  int getMaxQueueDepth() => _maxQueueDepth;
+
+  /// Number of tasks running on the lane.
+  int getActiveCount() => _activeCount;
+
+  /// Maximum number of tasks the lane runs in parallel.
+  int getConcurrencyLimit() => _concurrencyLimit;
+
+  /// Time tasks spent in the queue before they started running.
+  LatencyHistogram getWaitTime() => _waitTime;
+
+  /// Time tasks spent running.
+  LatencyHistogram getRunTime() => _runTime;
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2019-2021 Taner Sener
+ *
+ * This file is part of FFmpegKit.
+ *
+ * FFmpegKit is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FFmpegKit is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FFmpegKit.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/// Latency histogram with power of two buckets, part of [PluginMetrics].
+/// Durations are in microseconds.
+class LatencyHistogram {
+  int _count;
+  int _sum;
+  int _max;
+  List<int> _buckets;
+
+  LatencyHistogram(this._count, this._sum, this._max, this._buckets);
+
+  /// Creates a histogram from the map sent by the native plugin.
+  static LatencyHistogram fromMap(Map<dynamic, dynamic>? map) =>
+      new LatencyHistogram(
+        map?["count"] ?? 0,
+        map?["sum"] ?? 0,
+        map?["max"] ?? 0,
+        (map?["buckets"] as List<dynamic>? ?? List.empty())
+            .map((count) => count as int)
+            .toList(),
+      );
+
+  /// Number of recorded durations.
+  int getCount() => _count;
+
+  /// Sum of all recorded durations.
+  int getSum() => _sum;
+
+  /// Longest recorded duration.
+  int getMax() => _max;
+
+  /// Average of all recorded durations, zero if none is recorded.
+  double getAverage() => (_count > 0) ? _sum / _count : 0;
+
+  /// Number of durations per bucket. Bucket i counts durations up to 2^i
+  /// microseconds, the last bucket all longer ones.
+  List<int> getBuckets() => _buckets;
+
+  /// Returns the upper bound of the bucket holding the [percentile]th
+  /// duration, e.g. 99 for the 99th percentile. The result overestimates the
+  /// exact percentile by less than a factor of two.
+  int getPercentile(double percentile) {
+    final rank = (_count * percentile / 100).ceil();
+    int seen = 0;
+    for (int i = 0; i < _buckets.length; i++) {
+      seen += _buckets[i];
+      if (seen >= rank && seen > 0) {
+        return (i < _buckets.length - 1) ? 1 << i : _max;
+      }
+    }
+    return 0;
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2019-2021 Taner Sener
+ *
+ * This file is part of FFmpegKit.
+ *
+ * FFmpegKit is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FFmpegKit is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FFmpegKit.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/// Counters of the native media information cache, returned by
+/// [FFmpegKitConfig.getMediaInformationCacheStatistics].
+class MediaInformationCacheStatistics {
+  int _hitCount;
+  int _missCount;
+  int _entryCount;
+  int _byteCount;
+
+  MediaInformationCacheStatistics(
+    this._hitCount,
+    this._missCount,
+    this._entryCount,
+    this._byteCount,
+  );
+
+  /// Number of lookups answered from memory or disk.
+  int getHitCount() => _hitCount;
+
+  /// Number of lookups which found no entry.
+  int getMissCount() => _missCount;
+
+  /// Number of entries kept in memory.
+  int getEntryCount() => _entryCount;
+
+  /// Estimated size of the entries kept in memory.
+  int getByteCount() => _byteCount;
+}
@@ -17,11 +17,14 @@
  * along with FFmpegKit.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import 'dart:typed_data';
+
 import 'package:ffmpeg_kit_flutter_platform_interface/ffmpeg_kit_flutter_platform_interface.dart';
 import 'package:flutter/services.dart';
 
 import 'ffmpeg_kit_config.dart';
 import 'media_information.dart';
+import 'src/ffmpeg_kit_factory.dart';
 
 /// A parser that constructs "MediaInformation" from FFprobe's json output.
 class MediaInformationJsonParser {
@@ -62,4 +65,52 @@ class MediaInformationJsonParser {
       return Future.error("fromWithError failed.", stack);
     }
   }
+
+  /// Extracts MediaInformation from the given FFprobe json output, encoded as
+  /// UTF-8. Output read from a file or a pipe can be passed without decoding
+  /// it into a String first. Note that this method does not fail as
+  /// [fromBytesWithError] does and returns null on error.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<MediaInformation?> fromBytes(
+    Uint8List ffprobeJsonOutput,
+  ) async {
+    try {
+      await FFmpegKitConfig.init();
+      return FFmpegKitFactory.methodChannel.invokeMethod<Map<dynamic, dynamic>>(
+        'mediaInformationJsonParserFromBytes',
+        {'ffprobeJsonOutputBytes': ffprobeJsonOutput},
+      ).then((properties) {
+        if (properties == null || properties.isEmpty) {
+          return null;
+        } else {
+          return new MediaInformation(properties);
+        }
+      });
+    } on PlatformException catch (e, stack) {
+      print("Plugin fromBytes error: ${e.message}");
+      return Future.error("fromBytes failed.", stack);
+    }
+  }
+
+  /// Extracts MediaInformation from the given FFprobe json output, encoded as
+  /// UTF-8.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<MediaInformation> fromBytesWithError(
+    Uint8List ffprobeJsonOutput,
+  ) async {
+    try {
+      await FFmpegKitConfig.init();
+      return FFmpegKitFactory.methodChannel.invokeMethod<Map<dynamic, dynamic>>(
+        'mediaInformationJsonParserFromBytesWithError',
+        {'ffprobeJsonOutputBytes': ffprobeJsonOutput},
+      ).then((properties) => new MediaInformation(properties));
+    } on PlatformException catch (e, stack) {
+      print("Plugin fromBytesWithError error: ${e.message}");
+      return Future.error("fromBytesWithError failed.", stack);
+    }
+  }
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2019-2021 Taner Sener
+ *
+ * This file is part of FFmpegKit.
+ *
+ * FFmpegKit is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FFmpegKit is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FFmpegKit.  If not, see <http://www.gnu.org/licenses/>.
+ */
+import 'media_information.dart';
+
+/// Result of a single input of a [FFprobeKit.probeMediaInformation] call.
+class MediaProbeResult {
+  int _probeId;
+  int _index;
+  String _input;
+  int? _sessionId;
+  MediaInformation? _mediaInformation;
+  String? _error;
+  int _remaining;
+
+  MediaProbeResult(
+    this._probeId,
+    this._index,
+    this._input,
+    this._sessionId,
+    this._mediaInformation,
+    this._error,
+    this._remaining,
+  );
+
+  int getProbeId() => _probeId;
+
+  /// Position of the input in the list passed to the probe call.
+  int getIndex() => _index;
+
+  String getInput() => _input;
+
+  /// Id of the session which probed the input, null when the result was taken
+  /// from the media information cache or the input was never probed.
+  int? getSessionId() => _sessionId;
+
+  /// Media information of the input, null when probing failed.
+  MediaInformation? getMediaInformation() => _mediaInformation;
+
+  /// Reason probing failed, null when it succeeded.
+  String? getError() => _error;
+
+  /// Number of inputs of the probe call which have no result yet.
+  int getRemaining() => _remaining;
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2019-2021 Taner Sener
+ *
+ * This file is part of FFmpegKit.
+ *
+ * FFmpegKit is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FFmpegKit is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FFmpegKit.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import 'lane_metrics.dart';
+import 'latency_histogram.dart';
+
+/// Counters and latency histograms of the native plugin, returned by
+/// [FFmpegKitConfig.getPluginMetrics]. Durations are in microseconds.
+class PluginMetrics {
+  Map<String, LaneMetrics> _lanes;
+  Map<String, int> _eventsEmitted;
+  Map<String, int> _eventsDropped;
+  LatencyHistogram _eventDeliveryLatency;
+  LatencyHistogram _replyDeliveryLatency;
+  Map<String, LatencyHistogram> _methodCalls;
+  int _activeBatchCount;
+
+  PluginMetrics(
+    this._lanes,
+    this._eventsEmitted,
+    this._eventsDropped,
+    this._eventDeliveryLatency,
+    this._replyDeliveryLatency,
+    this._methodCalls,
+    this._activeBatchCount,
+  );
+
+  /// Creates plugin metrics from the map sent by the native plugin.
+  static PluginMetrics fromMap(Map<dynamic, dynamic>? map) {
+    final lanes = map?["lanes"] as Map<dynamic, dynamic>? ?? {};
+    final methodCalls = map?["methodCalls"] as Map<dynamic, dynamic>? ?? {};
+
+    return new PluginMetrics(
+      lanes.map(
+        (lane, laneMap) =>
+            MapEntry(lane as String, LaneMetrics.fromMap(laneMap)),
+      ),
+      _toCountMap(map?["eventsEmitted"]),
+      _toCountMap(map?["eventsDropped"]),
+      LatencyHistogram.fromMap(map?["eventDeliveryLatency"]),
+      LatencyHistogram.fromMap(map?["replyDeliveryLatency"]),
+      methodCalls.map(
+        (method, histogramMap) =>
+            MapEntry(method as String, LatencyHistogram.fromMap(histogramMap)),
+      ),
+      map?["activeBatchCount"] ?? 0,
+    );
+  }
+
+  static Map<String, int> _toCountMap(Map<dynamic, dynamic>? map) =>
+      (map ?? {}).map((type, count) => MapEntry(type as String, count as int));
+
+  /// Metrics of the execution lanes, keyed by lane name: "ffmpeg", "ffprobe"
+  /// and "pipe".
+  Map<String, LaneMetrics> getLanes() => _lanes;
+
+  /// Number of events delivered to Dart, keyed by event type.
+  Map<String, int> getEventsEmitted() => _eventsEmitted;
+
+  /// Number of events which were not delivered, keyed by event type. Events
+  /// are dropped when no listener is attached, and statistics are dropped
+  /// when newer statistics of the same session replace them while the
+  /// statistics rate is limited.
+  Map<String, int> getEventsDropped() => _eventsDropped;
+
+  /// Time between posting an event to the Android main thread and delivering
+  /// it.
+  LatencyHistogram getEventDeliveryLatency() => _eventDeliveryLatency;
+
+  /// Time between posting a method call reply to the Android main thread and
+  /// delivering it.
+  LatencyHistogram getReplyDeliveryLatency() => _replyDeliveryLatency;
+
+  /// Time from receiving a method call to replying to it, keyed by method
+  /// name. The count of each histogram is the number of calls.
+  Map<String, LatencyHistogram> getMethodCalls() => _methodCalls;
+
+  /// Number of batches submitted with [FFmpegKitConfig.submitBatch] which
+  /// are not completed yet.
+  int getActiveBatchCount() => _activeBatchCount;
+}
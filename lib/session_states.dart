@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2019-2021 Taner Sener
+ *
+ * This file is part of FFmpegKit.
+ *
+ * FFmpegKit is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FFmpegKit is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FFmpegKit.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import 'dart:typed_data';
+
+import 'return_code.dart';
+import 'session_state.dart';
+
+/// Fields of many sessions returned by a single
+/// [FFmpegKitConfig.getSessionStates] call, stored as parallel columns. The
+/// columns which were not requested are null.
+class SessionStates {
+  static const int fieldState = 1;
+  static const int fieldReturnCode = 2;
+  static const int fieldDuration = 4;
+  static const int fieldEndTime = 8;
+  static const int fieldAll =
+      fieldState | fieldReturnCode | fieldDuration | fieldEndTime;
+
+  /// State value of sessions which are not found in the session history.
+  static const int noState = -1;
+
+  /// Return code value of sessions which have not completed yet.
+  static const int noReturnCode = -2147483648;
+
+  Int64List _sessionIds;
+  Int32List? _states;
+  Int32List? _returnCodes;
+  Int64List? _durations;
+  Int64List? _endTimes;
+
+  SessionStates(
+    this._sessionIds,
+    this._states,
+    this._returnCodes,
+    this._durations,
+    this._endTimes,
+  );
+
+  int get length => _sessionIds.length;
+
+  Int64List getSessionIds() => _sessionIds;
+
+  Int32List? getStates() => _states;
+
+  Int32List? getReturnCodes() => _returnCodes;
+
+  Int64List? getDurations() => _durations;
+
+  Int64List? getEndTimes() => _endTimes;
+
+  /// Returns the state of the session at [index], null if the session is not
+  /// found or states were not requested.
+  SessionState? getState(int index) {
+    final state = _states?[index];
+    return (state == null || state == noState)
+        ? null
+        : SessionState.values[state];
+  }
+
+  /// Returns the return code of the session at [index], null if the session
+  /// has not completed or return codes were not requested.
+  ReturnCode? getReturnCode(int index) {
+    final returnCode = _returnCodes?[index];
+    return (returnCode == null || returnCode == noReturnCode)
+        ? null
+        : new ReturnCode(returnCode);
+  }
+}
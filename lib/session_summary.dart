@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2019-2021 Taner Sener
+ *
+ * This file is part of FFmpegKit.
+ *
+ * FFmpegKit is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FFmpegKit is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FFmpegKit.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import 'ffmpeg_kit_config.dart';
+import 'return_code.dart';
+import 'session.dart';
+import 'session_state.dart';
+
+enum SessionType { ffmpeg, ffprobe, mediaInformation }
+
+/// Light view of a session in the session history. It does not include the
+/// command and the media information, which are loaded on demand by
+/// [getSession].
+class SessionSummary {
+  int _sessionId;
+  SessionType _type;
+  DateTime? _createTime;
+  DateTime? _startTime;
+  DateTime? _endTime;
+  SessionState _state;
+  ReturnCode? _returnCode;
+
+  SessionSummary(
+    this._sessionId,
+    this._type,
+    this._createTime,
+    this._startTime,
+    this._endTime,
+    this._state,
+    this._returnCode,
+  );
+
+  int getSessionId() => _sessionId;
+
+  SessionType getType() => _type;
+
+  DateTime? getCreateTime() => _createTime;
+
+  DateTime? getStartTime() => _startTime;
+
+  DateTime? getEndTime() => _endTime;
+
+  SessionState getState() => _state;
+
+  ReturnCode? getReturnCode() => _returnCode;
+
+  /// Loads the full session from the session history.
+  Future<Session?> getSession() => FFmpegKitConfig.getSession(_sessionId);
+}
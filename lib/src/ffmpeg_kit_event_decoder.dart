@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2019-2022 Taner Sener
+ *
+ * This file is part of FFmpegKit.
+ *
+ * FFmpegKit is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FFmpegKit is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FFmpegKit.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import 'dart:convert';
+import 'dart:typed_data';
+
+import '../log.dart';
+import '../statistics.dart';
+
+/// Decodes the compact binary events sent by the Android plugin when compact
+/// events are enabled. The layout must be kept in sync with
+/// "CompactEventEncoder.java".
+class FFmpegKitEventDecoder {
+  static const int eventTypeLog = 1;
+  static const int eventTypeStatistics = 2;
+  static const int eventTypeLogBatch = 3;
+
+  /// Decodes [event] and passes every log and statistics entry found inside
+  /// to [onLog] and [onStatistics].
+  static void decode(
+    Uint8List event,
+    void Function(Log log) onLog,
+    void Function(Statistics statistics) onStatistics,
+  ) {
+    if (event.isEmpty) {
+      return;
+    }
+
+    final data = ByteData.sublistView(event);
+
+    switch (data.getUint8(0)) {
+      case eventTypeLog:
+        _readLog(event, data, 1, onLog);
+        break;
+      case eventTypeLogBatch:
+        final count = data.getInt32(1, Endian.little);
+        var offset = 5;
+        for (var i = 0; i < count; i++) {
+          offset = _readLog(event, data, offset, onLog);
+        }
+        break;
+      case eventTypeStatistics:
+        onStatistics(
+          new Statistics(
+            data.getInt64(1, Endian.little),
+            data.getInt32(9, Endian.little),
+            data.getFloat32(13, Endian.little),
+            data.getFloat32(17, Endian.little),
+            data.getInt64(21, Endian.little),
+            data.getFloat64(29, Endian.little).toInt(),
+            data.getFloat64(37, Endian.little),
+            data.getFloat64(45, Endian.little),
+          ),
+        );
+        break;
+    }
+  }
+
+  static int _readLog(
+    Uint8List event,
+    ByteData data,
+    int offset,
+    void Function(Log log) onLog,
+  ) {
+    final sessionId = data.getInt64(offset, Endian.little);
+    final level = data.getInt32(offset + 8, Endian.little);
+    final length = data.getInt32(offset + 12, Endian.little);
+    final start = offset + 16;
+    final message = utf8.decode(
+      Uint8List.sublistView(event, start, start + length),
+      allowMalformed: true,
+    );
+
+    onLog(new Log(sessionId, level, message));
+
+    return start + length;
+  }
+}
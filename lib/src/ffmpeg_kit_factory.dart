@@ -17,7 +17,12 @@
  * along with FFmpegKit.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import 'dart:io';
+
+import 'package:flutter/services.dart';
+
 import '../abstract_session.dart';
+import '../batch_job_callback.dart';
 import '../ffmpeg_session_complete_callback.dart';
 import '../ffprobe_session_complete_callback.dart';
 import '../log.dart';
@@ -25,7 +30,12 @@ import '../log_callback.dart';
 import '../log_redirection_strategy.dart';
 import '../media_information.dart';
 import '../media_information_session_complete_callback.dart';
+import '../media_probe_callback.dart';
+import '../pipe_progress_callback.dart';
+import '../return_code.dart';
 import '../session.dart';
+import '../session_state.dart';
+import '../session_summary.dart';
 import '../statistics.dart';
 import '../statistics_callback.dart';
 
@@ -38,14 +48,32 @@ final mediaInformationSessionCompleteCallbackMap =
 final logCallbackMap = new Map<int, LogCallback>();
 final statisticsCallbackMap = new Map<int, StatisticsCallback>();
 final logRedirectionStrategyMap = new Map<int, LogRedirectionStrategy>();
+final batchJobCallbackMap = new Map<int, BatchJobCallback>();
+final mediaProbeCallbackMap = new Map<int, MediaProbeCallback>();
 
 class FFmpegKitFactory {
+  /// Method channel used for the Android specific methods that are not part
+  /// of the platform interface.
+  static const MethodChannel methodChannel = const MethodChannel(
+    'flutter.arthenica.com/ffmpeg_kit',
+  );
+
+  /// Event channel carrying the chunks read by Android pipe readers.
+  static const EventChannel pipeEventChannel = const EventChannel(
+    'flutter.arthenica.com/ffmpeg_kit_pipe_event',
+  );
+
+  /// Shared by all pipe readers, so the native side sees a single listener.
+  static final Stream<dynamic> pipeEventStream =
+      pipeEventChannel.receiveBroadcastStream();
+
   static LogCallback? _logCallback;
   static StatisticsCallback? _statisticsCallback;
   static FFmpegSessionCompleteCallback? _ffmpegSessionCompleteCallback;
   static FFprobeSessionCompleteCallback? _ffprobeSessionCompleteCallback;
   static MediaInformationSessionCompleteCallback?
       _mediaInformationSessionCompleteCallback;
+  static PipeProgressCallback? _pipeProgressCallback;
 
   static Statistics mapToStatistics(Map<dynamic, dynamic> statisticsMap) =>
       new Statistics(
@@ -113,6 +141,7 @@ class FFmpegKitFactory {
   ) {
     if (sessionId != null && logRedirectionStrategy != null) {
       logRedirectionStrategyMap[sessionId] = logRedirectionStrategy;
+      _updateSessionLogFilter(sessionId);
     }
   }
 
@@ -122,11 +151,65 @@ class FFmpegKitFactory {
   static void setLogCallback(int? sessionId, LogCallback? logCallback) {
     if (sessionId != null && logCallback != null) {
       logCallbackMap[sessionId] = logCallback;
+      _updateSessionLogFilter(sessionId);
+    }
+  }
+
+  static BatchJobCallback? getBatchJobCallback(int batchId) =>
+      batchJobCallbackMap[batchId];
+
+  static void setBatchJobCallback(int batchId, BatchJobCallback? callback) {
+    if (callback != null) {
+      batchJobCallbackMap[batchId] = callback;
+    } else {
+      batchJobCallbackMap.remove(batchId);
+    }
+  }
+
+  static MediaProbeCallback? getMediaProbeCallback(int probeId) =>
+      mediaProbeCallbackMap[probeId];
+
+  static void setMediaProbeCallback(int probeId, MediaProbeCallback? callback) {
+    if (callback != null) {
+      mediaProbeCallbackMap[probeId] = callback;
+    } else {
+      mediaProbeCallbackMap.remove(probeId);
     }
   }
 
   static LogCallback? getGlobalLogCallback() => _logCallback;
 
+  /// Tells the Android plugin whether logs are used by a global callback or
+  /// printed, so that it drops the logs Dart would ignore before sending them.
+  static void updateGlobalLogFilter(
+    LogRedirectionStrategy logRedirectionStrategy,
+  ) {
+    _invokeLogFilter('setLogFilter', {
+      'logCallback': _logCallback != null,
+      'printLogs':
+          logRedirectionStrategy != LogRedirectionStrategy.neverPrintLogs,
+    });
+  }
+
+  static void _updateSessionLogFilter(int sessionId) {
+    final logRedirectionStrategy = logRedirectionStrategyMap[sessionId];
+    _invokeLogFilter('setSessionLogFilter', {
+      'sessionId': sessionId,
+      'logCallback': logCallbackMap[sessionId] != null,
+      'printLogs': logRedirectionStrategy == null
+          ? null
+          : logRedirectionStrategy != LogRedirectionStrategy.neverPrintLogs,
+    });
+  }
+
+  static void _invokeLogFilter(String method, Map<String, dynamic> arguments) {
+    if (Platform.isAndroid) {
+      methodChannel.invokeMethod<void>(method, arguments).catchError((e) {
+        print("Plugin $method error: $e");
+      });
+    }
+  }
+
   static void setGlobalLogCallback(LogCallback? logCallback) {
     _logCallback = logCallback;
   }
@@ -223,6 +306,28 @@ class FFmpegKitFactory {
     _mediaInformationSessionCompleteCallback = completeCallback;
   }
 
+  static PipeProgressCallback? getGlobalPipeProgressCallback() =>
+      _pipeProgressCallback;
+
+  static void setGlobalPipeProgressCallback(
+    PipeProgressCallback? pipeProgressCallback,
+  ) {
+    _pipeProgressCallback = pipeProgressCallback;
+  }
+
+  static SessionSummary mapToSessionSummary(Map<dynamic, dynamic> sessionMap) {
+    final int? returnCode = sessionMap["returnCode"];
+    return new SessionSummary(
+      sessionMap["sessionId"],
+      SessionType.values[sessionMap["type"] - 1],
+      validDate(sessionMap["createTime"]),
+      validDate(sessionMap["startTime"]),
+      validDate(sessionMap["endTime"]),
+      SessionState.values[sessionMap["state"]],
+      returnCode == null ? null : new ReturnCode(returnCode),
+    );
+  }
+
   static DateTime? validDate(int? time) {
     if (time == null || time <= 0) {
       return null;
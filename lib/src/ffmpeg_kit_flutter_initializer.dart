@@ -18,26 +18,33 @@
  */
 
 import 'dart:io';
+import 'dart:typed_data';
 
 import 'package:ffmpeg_kit_flutter_platform_interface/ffmpeg_kit_flutter_platform_interface.dart';
 import 'package:flutter/material.dart';
 import 'package:flutter/services.dart';
 
+import '../abstract_session.dart';
 import '../arch_detect.dart';
+import '../batch_job_event.dart';
 import '../ffmpeg_kit_config.dart';
 import '../ffmpeg_session.dart';
 import '../ffmpeg_session_complete_callback.dart';
 import '../ffprobe_session.dart';
 import '../ffprobe_session_complete_callback.dart';
 import '../level.dart';
+import '../log.dart';
 import '../log_callback.dart';
 import '../log_redirection_strategy.dart';
 import '../media_information_session.dart';
 import '../media_information_session_complete_callback.dart';
+import '../media_probe_result.dart';
 import '../packages.dart';
+import '../return_code.dart';
 import '../session.dart';
 import '../statistics.dart';
 import '../statistics_callback.dart';
+import 'ffmpeg_kit_event_decoder.dart';
 import 'ffmpeg_kit_factory.dart';
 
 class FFmpegKitInitializer {
@@ -59,7 +66,9 @@ class FFmpegKitInitializer {
   }
 
   void _onEvent(dynamic event) {
-    if (event is Map<dynamic, dynamic>) {
+    if (event is Uint8List) {
+      FFmpegKitEventDecoder.decode(event, _processLog, _processStatistics);
+    } else if (event is Map<dynamic, dynamic>) {
       final Map<String, dynamic> eventMap = event.cast<String, dynamic>();
       final Map<dynamic, dynamic>? logEvent =
           eventMap['FFmpegKitLogCallbackEvent'];
@@ -67,11 +76,25 @@ class FFmpegKitInitializer {
           eventMap['FFmpegKitStatisticsCallbackEvent'];
       final Map<dynamic, dynamic>? completeEvent =
           eventMap['FFmpegKitCompleteCallbackEvent'];
+      final List<dynamic>? logBatchEvent =
+          eventMap['FFmpegKitLogBatchCallbackEvent'];
+      final Map<dynamic, dynamic>? pipeProgressEvent =
+          eventMap['FFmpegKitPipeProgressEvent'];
+      final Map<dynamic, dynamic>? batchJobEvent =
+          eventMap['FFmpegKitBatchJobEvent'];
+      final Map<dynamic, dynamic>? mediaProbeEvent =
+          eventMap['FFmpegKitMediaProbeEvent'];
 
       if (logEvent != null) {
         _processLogCallbackEvent(logEvent);
       }
 
+      if (logBatchEvent != null) {
+        for (final dynamic batchedLogEvent in logBatchEvent) {
+          _processLogCallbackEvent(batchedLogEvent as Map<dynamic, dynamic>);
+        }
+      }
+
       if (statisticsEvent != null) {
         _processStatisticsCallbackEvent(statisticsEvent);
       }
@@ -79,6 +102,18 @@ class FFmpegKitInitializer {
       if (completeEvent != null) {
         _processCompleteCallbackEvent(completeEvent);
       }
+
+      if (pipeProgressEvent != null) {
+        _processPipeProgressEvent(pipeProgressEvent);
+      }
+
+      if (batchJobEvent != null) {
+        _processBatchJobEvent(batchJobEvent);
+      }
+
+      if (mediaProbeEvent != null) {
+        _processMediaProbeEvent(mediaProbeEvent);
+      }
     }
   }
 
@@ -87,10 +122,13 @@ class FFmpegKitInitializer {
   }
 
   void _processLogCallbackEvent(Map<dynamic, dynamic> event) {
-    final log = FFmpegKitFactory.mapToLog(event);
-    final int sessionId = event["sessionId"];
-    final int level = event["level"];
-    final String text = event["message"];
+    _processLog(FFmpegKitFactory.mapToLog(event));
+  }
+
+  void _processLog(Log log) {
+    final int sessionId = log.getSessionId();
+    final int level = log.getLevel();
+    final String text = log.getMessage();
     final int activeLogLevel = FFmpegKitConfig.getLogLevel();
     var globalCallbackDefined = false;
     var sessionCallbackDefined = false;
@@ -181,8 +219,11 @@ class FFmpegKitInitializer {
   }
 
   void _processStatisticsCallbackEvent(Map<dynamic, dynamic> event) {
-    final Statistics statistics = FFmpegKitFactory.mapToStatistics(event);
-    final int sessionId = event["sessionId"];
+    _processStatistics(FFmpegKitFactory.mapToStatistics(event));
+  }
+
+  void _processStatistics(Statistics statistics) {
+    final int sessionId = statistics.getSessionId();
 
     final StatisticsCallback? statisticsCallback =
         FFmpegKitFactory.getStatisticsCallback(sessionId);
@@ -212,7 +253,12 @@ class FFmpegKitInitializer {
   void _processCompleteCallbackEvent(Map<dynamic, dynamic> event) {
     final int sessionId = event["sessionId"];
 
-    FFmpegKitConfig.getSession(sessionId).then((Session? session) {
+    // enriched events carry the final state, older ones need a lookup
+    final Future<Session?> completedSession = event.containsKey("state")
+        ? Future.value(AbstractSession.createCompletedSessionFromMap(event))
+        : FFmpegKitConfig.getSession(sessionId);
+
+    completedSession.then((Session? session) {
       if (session != null) {
         if (session.isFFmpeg()) {
           final ffmpegSession = session as FFmpegSession;
@@ -299,6 +345,83 @@ class FFmpegKitInitializer {
     });
   }
 
+  void _processBatchJobEvent(Map<dynamic, dynamic> event) {
+    final int batchId = event["batchId"];
+    final int? returnCode = event["returnCode"];
+    final int remaining = event["remaining"];
+    final batchJobCallback = FFmpegKitFactory.getBatchJobCallback(batchId);
+
+    if (remaining == 0) {
+      FFmpegKitFactory.setBatchJobCallback(batchId, null);
+    }
+
+    if (batchJobCallback != null) {
+      try {
+        batchJobCallback(
+          new BatchJobEvent(
+            batchId,
+            event["jobId"],
+            event["sessionId"],
+            event["status"],
+            returnCode == null ? null : new ReturnCode(returnCode),
+            remaining,
+          ),
+        );
+      } on Exception catch (e, stack) {
+        print("Exception thrown inside batch job callback. $e");
+        print(stack);
+      }
+    }
+  }
+
+  void _processMediaProbeEvent(Map<dynamic, dynamic> event) {
+    final int probeId = event["probeId"];
+    final int remaining = event["remaining"];
+    final mediaProbeCallback = FFmpegKitFactory.getMediaProbeCallback(probeId);
+
+    if (remaining == 0) {
+      FFmpegKitFactory.setMediaProbeCallback(probeId, null);
+    }
+
+    if (mediaProbeCallback != null) {
+      try {
+        mediaProbeCallback(
+          new MediaProbeResult(
+            probeId,
+            event["index"],
+            event["input"],
+            event["sessionId"],
+            FFmpegKitFactory.mapToNullableMediaInformation(
+              event["mediaInformation"],
+            ),
+            event["error"],
+            remaining,
+          ),
+        );
+      } on Exception catch (e, stack) {
+        print("Exception thrown inside media probe callback. $e");
+        print(stack);
+      }
+    }
+  }
+
+  void _processPipeProgressEvent(Map<dynamic, dynamic> event) {
+    final pipeProgressCallback =
+        FFmpegKitFactory.getGlobalPipeProgressCallback();
+    if (pipeProgressCallback != null) {
+      try {
+        pipeProgressCallback(
+          event["pipe"],
+          event["bytesWritten"],
+          event["totalBytes"],
+        );
+      } on Exception catch (e, stack) {
+        print("Exception thrown inside global pipe progress callback. $e");
+        print(stack);
+      }
+    }
+  }
+
   Future<int?> _getLogLevel() async {
     try {
       // const MethodChannel _channel =
@@ -317,6 +440,11 @@ class FFmpegKitInitializer {
 
     _eventChannel.receiveBroadcastStream().listen(_onEvent, onError: _onError);
 
+    // the native filter outlives a hot restart, bring it back in sync
+    FFmpegKitFactory.updateGlobalLogFilter(
+      FFmpegKitConfig.getLogRedirectionStrategy(),
+    );
+
     final logLevel = await _getLogLevel();
     if (logLevel != null) {
       FFmpegKitConfig.setLogLevel(logLevel);
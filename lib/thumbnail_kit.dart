@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2019-2021 Taner Sener
+ *
+ * This file is part of FFmpegKit.
+ *
+ * FFmpegKit is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FFmpegKit is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FFmpegKit.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import 'dart:typed_data';
+
+import 'package:flutter/services.dart';
+
+import 'ffmpeg_kit_config.dart';
+import 'src/ffmpeg_kit_factory.dart';
+
+/// Extracts thumbnails and sprite sheets of media files.
+///
+/// All thumbnails requested in a single call are extracted by a single FFmpeg
+/// execution, which seeks to every timestamp separately instead of decoding
+/// the file up to it. Extracted thumbnails of local files and content uris
+/// are cached natively, until the file changes or the cache budget set with
+/// [FFmpegKitConfig.setThumbnailCacheMaxBytes] is exceeded.
+class ThumbnailKit {
+  /// Extracts thumbnails of [input] at [timestamps], given in milliseconds.
+  /// Thumbnails are scaled to [width] and [height]; when only one of them is
+  /// given the aspect ratio is kept, when none is given the original size is
+  /// used. [format] is one of "jpg", "png" or "webp". Returns the encoded
+  /// images in the order of [timestamps], with null for timestamps where no
+  /// frame could be extracted, e.g. past the end of [input].
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<List<Uint8List?>> extractThumbnails(
+    String input,
+    List<int> timestamps, [
+    int? width = null,
+    int? height = null,
+    String format = "jpg",
+  ]) async {
+    try {
+      await FFmpegKitConfig.init();
+      return FFmpegKitFactory.methodChannel.invokeListMethod<Uint8List?>(
+        'extractThumbnails',
+        {
+          'input': input,
+          'timestamps': timestamps,
+          'width': width,
+          'height': height,
+          'format': format,
+        },
+      ).then((thumbnails) => thumbnails ?? List.empty());
+    } on PlatformException catch (e, stack) {
+      print("Plugin extractThumbnails error: ${e.message}");
+      return Future.error("extractThumbnails failed.", stack);
+    }
+  }
+
+  /// Extracts thumbnails of [input] at [timestamps], like
+  /// [extractThumbnails], and tiles them into a single image with [columns]
+  /// thumbnails per row. All thumbnails are placed in a single row when
+  /// [columns] is not given. Timestamps where no frame could be extracted are
+  /// left out. Returns null if the sprite sheet could not be created.
+  ///
+  /// Note that this method is Android only. It will fail if called on other
+  /// platforms.
+  static Future<Uint8List?> extractSpriteSheet(
+    String input,
+    List<int> timestamps, [
+    int? width = null,
+    int? height = null,
+    int? columns = null,
+    String format = "jpg",
+  ]) async {
+    try {
+      await FFmpegKitConfig.init();
+      return FFmpegKitFactory.methodChannel.invokeMethod<Uint8List>(
+        'extractSpriteSheet',
+        {
+          'input': input,
+          'timestamps': timestamps,
+          'width': width,
+          'height': height,
+          'columns': columns,
+          'format': format,
+        },
+      );
+    } on PlatformException catch (e, stack) {
+      print("Plugin extractSpriteSheet error: ${e.message}");
+      return Future.error("extractSpriteSheet failed.", stack);
+    }
+  }
+}